@@ -2,6 +2,7 @@
 
 plugins {
     id("org.openrewrite.build.recipe-library") version "latest.release"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.openrewrite.recipe"
@@ -55,4 +56,14 @@ dependencies {
     testRuntimeOnly("org.codehaus.groovy:groovy:latest.release")
     testRuntimeOnly("jakarta.annotation:jakarta.annotation-api:1.3.5")
     testRuntimeOnly(gradleApi())
+
+    // the jmh source set already sees the main runtime classpath, so only JMH itself is added
+    jmh("org.openjdk.jmh:jmh-core:latest.release")
+    jmhAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:latest.release")
+}
+
+jmh {
+    // Fork and iteration counts are set on the benchmark classes, so that running their main() behaves the same.
+    // Reports allocation rate (gc.alloc.rate.norm) alongside throughput for every benchmark.
+    profilers.add("gc")
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
+import org.openrewrite.java.tree.J;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares testing every method invocation against a list of {@link MethodMatcher}s in sequence, as recipes did
+ * before, with looking it up in a {@link MethodMatcherIndex} of the same patterns. Throughput is reported as
+ * invocations matched per second through the {@code matches} auxiliary counter.
+ */
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MethodMatcherIndexBenchmark {
+
+    /**
+     * The patterns of the recipes migrated to {@link MethodMatcherIndex}.
+     */
+    private static final String[] PATTERNS = {
+            "sun.misc.CharacterEncoder encode(byte[])",
+            "sun.misc.CharacterEncoder encodeBuffer(byte[])",
+            "sun.misc.CharacterDecoder decodeBuffer(String)",
+            "sun.misc.BASE64Encoder <constructor>()",
+            "sun.misc.BASE64Decoder <constructor>()",
+            "java.util.stream.Stream collect(java.util.stream.Collector)",
+            "java.util.stream.Collectors toUnmodifiableList()",
+            "java.util.stream.Collectors toList()",
+            "java.util.List add(int, ..)",
+            "java.util.List get(int)",
+            "java.util.List remove(int)",
+            "java.util.Collections unmodifiableList(java.util.List)",
+            "java.util.Collections unmodifiableSet(java.util.Set)",
+            "java.util.Arrays asList(..)",
+            "*..* addSuppressed(Throwable)",
+            "*..* getSuppressed()"
+    };
+
+    private List<MethodMatcher> matchers;
+    private MethodMatcherIndex<MethodMatcher> index;
+    private List<J.MethodInvocation> invocations;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        matchers = new ArrayList<>(PATTERNS.length);
+        index = new MethodMatcherIndex<>();
+        for (String pattern : PATTERNS) {
+            MethodMatcher matcher = new MethodMatcher(pattern, true);
+            matchers.add(matcher);
+            index.add(pattern, true, matcher);
+        }
+
+        invocations = new ArrayList<>();
+        JavaParser.fromJavaVersion().build()
+                .parse(new InMemoryExecutionContext(Throwable::printStackTrace), SOURCE)
+                .forEach(cu -> new JavaIsoVisitor<List<J.MethodInvocation>>() {
+                    @Override
+                    public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, List<J.MethodInvocation> found) {
+                        found.add(method);
+                        return super.visitMethodInvocation(method, found);
+                    }
+                }.visit(cu, invocations));
+    }
+
+    @Benchmark
+    public void sequentialMatchers(Blackhole blackhole, Matches matches) {
+        for (J.MethodInvocation invocation : invocations) {
+            MethodMatcher match = null;
+            for (MethodMatcher matcher : matchers) {
+                if (matcher.matches(invocation)) {
+                    match = matcher;
+                    break;
+                }
+            }
+            blackhole.consume(match);
+        }
+        matches.matches += invocations.size();
+    }
+
+    @Benchmark
+    public void indexedMatchers(Blackhole blackhole, Matches matches) {
+        for (J.MethodInvocation invocation : invocations) {
+            blackhole.consume(index.get(invocation));
+        }
+        matches.matches += invocations.size();
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Matches {
+        public long matches;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            matches = 0;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MethodMatcherIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    //language=java
+    private static final String SOURCE = "" +
+            "import java.util.*;\n" +
+            "import java.util.stream.*;\n" +
+            "\n" +
+            "class Sample {\n" +
+            "    List<String> names(List<String> values, Map<String, Integer> counts, StringBuilder sb) {\n" +
+            "        List<String> copy = new ArrayList<>(values);\n" +
+            "        copy.add(0, \"first\");\n" +
+            "        copy.add(\"last\");\n" +
+            "        String head = copy.get(0);\n" +
+            "        copy.remove(copy.size() - 1);\n" +
+            "        counts.put(head, counts.getOrDefault(head, 0) + 1);\n" +
+            "        sb.append(head).append(copy.size()).append(counts.isEmpty());\n" +
+            "        Set<String> set = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(\"a\", \"b\")));\n" +
+            "        List<String> list = Collections.unmodifiableList(Arrays.asList(\"c\", \"d\"));\n" +
+            "        Optional.ofNullable(head).map(String::trim).ifPresent(sb::append);\n" +
+            "        try {\n" +
+            "            Objects.requireNonNull(head, \"head\").toLowerCase().trim();\n" +
+            "        } catch (RuntimeException e) {\n" +
+            "            e.addSuppressed(new IllegalStateException(e.getMessage()));\n" +
+            "            e.getSuppressed();\n" +
+            "        }\n" +
+            "        String.valueOf(set.size() + list.size()).isEmpty();\n" +
+            "        return values.stream()\n" +
+            "                .filter(s -> !s.isEmpty())\n" +
+            "                .map(String::toUpperCase)\n" +
+            "                .sorted()\n" +
+            "                .collect(Collectors.toList());\n" +
+            "    }\n" +
+            "}\n";
+}
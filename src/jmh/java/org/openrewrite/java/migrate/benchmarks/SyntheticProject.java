@@ -0,0 +1,233 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.gradle.GradleParser;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.marker.JavaProject;
+import org.openrewrite.java.marker.JavaVersion;
+import org.openrewrite.maven.MavenParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * Generates a multi-module project of {@code modules} x {@code classesPerModule} Java sources on disk and parses it
+ * once per trial. Even modules are built with Maven (as children of a root reactor pom), odd modules with Gradle.
+ * <p>
+ * The generated classes rotate between shapes that exercise the expensive parts of the Java upgrade composites:
+ * JAXB annotated types, Lombok {@code @Value} classes and multi-line string concatenations.
+ */
+@State(Scope.Benchmark)
+public class SyntheticProject {
+
+    @Param({"10"})
+    int modules;
+
+    @Param({"50"})
+    int classesPerModule;
+
+    /**
+     * The Java version recorded on every generated source file. Recipes gated on a language level, such as
+     * {@code UseTextBlocks} or {@code LombokValueToRecord}, only do real work when run with {@code -p javaVersion=17}.
+     */
+    @Param({"8"})
+    String javaVersion;
+
+    private Path projectDir;
+    private List<SourceFile> sourceFiles;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        projectDir = Files.createTempDirectory("synthetic-project");
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        sourceFiles = new ArrayList<>();
+
+        List<Path> poms = new ArrayList<>();
+        List<Path> gradleBuilds = new ArrayList<>();
+        StringBuilder mavenModules = new StringBuilder();
+
+        JavaParser javaParser = JavaParser.fromJavaVersion()
+                .dependsOn(STUBS)
+                .build();
+        for (int m = 0; m < modules; m++) {
+            String module = "module" + m;
+            Path moduleDir = Files.createDirectories(projectDir.resolve(module));
+            if (m % 2 == 0) {
+                mavenModules.append("    <module>").append(module).append("</module>\n");
+                poms.add(write(moduleDir.resolve("pom.xml"), modulePom(module)));
+            } else {
+                gradleBuilds.add(write(moduleDir.resolve("build.gradle"), gradleBuild()));
+            }
+
+            String pkg = "com.example." + module;
+            Path srcDir = Files.createDirectories(moduleDir.resolve("src/main/java/" + pkg.replace('.', '/')));
+            List<Path> javaSources = new ArrayList<>(classesPerModule);
+            for (int c = 0; c < classesPerModule; c++) {
+                javaSources.add(write(srcDir.resolve("Class" + c + ".java"), javaSource(pkg, c)));
+            }
+
+            JavaProject javaProject = new JavaProject(randomId(), module, null);
+            JavaVersion version = new JavaVersion(randomId(), "benchmark", "benchmark", javaVersion, javaVersion);
+            javaParser.parse(javaSources, projectDir, ctx)
+                    .map(sf -> sf.withMarkers(sf.getMarkers().addIfAbsent(javaProject).addIfAbsent(version)))
+                    .forEach(sourceFiles::add);
+            javaParser.reset();
+        }
+
+        poms.add(0, write(projectDir.resolve("pom.xml"), rootPom(mavenModules.toString())));
+        MavenParser.builder().build().parse(poms, projectDir, ctx).forEach(sourceFiles::add);
+        if (!gradleBuilds.isEmpty()) {
+            GradleParser.builder().build().parse(gradleBuilds, projectDir, ctx).forEach(sourceFiles::add);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    public List<SourceFile> getSourceFiles() {
+        return sourceFiles;
+    }
+
+    private static Path write(Path path, String content) throws IOException {
+        return Files.write(path, content.getBytes());
+    }
+
+    private String rootPom(String modules) {
+        //language=xml
+        return "<project>\n" +
+               "  <modelVersion>4.0.0</modelVersion>\n" +
+               "  <groupId>com.example</groupId>\n" +
+               "  <artifactId>root</artifactId>\n" +
+               "  <version>1.0.0</version>\n" +
+               "  <packaging>pom</packaging>\n" +
+               "  <properties>\n" +
+               "    <maven.compiler.source>" + javaVersion + "</maven.compiler.source>\n" +
+               "    <maven.compiler.target>" + javaVersion + "</maven.compiler.target>\n" +
+               "  </properties>\n" +
+               "  <modules>\n" +
+               modules +
+               "  </modules>\n" +
+               "</project>\n";
+    }
+
+    private static String modulePom(String module) {
+        //language=xml
+        return "<project>\n" +
+               "  <modelVersion>4.0.0</modelVersion>\n" +
+               "  <parent>\n" +
+               "    <groupId>com.example</groupId>\n" +
+               "    <artifactId>root</artifactId>\n" +
+               "    <version>1.0.0</version>\n" +
+               "  </parent>\n" +
+               "  <artifactId>" + module + "</artifactId>\n" +
+               "</project>\n";
+    }
+
+    private String gradleBuild() {
+        //language=groovy
+        return "plugins {\n" +
+               "    id 'java'\n" +
+               "}\n" +
+               "\n" +
+               "java {\n" +
+               "    sourceCompatibility = " + javaVersion + "\n" +
+               "    targetCompatibility = " + javaVersion + "\n" +
+               "}\n";
+    }
+
+    private static String javaSource(String pkg, int index) {
+        String name = "Class" + index;
+        switch (index % 3) {
+            case 0:
+                return "package " + pkg + ";\n" +
+                       "\n" +
+                       "import javax.xml.bind.annotation.XmlElement;\n" +
+                       "import javax.xml.bind.annotation.XmlRootElement;\n" +
+                       "\n" +
+                       "@XmlRootElement\n" +
+                       "public class " + name + " {\n" +
+                       "    @XmlElement\n" +
+                       "    private String name;\n" +
+                       "\n" +
+                       "    public String getName() {\n" +
+                       "        return name;\n" +
+                       "    }\n" +
+                       "}\n";
+            case 1:
+                return "package " + pkg + ";\n" +
+                       "\n" +
+                       "import lombok.Value;\n" +
+                       "\n" +
+                       "@Value\n" +
+                       "public class " + name + " {\n" +
+                       "    String id;\n" +
+                       "    int count;\n" +
+                       "}\n";
+            default:
+                return "package " + pkg + ";\n" +
+                       "\n" +
+                       "import java.util.ArrayList;\n" +
+                       "import java.util.List;\n" +
+                       "\n" +
+                       "public class " + name + " {\n" +
+                       "    private final List<Integer> values = new ArrayList<>();\n" +
+                       "\n" +
+                       "    String query() {\n" +
+                       "        return \"SELECT id, name\\n\" +\n" +
+                       "               \"FROM \" + \"table_" + index + "\\n\" +\n" +
+                       "               \"WHERE id = ?\\n\";\n" +
+                       "    }\n" +
+                       "\n" +
+                       "    Integer boxed(int i) {\n" +
+                       "        Integer value = new Integer(i);\n" +
+                       "        values.add(value);\n" +
+                       "        return value;\n" +
+                       "    }\n" +
+                       "}\n";
+        }
+    }
+
+    private static final String[] STUBS = {
+            //language=java
+            "package javax.xml.bind.annotation;\n" +
+            "public @interface XmlRootElement {}",
+            //language=java
+            "package javax.xml.bind.annotation;\n" +
+            "public @interface XmlElement {}",
+            //language=java
+            "package lombok;\n" +
+            "public @interface Value {}"
+    };
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the Java upgrade composites, or one of their direct sub-recipes, end to end over a {@link SyntheticProject}.
+ * Throughput is reported as files processed per second through the {@code files} auxiliary counter, and the Gradle
+ * {@code jmh} task adds the gc profiler for allocation rates.
+ * <p>
+ * A {@code recipe} of the form {@code Composite/3} selects the fourth entry of the composite's recipe list, which
+ * works for entries configured inline in YAML that cannot be activated by name. By default only the composites are
+ * run; {@link #main(String[])} runs every direct sub-recipe of them for a per sub-recipe breakdown.
+ */
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class UpgradeToJavaBenchmark {
+    private static final String[] COMPOSITES = {
+            "org.openrewrite.java.migrate.UpgradeToJava17",
+            "org.openrewrite.java.migrate.UpgradeToJava21"
+    };
+
+    @Param({
+            "org.openrewrite.java.migrate.UpgradeToJava17",
+            "org.openrewrite.java.migrate.UpgradeToJava21"
+    })
+    String recipe;
+
+    Recipe activeRecipe;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int sub = recipe.indexOf('/');
+        activeRecipe = activate(sub < 0 ? recipe : recipe.substring(0, sub));
+        if (sub >= 0) {
+            // activateRecipes wraps the named recipe in a composite of one
+            activeRecipe = activeRecipe.getRecipeList().get(0).getRecipeList().get(Integer.parseInt(recipe.substring(sub + 1)));
+        }
+    }
+
+    @Benchmark
+    public RecipeRun run(SyntheticProject project, FilesProcessed files) {
+        RecipeRun run = activeRecipe.run(new InMemoryLargeSourceSet(project.getSourceFiles()), new InMemoryExecutionContext());
+        files.files += project.getSourceFiles().size();
+        return run;
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class FilesProcessed {
+        public long files;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            files = 0;
+        }
+    }
+
+    private static Recipe activate(String recipeName) {
+        return Environment.builder()
+                .scanRuntimeClasspath("org.openrewrite.java.migrate")
+                .build()
+                .activateRecipes(recipeName);
+    }
+
+    /**
+     * Runs every direct sub-recipe of the upgrade composites, one benchmark per sub-recipe.
+     */
+    public static void main(String[] args) throws RunnerException {
+        List<String> subRecipes = new ArrayList<>();
+        for (String composite : COMPOSITES) {
+            int count = activate(composite).getRecipeList().get(0).getRecipeList().size();
+            for (int i = 0; i < count; i++) {
+                subRecipes.add(composite + "/" + i);
+            }
+        }
+        Options opt = new OptionsBuilder()
+                .include(UpgradeToJavaBenchmark.class.getSimpleName())
+                .param("recipe", subRecipes.toArray(new String[0]))
+                .build();
+        new Runner(opt).run();
+    }
+}
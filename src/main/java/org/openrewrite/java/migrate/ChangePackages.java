@@ -0,0 +1,387 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.SearchResult;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ChangePackages extends Recipe {
+
+    @Option(displayName = "Package mappings",
+            description = "Packages to rename, each of the form `old.package=new.package`. Mappings always apply to " +
+                          "sub-packages too, and the most specific mapping wins, so a sub-package can be excluded " +
+                          "by mapping it to itself.",
+            example = "javax.servlet=jakarta.servlet")
+    List<String> packageMappings;
+
+    @Option(displayName = "Change string literals",
+            description = "Also rename string literals that hold a fully qualified name in one of the mapped packages, " +
+                          "such as the argument to `Class.forName`. Defaults to `false`.",
+            required = false)
+    @Nullable
+    Boolean changeStringLiterals;
+
+    @Override
+    public String getDisplayName() {
+        return "Rename packages";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Renames several packages at once. This has the same effect as a series of recursive `ChangePackage` " +
+               "recipes, but each source file is traversed once no matter how many packages are mapped, and only " +
+               "source files that reference one of the mapped packages are traversed at all.";
+    }
+
+    @Override
+    public Validated<Object> validate() {
+        return super.validate().and(Validated.test("packageMappings",
+                "Package mappings must be of the form `old.package=new.package`",
+                packageMappings,
+                mappings -> mappings != null && mappings.stream().allMatch(m -> m.indexOf('=') > 0 && m.indexOf('=') < m.length() - 1)));
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        PackageTrie packages = new PackageTrie();
+        for (String mapping : packageMappings) {
+            int separator = mapping.indexOf('=');
+            packages.put(mapping.substring(0, separator).trim(), mapping.substring(separator + 1).trim());
+        }
+        boolean literals = Boolean.TRUE.equals(changeStringLiterals);
+        ChangePackagesVisitor visitor = new ChangePackagesVisitor(packages, literals);
+        // String literals are not part of the type table, so only the cheaper check is possible without them
+        return literals ? visitor : Preconditions.check(new UsesMappedPackage(packages), visitor);
+    }
+
+    /**
+     * Answers from the package declaration, the imports and the type table alone, without traversing the file.
+     */
+    private static class UsesMappedPackage extends TreeVisitor<Tree, ExecutionContext> {
+        private final PackageTrie packages;
+
+        UsesMappedPackage(PackageTrie packages) {
+            this.packages = packages;
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+            if (!(tree instanceof JavaSourceFile)) {
+                return tree;
+            }
+            JavaSourceFile cu = (JavaSourceFile) tree;
+            J.Package pkg = cu.getPackageDeclaration();
+            if (pkg != null && packages.map(qualifiedName(pkg.getExpression())) != null) {
+                return SearchResult.found(cu);
+            }
+            for (J.Import anImport : cu.getImports()) {
+                if (packages.map(qualifiedName(anImport.getQualid())) != null) {
+                    return SearchResult.found(cu);
+                }
+            }
+            for (JavaType type : cu.getTypesInUse().getTypesInUse()) {
+                if (type instanceof JavaType.FullyQualified &&
+                    packages.map(((JavaType.FullyQualified) type).getPackageName()) != null) {
+                    return SearchResult.found(cu);
+                }
+            }
+            return cu;
+        }
+    }
+
+    private static class ChangePackagesVisitor extends JavaVisitor<ExecutionContext> {
+        private final PackageTrie packages;
+        private final boolean changeStringLiterals;
+        private final Map<JavaType, JavaType> oldToChangedType = new IdentityHashMap<>();
+
+        ChangePackagesVisitor(PackageTrie packages, boolean changeStringLiterals) {
+            this.packages = packages;
+            this.changeStringLiterals = changeStringLiterals;
+        }
+
+        @Override
+        public J visitCompilationUnit(J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+            J.CompilationUnit cu = (J.CompilationUnit) super.visitCompilationUnit(compilationUnit, ctx);
+            J.Package pkg = compilationUnit.getPackageDeclaration();
+            if (pkg == null) {
+                return cu;
+            }
+            String oldPackageName = qualifiedName(pkg.getExpression());
+            String newPackageName = packages.map(oldPackageName);
+            if (oldPackageName == null || newPackageName == null) {
+                return cu;
+            }
+            // Move the source file along with its package
+            String path = cu.getSourcePath().toString().replace('\\', '/');
+            String oldDirectory = oldPackageName.replace('.', '/') + '/';
+            int directoryStart = path.lastIndexOf(oldDirectory);
+            if (directoryStart >= 0 && path.indexOf('/', directoryStart + oldDirectory.length()) < 0) {
+                cu = cu.withSourcePath(Paths.get(path.substring(0, directoryStart) +
+                                                 newPackageName.replace('.', '/') + '/' +
+                                                 path.substring(directoryStart + oldDirectory.length())));
+            }
+            return cu;
+        }
+
+        @Override
+        public J visitPackage(J.Package pkg, ExecutionContext ctx) {
+            J.Package p = (J.Package) super.visitPackage(pkg, ctx);
+            String newPackageName = packages.map(qualifiedName(p.getExpression()));
+            if (newPackageName == null) {
+                return p;
+            }
+            return p.withExpression(((Expression) TypeTree.build(newPackageName)).withPrefix(p.getExpression().getPrefix()));
+        }
+
+        @Override
+        public J visitImport(J.Import anImport, ExecutionContext ctx) {
+            J.Import i = anImport;
+            String newQualid = packages.map(qualifiedName(i.getQualid()));
+            if (newQualid != null) {
+                // Imports are renamed by name, so that imports of types missing from the classpath are covered too
+                J.FieldAccess qualid = i.getQualid();
+                i = i.withQualid(((J.FieldAccess) TypeTree.build(newQualid))
+                        .withPrefix(qualid.getPrefix())
+                        .withType(updateType(qualid.getType())));
+            }
+            return super.visitImport(i, ctx);
+        }
+
+        @Override
+        public J visitFieldAccess(J.FieldAccess fieldAccess, ExecutionContext ctx) {
+            J j = super.visitFieldAccess(fieldAccess, ctx);
+            if (!(j instanceof J.FieldAccess)) {
+                return j;
+            }
+            // A fully qualified type reference, such as `javax.servlet.Filter` in `implements javax.servlet.Filter`
+            J.FieldAccess fa = (J.FieldAccess) j;
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(fieldAccess.getType());
+            String target = qualifiedName(fa.getTarget());
+            if (type == null || target == null || !target.equals(type.getPackageName())) {
+                return fa;
+            }
+            String newPackageName = packages.map(target);
+            if (newPackageName == null) {
+                return fa;
+            }
+            return fa.withTarget(((Expression) TypeTree.build(newPackageName)).withPrefix(fa.getTarget().getPrefix()));
+        }
+
+        @Override
+        public J visitLiteral(J.Literal literal, ExecutionContext ctx) {
+            J.Literal l = (J.Literal) super.visitLiteral(literal, ctx);
+            if (!changeStringLiterals || l.getType() != JavaType.Primitive.String || !(l.getValue() instanceof String)) {
+                return l;
+            }
+            String value = (String) l.getValue();
+            String newValue = isQualifiedName(value) ? packages.map(value) : null;
+            if (newValue == null || l.getValueSource() == null || !l.getValueSource().contains(value)) {
+                return l;
+            }
+            return l.withValue(newValue).withValueSource(l.getValueSource().replace(value, newValue));
+        }
+
+        @Override
+        public @Nullable JavaType visitType(@Nullable JavaType javaType, ExecutionContext ctx) {
+            return updateType(javaType);
+        }
+
+        private @Nullable JavaType updateType(@Nullable JavaType oldType) {
+            if (oldType == null || oldType instanceof JavaType.Unknown || oldType instanceof JavaType.Primitive) {
+                return oldType;
+            }
+            JavaType changed = oldToChangedType.get(oldType);
+            if (changed != null) {
+                return changed;
+            }
+            if (oldType instanceof JavaType.Class) {
+                JavaType.Class clazz = (JavaType.Class) oldType;
+                String newFullyQualifiedName = packages.map(clazz.getFullyQualifiedName());
+                if (newFullyQualifiedName != null) {
+                    return updateMovedClass(clazz, newFullyQualifiedName);
+                }
+            }
+            // Guards against cycles such as `T extends Comparable<T>`, which resolve to the unchanged type
+            oldToChangedType.put(oldType, oldType);
+
+            JavaType type = oldType;
+            if (oldType instanceof JavaType.Parameterized) {
+                JavaType.Parameterized pt = (JavaType.Parameterized) oldType;
+                type = pt.withType((JavaType.FullyQualified) updateType(pt.getType()))
+                        .withTypeParameters(ListUtils.map(pt.getTypeParameters(), this::updateType));
+            } else if (oldType instanceof JavaType.Class) {
+                // A class that stays put may still extend, implement or be nested in a class that moves. Its members
+                // are left alone, as following them for every class in the type table would walk the whole JDK.
+                JavaType.Class clazz = (JavaType.Class) oldType;
+                type = clazz.withSupertype((JavaType.FullyQualified) updateType(clazz.getSupertype()))
+                        .withInterfaces(ListUtils.map(clazz.getInterfaces(), i -> (JavaType.FullyQualified) updateType(i)))
+                        .withOwningClass((JavaType.FullyQualified) updateType(clazz.getOwningClass()))
+                        .withTypeParameters(ListUtils.map(clazz.getTypeParameters(), this::updateType));
+            } else if (oldType instanceof JavaType.FullyQualified) {
+                JavaType.FullyQualified fq = (JavaType.FullyQualified) oldType;
+                String newFullyQualifiedName = packages.map(fq.getFullyQualifiedName());
+                if (newFullyQualifiedName != null) {
+                    type = JavaType.ShallowClass.build(newFullyQualifiedName);
+                }
+            } else if (oldType instanceof JavaType.GenericTypeVariable) {
+                JavaType.GenericTypeVariable gtv = (JavaType.GenericTypeVariable) oldType;
+                type = gtv.withBounds(ListUtils.map(gtv.getBounds(), this::updateType));
+            } else if (oldType instanceof JavaType.Array) {
+                JavaType.Array array = (JavaType.Array) oldType;
+                type = array.withElemType(updateType(array.getElemType()));
+            } else if (oldType instanceof JavaType.Variable) {
+                JavaType.Variable variable = (JavaType.Variable) oldType;
+                type = variable.withOwner(updateType(variable.getOwner()))
+                        .withType(updateType(variable.getType()));
+            } else if (oldType instanceof JavaType.Method) {
+                JavaType.Method method = (JavaType.Method) oldType;
+                type = method.withDeclaringType((JavaType.FullyQualified) updateType(method.getDeclaringType()))
+                        .withReturnType(updateType(method.getReturnType()))
+                        .withParameterTypes(ListUtils.map(method.getParameterTypes(), this::updateType));
+            }
+            oldToChangedType.put(oldType, type);
+            return type;
+        }
+
+        /**
+         * Everything about a class that moves is declared in the old package, so its members and methods are updated
+         * along with its name. The new class is registered before its contents are updated, so that members which
+         * refer back to their owner resolve to the new class rather than the old one.
+         */
+        private JavaType.Class updateMovedClass(JavaType.Class clazz, String newFullyQualifiedName) {
+            JavaType.Class moved = new JavaType.Class(null, clazz.getFlagsBitMap(), newFullyQualifiedName,
+                    clazz.getKind(), null, null, null, null, null, null, null);
+            oldToChangedType.put(clazz, moved);
+            oldToChangedType.put(moved, moved);
+            moved.unsafeSet(
+                    ListUtils.map(clazz.getTypeParameters(), this::updateType),
+                    (JavaType.FullyQualified) updateType(clazz.getSupertype()),
+                    (JavaType.FullyQualified) updateType(clazz.getOwningClass()),
+                    ListUtils.map(clazz.getAnnotations(), a -> (JavaType.FullyQualified) updateType(a)),
+                    ListUtils.map(clazz.getInterfaces(), i -> (JavaType.FullyQualified) updateType(i)),
+                    ListUtils.map(clazz.getMembers(), m -> (JavaType.Variable) updateType(m)),
+                    ListUtils.map(clazz.getMethods(), m -> (JavaType.Method) updateType(m)));
+            return moved;
+        }
+    }
+
+    private static @Nullable String qualifiedName(Expression expression) {
+        if (expression instanceof J.Identifier) {
+            return ((J.Identifier) expression).getSimpleName();
+        } else if (expression instanceof J.FieldAccess) {
+            J.FieldAccess fa = (J.FieldAccess) expression;
+            String target = qualifiedName(fa.getTarget());
+            return target == null ? null : target + '.' + fa.getSimpleName();
+        }
+        return null;
+    }
+
+    private static boolean isQualifiedName(String value) {
+        boolean segmentStart = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (segmentStart) {
+                    return false;
+                }
+                segmentStart = true;
+            } else if (segmentStart ? Character.isJavaIdentifierStart(c) : Character.isJavaIdentifierPart(c)) {
+                segmentStart = false;
+            } else {
+                return false;
+            }
+        }
+        return !segmentStart;
+    }
+
+    /**
+     * A trie over the dot separated segments of the old package names, so that finding the most specific mapping
+     * for a name costs one lookup per segment, however many mappings there are.
+     */
+    static class PackageTrie {
+        private final Node root = new Node();
+
+        void put(String oldPackageName, String newPackageName) {
+            Node node = root;
+            int start = 0;
+            while (start <= oldPackageName.length()) {
+                int end = oldPackageName.indexOf('.', start);
+                if (end < 0) {
+                    end = oldPackageName.length();
+                }
+                node = node.children.computeIfAbsent(oldPackageName.substring(start, end), k -> new Node());
+                start = end + 1;
+            }
+            node.newPackageName = newPackageName;
+        }
+
+        /**
+         * @param name A package name or fully qualified name.
+         * @return The name with its package renamed by the most specific mapping, or null when no mapping applies or
+         * the most specific mapping leaves it unchanged.
+         */
+        @Nullable
+        String map(@Nullable String name) {
+            if (name == null) {
+                return null;
+            }
+            Node node = root;
+            String newPackageName = null;
+            int matchedLength = 0;
+            int start = 0;
+            while (start <= name.length()) {
+                int end = name.indexOf('.', start);
+                if (end < 0) {
+                    end = name.length();
+                }
+                node = node.children.get(name.substring(start, end));
+                if (node == null) {
+                    break;
+                }
+                if (node.newPackageName != null) {
+                    newPackageName = node.newPackageName;
+                    matchedLength = end;
+                }
+                start = end + 1;
+            }
+            if (newPackageName == null || newPackageName.length() == matchedLength && name.startsWith(newPackageName)) {
+                return null;
+            }
+            return newPackageName + name.substring(matchedLength);
+        }
+
+        private static class Node {
+            final Map<String, Node> children = new HashMap<>();
+
+            @Nullable
+            String newPackageName;
+        }
+    }
+}
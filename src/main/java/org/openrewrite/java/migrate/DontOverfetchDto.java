@@ -15,14 +15,17 @@
  */
 package org.openrewrite.java.migrate;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.search.DtoUsageIndex;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.TypeTree;
@@ -34,22 +37,44 @@ import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Collections.emptyList;
-import static org.openrewrite.internal.StringUtils.uncapitalize;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class DontOverfetchDto extends Recipe {
+public class DontOverfetchDto extends ScanningRecipe<DtoUsageIndex> {
 
     @Option(displayName = "DTO type",
-            description = "The fully qualified name of the DTO.",
+            description = "The fully qualified name of the DTO, or a pattern matching several DTO types.",
             example = "animals.Dog")
     String dtoType;
 
     @Option(displayName = "Data element",
             description = "Replace the DTO as a method parameter when only this data element is used.",
-            example = "name")
+            example = "name",
+            required = false)
+    @Nullable
     String dtoDataElement;
 
+    @Option(displayName = "Data elements",
+            description = "Replace the DTO as a method parameter when only one of these data elements is used, " +
+                          "so that several data elements can be handled in a single run.",
+            example = "name, breed",
+            required = false)
+    @Nullable
+    List<String> dtoDataElements;
+
+    public DontOverfetchDto(String dtoType, String dtoDataElement) {
+        this(dtoType, dtoDataElement, null);
+    }
+
+    @JsonCreator
+    public DontOverfetchDto(@JsonProperty("dtoType") String dtoType,
+                            @JsonProperty("dtoDataElement") @Nullable String dtoDataElement,
+                            @JsonProperty("dtoDataElements") @Nullable List<String> dtoDataElements) {
+        this.dtoType = dtoType;
+        this.dtoDataElement = dtoDataElement;
+        this.dtoDataElements = dtoDataElements;
+    }
+
     @Override
     public String getDisplayName() {
         return "Replace DTO method parameters with data elements";
@@ -62,18 +87,69 @@ public class DontOverfetchDto extends Recipe {
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
-        MethodMatcher dtoFields = new MethodMatcher(dtoType + " *(..)");
+    public Validated<Object> validate() {
+        return super.validate().and(Validated.test("dtoDataElement", "At least one data element is required.", this,
+                r -> !dataElements().isEmpty()));
+    }
+
+    private Set<String> dataElements() {
+        Set<String> dataElements = new HashSet<>();
+        if (dtoDataElement != null) {
+            dataElements.add(dtoDataElement);
+        }
+        if (dtoDataElements != null) {
+            dataElements.addAll(dtoDataElements);
+        }
+        return dataElements;
+    }
+
+    @Override
+    public DtoUsageIndex getInitialValue(ExecutionContext ctx) {
+        return DtoUsageIndex.forRun(dtoType, ctx);
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(DtoUsageIndex index) {
+        return index.indexer();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(DtoUsageIndex index) {
+        Set<String> dataElements = dataElements();
         return new JavaIsoVisitor<ExecutionContext>() {
+            private DtoUsageIndex.@Nullable FileIndex fileIndex;
+
+            @Override
+            public @Nullable J visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile) {
+                    fileIndex = index.index((SourceFile) tree, ctx);
+                    // recipes after this one find the uses of this file again themselves
+                    index.release((SourceFile) tree);
+                    if (fileIndex == null) {
+                        return (J) tree;
+                    }
+                }
+                return super.visit(tree, ctx);
+            }
+
             @Override
             public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
                 J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
-                for (Entry<String, Set<String>> usesForArgument : getCursor().getMessage("dtoDataUses",
-                        Collections.<String, Set<String>>emptyMap()).entrySet()) {
+                if (fileIndex == null) {
+                    return m;
+                }
+                Map<String, Set<String>> usesByParameter = new LinkedHashMap<>();
+                for (DtoUsageIndex.DtoUse use : fileIndex.usesIn(method)) {
+                    if (use.isParameter()) {
+                        usesByParameter.computeIfAbsent(use.getVariableName(), n -> new HashSet<>()).add(use.getDataElement());
+                    }
+                }
+                for (Entry<String, Set<String>> usesForArgument : usesByParameter.entrySet()) {
                     String dtoVariableName = usesForArgument.getKey();
 
                     Set<String> allUses = usesForArgument.getValue();
-                    if (allUses.size() == 1 && allUses.iterator().next().equals(dtoDataElement)) {
+                    if (allUses.size() == 1 && dataElements.contains(allUses.iterator().next())) {
+                        String dataElement = allUses.iterator().next();
                         AtomicReference<JavaType.FullyQualified> memberTypeAtomic = new AtomicReference<>();
 
                         m = m.withParameters(ListUtils.map(m.getParameters(), p -> {
@@ -83,7 +159,7 @@ public class DontOverfetchDto extends Recipe {
                                     JavaType.FullyQualified dtoType = v.getTypeAsFullyQualified();
                                     if (dtoType != null) {
                                         for (JavaType.Variable member : dtoType.getMembers()) {
-                                            if (member.getName().equals(dtoDataElement)) {
+                                            if (member.getName().equals(dataElement)) {
                                                 JavaType.FullyQualified memberType = TypeUtils.asFullyQualified(member.getType());
                                                 memberTypeAtomic.set(memberType);
                                                 if (memberType != null) {
@@ -95,10 +171,10 @@ public class DontOverfetchDto extends Recipe {
                                                             .withVariables(ListUtils.map(v.getVariables(), nv -> {
                                                                 JavaType.Variable fieldType = nv.getName().getFieldType();
                                                                 return nv
-                                                                        .withName(nv.getName().withSimpleName(dtoDataElement).withType(memberType))
+                                                                        .withName(nv.getName().withSimpleName(dataElement).withType(memberType))
                                                                         .withType(memberType)
                                                                         .withVariableType(fieldType
-                                                                                .withName(dtoDataElement).withOwner(memberType));
+                                                                                .withName(dataElement).withOwner(memberType));
                                                             }));
                                                 }
                                             }
@@ -109,24 +185,10 @@ public class DontOverfetchDto extends Recipe {
                             return p;
                         }));
 
-                        m = (J.MethodDeclaration) new ReplaceWithDtoElement(dtoVariableName, memberTypeAtomic.get()).visitNonNull(m, ctx,
-                                getCursor().getParentOrThrow());
-                    }
-                }
-                return m;
-            }
-
-            @Override
-            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
-                if (dtoFields.matches(method)) {
-                    Iterator<Cursor> methodDeclarations = getCursor()
-                            .getPathAsCursors(c -> c.getValue() instanceof J.MethodDeclaration);
-                    if (methodDeclarations.hasNext() && method.getSelect() instanceof J.Identifier) {
-                        String argumentName = ((J.Identifier) method.getSelect()).getSimpleName();
-                        methodDeclarations.next().computeMessageIfAbsent("dtoDataUses", k -> new HashMap<String, Set<String>>())
-                                .computeIfAbsent(argumentName, n -> new HashSet<>())
-                                .add(uncapitalize(method.getSimpleName().replaceAll("^get", "")));
+                        if (memberTypeAtomic.get() != null) {
+                            m = (J.MethodDeclaration) new ReplaceWithDtoElement(dtoVariableName, dataElement, memberTypeAtomic.get())
+                                    .visitNonNull(m, ctx, getCursor().getParentOrThrow());
+                        }
                     }
                 }
                 return m;
@@ -135,8 +197,9 @@ public class DontOverfetchDto extends Recipe {
     }
 
     @RequiredArgsConstructor
-    private class ReplaceWithDtoElement extends JavaVisitor<ExecutionContext> {
+    private static class ReplaceWithDtoElement extends JavaVisitor<ExecutionContext> {
         private final String dtoVariableName;
+        private final String dtoDataElement;
         private final JavaType.FullyQualified memberType;
 
         @Override
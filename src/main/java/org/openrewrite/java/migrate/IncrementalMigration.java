@@ -0,0 +1,332 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.config.OptionDescriptor;
+import org.openrewrite.java.marker.JavaSourceSet;
+import org.openrewrite.java.marker.JavaVersion;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs another recipe, usually one of the Java upgrade composites, and remembers in a file on disk which Java source
+ * files it produced no change for. On the next run, the recipes of the composite skip those files as long as their
+ * content is unchanged.
+ * <p>
+ * Entries are keyed by a hash of the content of a Java source file: its printed source, path, Java version and the
+ * classpath of its source set. Other source files are never skipped, as recipes for build files also depend on what
+ * they resolve from remote repositories, such as the latest version of a plugin or the dependencies of a project. The
+ * whole cache is discarded when the recipe tree, any recipe option, or the version of any recipe library changes.
+ * Scanning recipes always scan and visit every source file, as their accumulators depend on other files, and a file
+ * a recipe changed in a cycle is visited by every recipe after it. The other recipes are assumed to only depend on the
+ * file they visit; data table rows they would add for a skipped file are not added again.
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class IncrementalMigration extends ScanningRecipe<IncrementalMigration.Accumulator> {
+
+    @Option(displayName = "Recipe name",
+            description = "Fully qualified name of the recipe to run incrementally.",
+            example = "org.openrewrite.java.migrate.UpgradeToJava21")
+    String recipeName;
+
+    @Option(displayName = "Cache file",
+            description = "The file the source files without changes are recorded in. Use one file per repository.",
+            example = ".rewrite/upgrade-to-java-21.cache")
+    String cacheFile;
+
+    /**
+     * Where the wrapped recipes find the accumulator of the current run.
+     */
+    transient String accumulatorKey = IncrementalMigration.class.getName() + "." + Tree.randomId();
+
+    /**
+     * The wrapped recipe tree and its fingerprint, resolved on first use as loading a recipe by name requires
+     * scanning the classpath.
+     */
+    transient AtomicReference<@Nullable RecipeTree> recipeTree = new AtomicReference<>();
+
+    @Override
+    public String getDisplayName() {
+        return "Run a recipe incrementally";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Runs a recipe and records the Java source files it made no changes to in a cache file, so that later " +
+               "runs skip those files while their content and the recipe are unchanged.";
+    }
+
+    @Override
+    public List<Recipe> getRecipeList() {
+        if (recipeName == null) {
+            // Constructed without options when the recipes on the classpath are loaded, which the recipe tree does
+            // itself, so it must not load them again
+            return Collections.emptyList();
+        }
+        return getRecipeTree().getTree().getRecipes();
+    }
+
+    private RecipeTree getRecipeTree() {
+        RecipeTree tree = recipeTree.get();
+        if (tree == null) {
+            MessageDigest fingerprint = sha256();
+            update(fingerprint, Recipe.class.getPackage().getImplementationVersion());
+            WrappedRecipeTree wrapped = new WrappedRecipeTree(recipeName, (recipe, parent) -> {
+                update(fingerprint, recipe.getName());
+                update(fingerprint, recipe.getClass().getPackage() == null ? null : recipe.getClass().getPackage().getImplementationVersion());
+                for (OptionDescriptor option : recipe.getDescriptor().getOptions()) {
+                    update(fingerprint, option.getName());
+                    update(fingerprint, String.valueOf(option.getValue()));
+                }
+                update(fingerprint, String.valueOf(recipe.getRecipeList().size()));
+                boolean skippable = !(recipe instanceof ScanningRecipe);
+                return (visitor, editing) -> editing ? new SkippingVisitor(accumulatorKey, visitor, skippable) : visitor;
+            }, new WrappedRecipeTree.Listener() {
+                @Override
+                public void finished(SourceFile sourceFile, ExecutionContext ctx) {
+                    Accumulator acc = ctx.getMessage(accumulatorKey);
+                    if (acc != null) {
+                        acc.finished(sourceFile, ctx.getCycle());
+                    }
+                }
+
+                @Override
+                public void cycleEnded(int cycle, ExecutionContext ctx) {
+                    Accumulator acc = ctx.getMessage(accumulatorKey);
+                    if (acc != null) {
+                        try {
+                            acc.write(Paths.get(cacheFile));
+                        } catch (IOException e) {
+                            ctx.getOnError().accept(e);
+                        }
+                    }
+                }
+            });
+            recipeTree.compareAndSet(null, new RecipeTree(wrapped, encode(fingerprint.digest())));
+            tree = recipeTree.get();
+        }
+        return tree;
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        // Created once per run, so a later run with the same context reads the cache file again
+        String fingerprint = getRecipeTree().getFingerprint();
+        Accumulator acc = new Accumulator(fingerprint);
+        Path path = Paths.get(cacheFile);
+        if (Files.exists(path)) {
+            try {
+                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+                if (!lines.isEmpty() && fingerprint.equals(lines.get(0))) {
+                    acc.cached.addAll(lines.subList(1, lines.size()));
+                }
+            } catch (IOException e) {
+                ctx.getOnError().accept(e);
+            }
+        }
+        ctx.putMessage(accumulatorKey, acc);
+        return acc;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return TreeVisitor.noop();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof JavaSourceFile) {
+                    // Hashed before any recipe of the composite visits the file in this cycle
+                    SourceFile sourceFile = (SourceFile) tree;
+                    acc.hashes.computeIfAbsent(sourceFile.getId(), id -> acc.contentHash(sourceFile));
+                }
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * Held per recipe run in the execution context, so the wrapped recipes can reach it without an accumulator of
+     * their own.
+     */
+    public static class Accumulator {
+        private final String fingerprint;
+        private final Set<String> cached = ConcurrentHashMap.newKeySet();
+        private final Set<String> unchanged = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The content hash of each Java source file, as it was when the current cycle started.
+         */
+        private final Map<UUID, String> hashes = new ConcurrentHashMap<>();
+
+        /**
+         * The ids of the source files changed in each cycle.
+         */
+        private final Map<Integer, Set<UUID>> changed = new ConcurrentHashMap<>();
+
+        private final Map<UUID, String> classpaths = new ConcurrentHashMap<>();
+
+        Accumulator(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        Set<UUID> changedIn(int cycle) {
+            return changed.computeIfAbsent(cycle, c -> ConcurrentHashMap.newKeySet());
+        }
+
+        boolean isUnchanged(SourceFile sourceFile, int cycle) {
+            String hash = hashes.get(sourceFile.getId());
+            return hash != null && cached.contains(hash) && !changedIn(cycle).contains(sourceFile.getId());
+        }
+
+        void changed(SourceFile sourceFile, int cycle) {
+            changedIn(cycle).add(sourceFile.getId());
+            // hashed again when the next cycle starts
+            hashes.remove(sourceFile.getId());
+        }
+
+        void finished(SourceFile sourceFile, int cycle) {
+            String hash = hashes.get(sourceFile.getId());
+            if (hash != null && !changedIn(cycle).contains(sourceFile.getId())) {
+                unchanged.add(hash);
+            }
+        }
+
+        String contentHash(SourceFile sourceFile) {
+            MessageDigest digest = sha256();
+            update(digest, sourceFile.getSourcePath().toString());
+            update(digest, sourceFile.printAll());
+            sourceFile.getMarkers().findFirst(JavaVersion.class).ifPresent(version -> {
+                update(digest, version.getSourceCompatibility());
+                update(digest, version.getTargetCompatibility());
+            });
+            sourceFile.getMarkers().findFirst(JavaSourceSet.class)
+                    .ifPresent(sourceSet -> update(digest, classpaths.computeIfAbsent(sourceSet.getId(), id -> {
+                        MessageDigest classpath = sha256();
+                        for (JavaType.FullyQualified type : sourceSet.getClasspath()) {
+                            update(classpath, type.getFullyQualifiedName());
+                        }
+                        return encode(classpath.digest());
+                    })));
+            return encode(digest.digest());
+        }
+
+        void write(Path path) throws IOException {
+            // only the files seen in this run are kept, dropping entries for content that no longer exists
+            List<String> lines = new ArrayList<>(unchanged.size() + 1);
+            lines.add(fingerprint);
+            lines.addAll(unchanged);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(path, lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Value
+    static class RecipeTree {
+        WrappedRecipeTree tree;
+        String fingerprint;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, @Nullable String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String encode(byte[] digest) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    /**
+     * Skips source files that are unchanged since a run in which the composite made no change to them, unless the
+     * recipe is a scanning recipe, and records the files the recipe changes.
+     */
+    static final class SkippingVisitor extends TreeVisitor<Tree, ExecutionContext> {
+        private final String accumulatorKey;
+        private final TreeVisitor<?, ExecutionContext> delegate;
+        private final boolean skippable;
+
+        SkippingVisitor(String accumulatorKey, TreeVisitor<?, ExecutionContext> delegate, boolean skippable) {
+            this.accumulatorKey = accumulatorKey;
+            this.delegate = delegate;
+            this.skippable = skippable;
+        }
+
+        @Override
+        public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+            return !isSkipped(sourceFile, ctx) && delegate.isAcceptable(sourceFile, ctx);
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+            return visit(tree, ctx, new Cursor(null, Cursor.ROOT_VALUE));
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx, Cursor parent) {
+            if (!(tree instanceof SourceFile)) {
+                return delegate.visit(tree, ctx, parent);
+            }
+            if (isSkipped((SourceFile) tree, ctx)) {
+                return tree;
+            }
+            Tree result = delegate.visit(tree, ctx, parent);
+            if (result != tree) {
+                Accumulator acc = ctx.getMessage(accumulatorKey);
+                if (acc != null) {
+                    acc.changed((SourceFile) tree, ctx.getCycle());
+                }
+            }
+            return result;
+        }
+
+        private boolean isSkipped(SourceFile sourceFile, ExecutionContext ctx) {
+            if (!skippable) {
+                return false;
+            }
+            Accumulator acc = ctx.getMessage(accumulatorKey);
+            return acc != null && acc.isUnchanged(sourceFile, ctx.getCycle());
+        }
+    }
+}
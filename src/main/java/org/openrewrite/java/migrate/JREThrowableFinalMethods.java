@@ -22,7 +22,6 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.MethodMatcher;
 import org.openrewrite.java.search.UsesJavaVersion;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
@@ -69,8 +68,9 @@ class JREThrowableFinalMethods extends Recipe {
                         new UsesType<>("java.lang.Throwable", true)
                 ),
                 new JavaIsoVisitor<ExecutionContext>() {
-                    private final MethodMatcher METHOD_ADDSUPPRESSED = new MethodMatcher(methodPatternAddSuppressed, false);
-                    private final MethodMatcher METHOD_GETSUPPRESSED = new MethodMatcher(methodPatternGetSuppressed, false);
+                    private final MethodMatcherIndex<String> RENAMES = new MethodMatcherIndex<String>()
+                            .add(methodPatternAddSuppressed, "myAddSuppressed")
+                            .add(methodPatternGetSuppressed, "myGetSuppressed");
                     private final String JAVA_THROWABLE_CLASS = "java.lang.Throwable";
 
                     @Override
@@ -79,16 +79,11 @@ class JREThrowableFinalMethods extends Recipe {
                         JavaType.Method mt = md.getMethodType();
                         if (mt != null && TypeUtils.isAssignableTo(JAVA_THROWABLE_CLASS, mt.getDeclaringType())) {
                             J.ClassDeclaration classDeclaration = getCursor().firstEnclosing(J.ClassDeclaration.class);
-                            if (classDeclaration != null) {
-                                if (METHOD_ADDSUPPRESSED.matches(md, classDeclaration)) {
-                                    JavaType.Method myAddSuppressed = mt.withName("myAddSuppressed");
-                                    return md.withName(md.getName().withSimpleName("myAddSuppressed").withType(myAddSuppressed))
-                                            .withMethodType(myAddSuppressed);
-                                } else if (METHOD_GETSUPPRESSED.matches(md, classDeclaration)) {
-                                    JavaType.Method myGetSuppressed = mt.withName("myGetSuppressed");
-                                    return md.withName(md.getName().withSimpleName("myGetSuppressed").withType(myGetSuppressed))
-                                            .withMethodType(myGetSuppressed);
-                                }
+                            String newName = classDeclaration == null ? null : RENAMES.get(md, classDeclaration);
+                            if (newName != null) {
+                                JavaType.Method renamed = mt.withName(newName);
+                                return md.withName(md.getName().withSimpleName(newName).withType(renamed))
+                                        .withMethodType(renamed);
                             }
                         }
                         return md;
@@ -99,14 +94,11 @@ class JREThrowableFinalMethods extends Recipe {
                         J.MethodInvocation mi = super.visitMethodInvocation(methodInv, ctx);
                         JavaType.Method mt = mi.getMethodType();
                         if (mt != null && TypeUtils.isAssignableTo(JAVA_THROWABLE_CLASS, mt.getDeclaringType())) {
-                            if (METHOD_ADDSUPPRESSED.matches(mi)) {
-                                JavaType.Method myAddSuppressed = mt.withName("myAddSuppressed");
-                                mi = mi.withName(mi.getName().withSimpleName("myAddSuppressed").withType(myAddSuppressed))
-                                        .withMethodType(myAddSuppressed);
-                            } else if (METHOD_GETSUPPRESSED.matches(mi)) {
-                                JavaType.Method myGetSuppressed = mt.withName("myGetSuppressed");
-                                mi = mi.withName(mi.getName().withSimpleName("myGetSuppressed").withType(myGetSuppressed))
-                                        .withMethodType(myGetSuppressed);
+                            String newName = RENAMES.get(mt);
+                            if (newName != null) {
+                                JavaType.Method renamed = mt.withName(newName);
+                                mi = mi.withName(mi.getName().withSimpleName(newName).withType(renamed))
+                                        .withMethodType(renamed);
                             }
                         }
                         return mi;
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import lombok.Value;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.*;
+
+/**
+ * A bounded, least recently used cache of {@link JavaTemplate}s keyed by their shape: the template code, which
+ * encodes the arity and argument types of its parameters, the imports, and whether it is context sensitive.
+ * <p>
+ * Recipes that generate template code per occurrence, such as {@code List.of(..)} with as many parameters as the
+ * invocation has arguments, build one template per distinct shape rather than one per occurrence. That only saves
+ * building the template: a context sensitive template is still compiled against the code around every occurrence,
+ * so templates that do not depend on it, such as calls to static factories with typed parameters, should be
+ * context free.
+ */
+public final class JavaTemplateCache {
+    static final int MAX_TEMPLATES = 512;
+
+    private static final Map<Shape, JavaTemplate> TEMPLATES = Collections.synchronizedMap(
+            new LinkedHashMap<Shape, JavaTemplate>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Shape, JavaTemplate> eldest) {
+                    return size() > MAX_TEMPLATES;
+                }
+            });
+
+    private JavaTemplateCache() {
+    }
+
+    public static JavaTemplate contextSensitive(String code, String... imports) {
+        return get(new Shape(code, true, Arrays.asList(imports)));
+    }
+
+    public static JavaTemplate contextFree(String code, String... imports) {
+        return get(new Shape(code, false, Arrays.asList(imports)));
+    }
+
+    /**
+     * @return A template parameter typed after the argument it is substituted with, so that a context free template
+     * is attributed without the code around the argument. A context free template is only compiled against the JDK,
+     * so the argument of an enum declared elsewhere takes a {@code java.lang.Enum} parameter, and other arguments of
+     * types outside the JDK, or of types that cannot be named, such as type variables, take an untyped parameter.
+     */
+    public static String typedParameter(Expression argument) {
+        JavaType type = argument.getType();
+        if (type instanceof JavaType.Primitive && type != JavaType.Primitive.Null && type != JavaType.Primitive.None) {
+            return type == JavaType.Primitive.String ? "#{any(java.lang.String)}" : "#{any(" + ((JavaType.Primitive) type).getKeyword() + ")}";
+        }
+        JavaType.FullyQualified fq = type instanceof JavaType.Class || type instanceof JavaType.Parameterized ?
+                TypeUtils.asFullyQualified(type) : null;
+        if (fq == null) {
+            return "#{any()}";
+        } else if (fq.getFullyQualifiedName().startsWith("java.")) {
+            return "#{any(" + fq.getFullyQualifiedName() + ")}";
+        }
+        return fq.getKind() == JavaType.FullyQualified.Kind.Enum ? "#{any(java.lang.Enum)}" : "#{any()}";
+    }
+
+    private static JavaTemplate get(Shape shape) {
+        JavaTemplate template = TEMPLATES.get(shape);
+        if (template != null) {
+            return template;
+        }
+        // Built outside the lock of the map, so that recipes running in parallel only wait for each other to look up
+        // and store templates. Should two of them build the same shape at once, both use the one stored first.
+        JavaTemplate.Builder builder = JavaTemplate.builder(shape.getCode())
+                .imports(shape.getImports().toArray(new String[0]));
+        if (shape.isContextSensitive()) {
+            builder = builder.contextSensitive();
+        }
+        template = builder.build();
+        JavaTemplate stored = TEMPLATES.putIfAbsent(shape, template);
+        return stored == null ? template : stored;
+    }
+
+    @Value
+    private static class Shape {
+        String code;
+        boolean contextSensitive;
+        List<String> imports;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.MethodCall;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of method patterns grouped by simple method name and arity, so that a method is only compared with the
+ * {@link MethodMatcher}s that could plausibly match it. Looking up a method costs a hash lookup on its name and an
+ * arity comparison per candidate; the matcher itself is only evaluated for the candidates that remain.
+ * <p>
+ * Patterns with a wildcard in their method name are compared with every method. When several patterns match, the
+ * value of the one added first is returned, as with a chain of {@code if (matcher.matches(..))} checks.
+ *
+ * @param <T> The value associated with each method pattern.
+ */
+public final class MethodMatcherIndex<T> {
+    private final Map<String, List<Entry<T>>> byName = new HashMap<>();
+    private final List<Entry<T>> anyName = new ArrayList<>();
+    private int size;
+
+    /**
+     * @return An index whose values are the method patterns themselves, for when only a yes or no answer is needed.
+     */
+    public static MethodMatcherIndex<String> of(boolean matchOverrides, String... methodPatterns) {
+        MethodMatcherIndex<String> index = new MethodMatcherIndex<>();
+        for (String methodPattern : methodPatterns) {
+            index.add(methodPattern, matchOverrides, methodPattern);
+        }
+        return index;
+    }
+
+    public MethodMatcherIndex<T> add(String methodPattern, T value) {
+        return add(methodPattern, false, value);
+    }
+
+    public MethodMatcherIndex<T> add(String methodPattern, boolean matchOverrides, T value) {
+        String pattern = methodPattern.trim();
+        int open = pattern.indexOf('(');
+        int close = pattern.lastIndexOf(')');
+        if (open < 0 || close < open) {
+            throw new IllegalArgumentException("Not a method pattern: " + methodPattern);
+        }
+        String name = pattern.substring(Math.max(pattern.lastIndexOf(' ', open), pattern.lastIndexOf('#', open)) + 1, open);
+
+        int arity = 0;
+        boolean variableArity = false;
+        String arguments = pattern.substring(open + 1, close).trim();
+        if (!arguments.isEmpty()) {
+            for (String argument : arguments.split(",")) {
+                if ("..".equals(argument.trim())) {
+                    variableArity = true;
+                } else {
+                    arity++;
+                }
+            }
+        }
+
+        Entry<T> entry = new Entry<>(size++, new MethodMatcher(pattern, matchOverrides), arity, variableArity, value);
+        if (name.indexOf('*') >= 0) {
+            anyName.add(entry);
+        } else {
+            byName.computeIfAbsent(name, n -> new ArrayList<>(1)).add(entry);
+        }
+        return this;
+    }
+
+    /**
+     * @return The value of the first pattern matching this method invocation, constructor call or method reference,
+     * or {@code null} when the expression is not a method call or no pattern matches.
+     */
+    public @Nullable T get(@Nullable Expression expression) {
+        return expression instanceof MethodCall ? get(((MethodCall) expression).getMethodType()) : null;
+    }
+
+    public @Nullable T get(JavaType.@Nullable Method method) {
+        if (method == null) {
+            return null;
+        }
+        int arity = method.getParameterTypes().size();
+        for (Entry<T> entry : candidates(method.getName())) {
+            if (entry.accepts(arity) && entry.matcher.matches(method)) {
+                return entry.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param classDeclaration The class declaring {@code method}, matched against the declaring type of each pattern.
+     * @return The value of the first pattern matching this method declaration, or {@code null}.
+     */
+    public @Nullable T get(J.MethodDeclaration method, J.ClassDeclaration classDeclaration) {
+        JavaType.Method methodType = method.getMethodType();
+        if (methodType == null) {
+            return null;
+        }
+        int arity = methodType.getParameterTypes().size();
+        for (Entry<T> entry : candidates(method.getSimpleName())) {
+            if (entry.accepts(arity) && entry.matcher.matches(method, classDeclaration)) {
+                return entry.value;
+            }
+        }
+        return null;
+    }
+
+    public boolean matches(@Nullable Expression expression) {
+        return get(expression) != null;
+    }
+
+    public boolean matches(JavaType.@Nullable Method method) {
+        return get(method) != null;
+    }
+
+    /**
+     * @return A precondition that holds for source files that use any of the methods of this index.
+     */
+    @SuppressWarnings("unchecked")
+    public TreeVisitor<?, ExecutionContext> uses() {
+        List<Entry<T>> entries = new ArrayList<>(anyName);
+        byName.values().forEach(entries::addAll);
+        entries.sort(Comparator.comparingInt(Entry::getOrder));
+        TreeVisitor<?, ExecutionContext>[] uses = (TreeVisitor<?, ExecutionContext>[]) new TreeVisitor<?, ?>[entries.size()];
+        for (int i = 0; i < uses.length; i++) {
+            uses[i] = new UsesMethod<>(entries.get(i).getMatcher());
+        }
+        return Preconditions.or(uses);
+    }
+
+    private List<Entry<T>> candidates(String name) {
+        List<Entry<T>> named = byName.get(name);
+        if (named == null) {
+            return anyName;
+        } else if (anyName.isEmpty()) {
+            return named;
+        }
+        List<Entry<T>> candidates = new ArrayList<>(named.size() + anyName.size());
+        candidates.addAll(named);
+        candidates.addAll(anyName);
+        candidates.sort(Comparator.comparingInt(Entry::getOrder));
+        return candidates;
+    }
+
+    @Value
+    private static class Entry<T> {
+        int order;
+        MethodMatcher matcher;
+        int arity;
+        boolean variableArity;
+        T value;
+
+        boolean accepts(int arity) {
+            return variableArity ? arity >= this.arity : arity == this.arity;
+        }
+    }
+}
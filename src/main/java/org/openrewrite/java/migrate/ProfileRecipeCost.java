@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.java.migrate.table.RecipeCostProfile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs another recipe, usually a large composite, with every recipe in its tree wrapped so the time and memory spent
+ * in its scanner and visitor are recorded. Once all source files of a cycle went through the composite, one row per
+ * recipe is added to the {@link RecipeCostProfile} data table.
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ProfileRecipeCost extends ScanningRecipe<ProfileRecipeCost.Accumulator> {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    transient RecipeCostProfile costs = new RecipeCostProfile(this);
+
+    @Option(displayName = "Recipe name",
+            description = "Fully qualified name of the recipe to run and profile.",
+            example = "org.openrewrite.java.migrate.UpgradeToJava21")
+    String recipeName;
+
+    /**
+     * Where the wrapped recipes find the accumulator of the current run.
+     */
+    transient String accumulatorKey = ProfileRecipeCost.class.getName() + "." + Tree.randomId();
+
+    /**
+     * The profiled recipe tree and a flat list of its nodes, resolved on first use as loading a recipe by name
+     * requires scanning the classpath.
+     */
+    transient AtomicReference<@Nullable Profiled> profiled = new AtomicReference<>();
+
+    @Override
+    public String getDisplayName() {
+        return "Profile the cost of a recipe";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Runs a recipe and records the wall time, allocated bytes, and number of files visited and changed of " +
+               "each of its sub-recipes in a data table, to find which parts of a composite migration are expensive.";
+    }
+
+    @Override
+    public List<Recipe> getRecipeList() {
+        if (recipeName == null) {
+            // Constructed without options when the recipes on the classpath are loaded, which the profiled tree does
+            // itself, so it must not load them again
+            return Collections.emptyList();
+        }
+        Profiled p = profiled.get();
+        if (p == null) {
+            List<Node> nodes = new ArrayList<>();
+            WrappedRecipeTree tree = new WrappedRecipeTree(recipeName, (recipe, parent) -> {
+                Node node = new Node(recipe.getName(), parent == null ? getName() : parent.getName());
+                nodes.add(node);
+                return (visitor, editing) -> new ProfilingVisitor(accumulatorKey, node, visitor, editing);
+            }, (cycle, ctx) -> emit(cycle, nodes, ctx));
+            profiled.compareAndSet(null, new Profiled(tree, nodes));
+            p = profiled.get();
+        }
+        return p.getTree().getRecipes();
+    }
+
+    private void emit(int cycle, List<Node> nodes, ExecutionContext ctx) {
+        Accumulator acc = ctx.getMessage(accumulatorKey);
+        if (acc == null) {
+            return;
+        }
+        CycleCosts cycleCosts = acc.cycle(cycle);
+        for (Node node : nodes) {
+            Cost cost = cycleCosts.cost(node);
+            costs.insertRow(ctx, new RecipeCostProfile.Row(
+                    cycle,
+                    node.recipe,
+                    node.parent,
+                    cost.filesVisited.sum(),
+                    cost.filesChanged.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(cost.nanos.sum()),
+                    cost.allocatedBytes.sum()
+            ));
+        }
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        // Created once per run, so a later run with the same context starts from no costs
+        Accumulator acc = new Accumulator();
+        ctx.putMessage(accumulatorKey, acc);
+        return acc;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return TreeVisitor.noop();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return TreeVisitor.noop();
+    }
+
+    /**
+     * Held per recipe run in the execution context, so the wrapped recipes can reach it without an accumulator of
+     * their own.
+     */
+    public static class Accumulator {
+        private final Map<Integer, CycleCosts> cycles = new ConcurrentHashMap<>();
+
+        CycleCosts cycle(int cycle) {
+            return cycles.computeIfAbsent(cycle, c -> new CycleCosts());
+        }
+    }
+
+    static class CycleCosts {
+        final Map<Node, Cost> costs = new ConcurrentHashMap<>();
+
+        Cost cost(Node node) {
+            return costs.computeIfAbsent(node, n -> new Cost());
+        }
+    }
+
+    static class Cost {
+        final LongAdder filesVisited = new LongAdder();
+        final LongAdder filesChanged = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+    }
+
+    @Value
+    static class Profiled {
+        WrappedRecipeTree tree;
+        List<Node> nodes;
+    }
+
+    /**
+     * A recipe in the profiled tree. Compared by identity, as a composite may include the same recipe more than once.
+     */
+    static final class Node {
+        final String recipe;
+        final String parent;
+
+        Node(String recipe, String parent) {
+            this.recipe = recipe;
+            this.parent = parent;
+        }
+    }
+
+    static final class ProfilingVisitor extends TreeVisitor<Tree, ExecutionContext> {
+        private final String accumulatorKey;
+        private final Node node;
+        private final TreeVisitor<?, ExecutionContext> delegate;
+        private final boolean countFiles;
+
+        ProfilingVisitor(String accumulatorKey, Node node, TreeVisitor<?, ExecutionContext> delegate, boolean countFiles) {
+            this.accumulatorKey = accumulatorKey;
+            this.node = node;
+            this.delegate = delegate;
+            this.countFiles = countFiles;
+        }
+
+        @Override
+        public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+            return delegate.isAcceptable(sourceFile, ctx);
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+            return visit(tree, ctx, new Cursor(null, Cursor.ROOT_VALUE));
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx, Cursor parent) {
+            long startBytes = allocatedBytes();
+            long start = System.nanoTime();
+            Tree result = delegate.visit(tree, ctx, parent);
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBytes() - startBytes;
+
+            Accumulator acc = ctx.getMessage(accumulatorKey);
+            if (acc == null) {
+                return result;
+            }
+            Cost cost = acc.cycle(ctx.getCycle()).cost(node);
+            cost.nanos.add(elapsed);
+            cost.allocatedBytes.add(allocated);
+            if (countFiles && tree instanceof SourceFile) {
+                cost.filesVisited.increment();
+                if (result != tree) {
+                    cost.filesChanged.increment();
+                }
+            }
+            return result;
+        }
+
+        private static long allocatedBytes() {
+            if (THREADS instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+                }
+            }
+            return 0;
+        }
+    }
+}
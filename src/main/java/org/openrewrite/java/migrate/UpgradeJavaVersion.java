@@ -17,23 +17,28 @@ package org.openrewrite.java.migrate;
 
 import lombok.EqualsAndHashCode;
 import lombok.Value;
-import org.openrewrite.ExecutionContext;
-import org.openrewrite.Option;
-import org.openrewrite.Recipe;
-import org.openrewrite.TreeVisitor;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
 import org.openrewrite.gradle.UpdateJavaCompatibility;
-import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.marker.JavaVersion;
 import org.openrewrite.java.migrate.maven.UpdateMavenProjectPropertyJavaVersion;
 import org.openrewrite.java.migrate.maven.UseMavenCompilerPluginReleaseConfiguration;
-import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class UpgradeJavaVersion extends Recipe {
+public class UpgradeJavaVersion extends ScanningRecipe<UpgradeJavaVersion.Accumulator> {
+
+    /**
+     * Highest version planned by the instances of this recipe taking part in a run, keyed by the first cycle of
+     * that run. The key is only weakly held, so a context reused for a later run starts from a fresh plan.
+     */
+    private static final String PLANNED_VERSIONS = "org.openrewrite.java.migrate.UpgradeJavaVersion.plannedVersions";
 
     @Option(displayName = "Java version",
             description = "The Java version to upgrade to.",
@@ -50,17 +55,9 @@ public class UpgradeJavaVersion extends Recipe {
         return "Upgrade build plugin configuration to use the specified Java version. " +
                "This recipe changes `java.toolchain.languageVersion` in `build.gradle(.kts)` of gradle projects, " +
                "or maven-compiler-plugin target version and related settings. " +
-               "Will not downgrade if the version is newer than the specified version.";
-    }
-
-    @Override
-    public List<Recipe> getRecipeList() {
-        return Arrays.asList(
-                new UseMavenCompilerPluginReleaseConfiguration(version),
-                new UpdateMavenProjectPropertyJavaVersion(version),
-                new org.openrewrite.jenkins.UpgradeJavaVersion(version, null),
-                new UpdateJavaCompatibility(version, null, null, false, null)
-        );
+               "Will not downgrade if the version is newer than the specified version. " +
+               "When several instances of this recipe run as part of the same composite, build files are only " +
+               "updated once, to the highest version requested.";
     }
 
     /**
@@ -73,13 +70,77 @@ public class UpgradeJavaVersion extends Recipe {
         return Duration.ofMinutes(0);
     }
 
+    @Value
+    public static class Accumulator {
+        /**
+         * Shared with the other instances of this recipe in the same run, so that composites which chain
+         * upgrades (11, then 17, then 21) only rewrite build files for the highest version.
+         */
+        AtomicInteger plannedVersion;
+
+        /**
+         * Updated markers by original marker, so that source files sharing a marker also share the updated one.
+         */
+        Map<JavaVersion, JavaVersion> updatedMarkers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        // Every scanning recipe is initialized in the first cycle before any edits take place, so by the time the
+        // first visitor runs this holds the highest version requested anywhere in the recipe tree
+        Map<Object, AtomicInteger> plannedVersions = ctx.getMessage(PLANNED_VERSIONS);
+        if (plannedVersions == null) {
+            plannedVersions = Collections.synchronizedMap(new WeakHashMap<>());
+            ctx.putMessage(PLANNED_VERSIONS, plannedVersions);
+        }
+        AtomicInteger plannedVersion = plannedVersions.computeIfAbsent(ctx.getCycleDetails(), k -> new AtomicInteger());
+        plannedVersion.accumulateAndGet(version, Math::max);
+        return new Accumulator(plannedVersion);
+    }
+
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return TreeVisitor.noop();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        TreeVisitor<?, ExecutionContext> markersVisitor = updateJavaVersionMarkers(acc.getUpdatedMarkers());
+        if (acc.getPlannedVersion().get() > version) {
+            // A later upgrade in this run will rewrite the build files, only keep markers in step for
+            // the recipes that run in between
+            return markersVisitor;
+        }
+        List<TreeVisitor<?, ExecutionContext>> buildVisitors = Arrays.asList(
+                new UseMavenCompilerPluginReleaseConfiguration(version).getVisitor(),
+                new UpdateMavenProjectPropertyJavaVersion(version).getVisitor(),
+                new org.openrewrite.jenkins.UpgradeJavaVersion(version, null).getVisitor(),
+                new UpdateJavaCompatibility(version, null, null, false, null).getVisitor()
+        );
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                Tree t = tree;
+                for (TreeVisitor<?, ExecutionContext> buildVisitor : buildVisitors) {
+                    t = buildVisitor.visit(t, ctx);
+                }
+                return markersVisitor.visit(t, ctx);
+            }
+        };
+    }
+
+    /**
+     * The {@link JavaVersion} marker is only ever found on the source file, so this visitor updates the root of
+     * each Java source file and does not descend into it.
+     */
+    private TreeVisitor<?, ExecutionContext> updateJavaVersionMarkers(Map<JavaVersion, JavaVersion> updatedMarkers) {
         String newVersion = version.toString();
-        Map<JavaVersion, JavaVersion> updatedMarkers = new HashMap<>();
-        return new JavaIsoVisitor<ExecutionContext>() {
+        return new TreeVisitor<Tree, ExecutionContext>() {
             @Override
-            public J preVisit(J tree, ExecutionContext ctx) {
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!(tree instanceof JavaSourceFile)) {
+                    return tree;
+                }
                 Optional<JavaVersion> maybeJavaVersion = tree.getMarkers().findFirst(JavaVersion.class);
                 if (maybeJavaVersion.isPresent() && maybeJavaVersion.get().getMajorVersion() < version) {
                     return tree.withMarkers(tree.getMarkers().setByType(updatedMarkers.computeIfAbsent(maybeJavaVersion.get(),
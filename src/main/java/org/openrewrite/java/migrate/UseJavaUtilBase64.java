@@ -20,7 +20,6 @@ import org.openrewrite.*;
 import org.openrewrite.java.ChangeType;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.template.Semantics;
 import org.openrewrite.java.tree.J;
@@ -65,11 +64,12 @@ public class UseJavaUtilBase64 extends Recipe {
                 new UsesType<>(sunPackage + ".BASE64Encoder", false),
                 new UsesType<>(sunPackage + ".BASE64Decoder", false)
         );
-        MethodMatcher base64EncodeMethod = new MethodMatcher(sunPackage + ".CharacterEncoder *(byte[])");
-        MethodMatcher base64DecodeBuffer = new MethodMatcher(sunPackage + ".CharacterDecoder decodeBuffer(String)");
-
-        MethodMatcher newBase64Encoder = new MethodMatcher(sunPackage + ".BASE64Encoder <constructor>()");
-        MethodMatcher newBase64Decoder = new MethodMatcher(sunPackage + ".BASE64Decoder <constructor>()");
+        MethodMatcherIndex<Base64Call> base64Calls = new MethodMatcherIndex<Base64Call>()
+                .add(sunPackage + ".CharacterEncoder encode(byte[])", Base64Call.ENCODE)
+                .add(sunPackage + ".CharacterEncoder encodeBuffer(byte[])", Base64Call.ENCODE)
+                .add(sunPackage + ".CharacterDecoder decodeBuffer(String)", Base64Call.DECODE_BUFFER)
+                .add(sunPackage + ".BASE64Encoder <constructor>()", Base64Call.NEW_ENCODER)
+                .add(sunPackage + ".BASE64Decoder <constructor>()", Base64Call.NEW_DECODER);
 
         return Preconditions.check(check, new JavaVisitor<ExecutionContext>() {
             final JavaTemplate getDecoderTemplate = JavaTemplate.builder(useMimeCoder ? "Base64.getMimeDecoder()" : "Base64.getDecoder()")
@@ -103,13 +103,13 @@ public class UseJavaUtilBase64 extends Recipe {
             @Override
             public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
                 J.MethodInvocation m = (J.MethodInvocation) super.visitMethodInvocation(method, ctx);
-                if (base64EncodeMethod.matches(m) &&
-                    ("encode".equals(method.getSimpleName()) || "encodeBuffer".equals(method.getSimpleName()))) {
+                Base64Call call = base64Calls.get(method);
+                if (call == Base64Call.ENCODE) {
                     m = encodeToString.apply(updateCursor(m), m.getCoordinates().replace(), method.getArguments().get(0));
                     if (method.getSelect() instanceof J.Identifier) {
                         m = m.withSelect(method.getSelect());
                     }
-                } else if (base64DecodeBuffer.matches(method)) {
+                } else if (call == Base64Call.DECODE_BUFFER) {
                     m = decode.apply(updateCursor(m), m.getCoordinates().replace(), method.getArguments().get(0));
                     if (method.getSelect() instanceof J.Identifier) {
                         m = m.withSelect(method.getSelect());
@@ -125,7 +125,8 @@ public class UseJavaUtilBase64 extends Recipe {
             @Override
             public J visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
                 J.NewClass c = (J.NewClass) super.visitNewClass(newClass, ctx);
-                if (newBase64Encoder.matches(c)) {
+                Base64Call call = base64Calls.get(c);
+                if (call == Base64Call.NEW_ENCODER) {
                     // noinspection Convert2MethodRef
                     JavaTemplate.Builder encoderTemplate = useMimeCoder
                             ? Semantics.expression(this, "getMimeEncoder", () -> Base64.getMimeEncoder())
@@ -134,7 +135,7 @@ public class UseJavaUtilBase64 extends Recipe {
                             .build()
                             .apply(updateCursor(c), c.getCoordinates().replace());
 
-                } else if (newBase64Decoder.matches(c)) {
+                } else if (call == Base64Call.NEW_DECODER) {
                     return getDecoderTemplate.apply(updateCursor(c), c.getCoordinates().replace());
                 }
                 return c;
@@ -142,6 +143,10 @@ public class UseJavaUtilBase64 extends Recipe {
         });
     }
 
+    private enum Base64Call {
+        ENCODE, DECODE_BUFFER, NEW_ENCODER, NEW_DECODER
+    }
+
     private boolean alreadyUsingIncompatibleBase64(JavaSourceFile cu) {
         return cu.getClasses().stream().anyMatch(it -> "Base64".equals(it.getSimpleName())) ||
                cu.getTypesInUse().getTypesInUse().stream()
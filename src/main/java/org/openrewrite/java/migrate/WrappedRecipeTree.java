@@ -0,0 +1,374 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.config.Environment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Another recipe's tree, with the scanner and visitor of each of its recipes wrapped, for recipes such as
+ * {@link ProfileRecipeCost} and {@link IncrementalMigration} that run a composite while observing or guarding each of
+ * its sub-recipes.
+ * <p>
+ * The tree ends with a recipe that tells when every source file went through the tree. A cycle is over once the next
+ * cycle generated its source files. The last cycle has no next one, so it is over once as many source files went
+ * through the tree as were scanned and generated in it, counting those deleted on the way.
+ */
+final class WrappedRecipeTree {
+
+    /**
+     * Wraps the scanner or the visitor of one recipe of the tree.
+     */
+    interface VisitorWrapper {
+        VisitorWrapper NONE = (visitor, editing) -> visitor;
+
+        /**
+         * @param editing False for the scanner of a scanning recipe, true for the visitor of any recipe.
+         */
+        TreeVisitor<?, ExecutionContext> wrap(TreeVisitor<?, ExecutionContext> visitor, boolean editing);
+    }
+
+    interface Listener {
+        /**
+         * Called once a source file went through every recipe of the tree in the current cycle.
+         */
+        default void finished(SourceFile sourceFile, ExecutionContext ctx) {
+        }
+
+        /**
+         * Called once for every cycle, after all of its source files went through the tree.
+         */
+        void cycleEnded(int cycle, ExecutionContext ctx);
+    }
+
+    private final String cyclesKey;
+    private final List<Recipe> recipes;
+
+    /**
+     * @param recipeName The name of the recipe to activate and wrap.
+     * @param wrappers   Called once for each recipe of the tree, parents before their children, with its parent
+     *                   recipe, or null for the top-level recipes.
+     * @param listener   Told about the source files and cycles that went through the tree.
+     */
+    WrappedRecipeTree(String recipeName, BiFunction<Recipe, @Nullable Recipe, VisitorWrapper> wrappers, Listener listener) {
+        this.cyclesKey = WrappedRecipeTree.class.getName() + "." + Tree.randomId();
+        Recipe activated = Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(recipeName);
+        List<Recipe> recipes = new ArrayList<>();
+        // a single activated recipe is returned as is, not in a composite
+        recipes.add(wrap(activated, null, wrappers));
+        recipes.add(new EndOfCycle(cyclesKey, listener));
+        this.recipes = recipes;
+    }
+
+    List<Recipe> getRecipes() {
+        return recipes;
+    }
+
+    private Recipe wrap(Recipe recipe, @Nullable Recipe parent, BiFunction<Recipe, @Nullable Recipe, VisitorWrapper> wrappers) {
+        VisitorWrapper wrapper = wrappers.apply(recipe, parent);
+        List<Recipe> recipeList = new ArrayList<>();
+        for (Recipe child : recipe.getRecipeList()) {
+            recipeList.add(wrap(child, recipe, wrappers));
+        }
+        if (recipe instanceof ScanningRecipe) {
+            return wrapScanning((ScanningRecipe<?>) recipe, wrapper, recipeList);
+        }
+        return new WrappedRecipe(cyclesKey, recipe, wrapper, recipeList);
+    }
+
+    private <T> Recipe wrapScanning(ScanningRecipe<T> recipe, VisitorWrapper wrapper, List<Recipe> recipeList) {
+        return new WrappedScanningRecipe<>(cyclesKey, recipe, wrapper, recipeList);
+    }
+
+    static final class WrappedRecipe extends Recipe {
+        private final String cyclesKey;
+        private final Recipe delegate;
+        private final VisitorWrapper wrapper;
+        private final List<Recipe> recipeList;
+
+        WrappedRecipe(String cyclesKey, Recipe delegate, VisitorWrapper wrapper, List<Recipe> recipeList) {
+            this.cyclesKey = cyclesKey;
+            this.delegate = delegate;
+            this.wrapper = wrapper;
+            this.recipeList = recipeList;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return delegate.getDisplayName();
+        }
+
+        @Override
+        public String getDescription() {
+            return delegate.getDescription();
+        }
+
+        @Override
+        public int maxCycles() {
+            return delegate.maxCycles();
+        }
+
+        @Override
+        public boolean causesAnotherCycle() {
+            return delegate.causesAnotherCycle();
+        }
+
+        @Override
+        public List<Recipe> getRecipeList() {
+            return recipeList;
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new CountingDeletions(cyclesKey, wrapper.wrap(delegate.getVisitor(), true));
+        }
+    }
+
+    static final class WrappedScanningRecipe<T> extends ScanningRecipe<T> {
+        private final String cyclesKey;
+        private final ScanningRecipe<T> delegate;
+        private final VisitorWrapper wrapper;
+        private final List<Recipe> recipeList;
+
+        WrappedScanningRecipe(String cyclesKey, ScanningRecipe<T> delegate, VisitorWrapper wrapper, List<Recipe> recipeList) {
+            this.cyclesKey = cyclesKey;
+            this.delegate = delegate;
+            this.wrapper = wrapper;
+            this.recipeList = recipeList;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return delegate.getDisplayName();
+        }
+
+        @Override
+        public String getDescription() {
+            return delegate.getDescription();
+        }
+
+        @Override
+        public int maxCycles() {
+            return delegate.maxCycles();
+        }
+
+        @Override
+        public boolean causesAnotherCycle() {
+            return delegate.causesAnotherCycle();
+        }
+
+        @Override
+        public List<Recipe> getRecipeList() {
+            return recipeList;
+        }
+
+        @Override
+        public T getInitialValue(ExecutionContext ctx) {
+            return delegate.getInitialValue(ctx);
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getScanner(T acc) {
+            return wrapper.wrap(delegate.getScanner(acc), false);
+        }
+
+        @Override
+        public Collection<? extends SourceFile> generate(T acc, ExecutionContext ctx) {
+            return delegate.generate(acc, ctx);
+        }
+
+        @Override
+        public Collection<? extends SourceFile> generate(T acc, Collection<SourceFile> generatedInThisCycle, ExecutionContext ctx) {
+            return delegate.generate(acc, generatedInThisCycle, ctx);
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor(T acc) {
+            return new CountingDeletions(cyclesKey, wrapper.wrap(delegate.getVisitor(acc), true));
+        }
+    }
+
+    /**
+     * A source file deleted by a recipe never reaches the end of the tree, so it is counted as finished here.
+     */
+    static final class CountingDeletions extends TreeVisitor<Tree, ExecutionContext> {
+        private final String cyclesKey;
+        private final TreeVisitor<?, ExecutionContext> delegate;
+
+        CountingDeletions(String cyclesKey, TreeVisitor<?, ExecutionContext> delegate) {
+            this.cyclesKey = cyclesKey;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+            return delegate.isAcceptable(sourceFile, ctx);
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+            return visit(tree, ctx, new Cursor(null, Cursor.ROOT_VALUE));
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx, Cursor parent) {
+            Tree result = delegate.visit(tree, ctx, parent);
+            if (result == null && tree instanceof SourceFile) {
+                Cycles cycles = ctx.getMessage(cyclesKey);
+                if (cycles != null) {
+                    cycles.finished(ctx.getCycle(), ctx);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The progress of each cycle of a run through the tree.
+     */
+    static final class Cycles {
+        private final Listener listener;
+        private final Map<Integer, Cycle> cycles = new ConcurrentHashMap<>();
+
+        Cycles(Listener listener) {
+            this.listener = listener;
+        }
+
+        Cycle cycle(int cycle) {
+            return cycles.computeIfAbsent(cycle, c -> new Cycle());
+        }
+
+        void finished(int cycle, ExecutionContext ctx) {
+            Cycle c = cycle(cycle);
+            c.finished.increment();
+            if (c.finished.sum() >= c.expected.sum()) {
+                end(cycle, c, ctx);
+            }
+        }
+
+        void endBefore(int cycle, ExecutionContext ctx) {
+            for (Map.Entry<Integer, Cycle> c : cycles.entrySet()) {
+                if (c.getKey() < cycle) {
+                    end(c.getKey(), c.getValue(), ctx);
+                }
+            }
+        }
+
+        private void end(int cycle, Cycle c, ExecutionContext ctx) {
+            if (c.ended.compareAndSet(false, true)) {
+                listener.cycleEnded(cycle, ctx);
+            }
+        }
+    }
+
+    static final class Cycle {
+        final LongAdder expected = new LongAdder();
+        final LongAdder finished = new LongAdder();
+        final AtomicBoolean ended = new AtomicBoolean();
+    }
+
+    /**
+     * Runs after every other recipe of the tree, for each source file.
+     */
+    static final class EndOfCycle extends ScanningRecipe<Cycles> {
+        private final String cyclesKey;
+        private final Listener listener;
+
+        EndOfCycle(String cyclesKey, Listener listener) {
+            this.cyclesKey = cyclesKey;
+            this.listener = listener;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "End of cycle";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Tells when every source file of a cycle went through the wrapped recipe tree.";
+        }
+
+        @Override
+        public Cycles getInitialValue(ExecutionContext ctx) {
+            // Created once per run, replacing the progress of any earlier run made with the same context
+            Cycles cycles = new Cycles(listener);
+            ctx.putMessage(cyclesKey, cycles);
+            return cycles;
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getScanner(Cycles cycles) {
+            return new TreeVisitor<Tree, ExecutionContext>() {
+                @Override
+                public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    if (tree instanceof SourceFile) {
+                        cycles.cycle(ctx.getCycle()).expected.increment();
+                    }
+                    return tree;
+                }
+            };
+        }
+
+        @Override
+        public Collection<? extends SourceFile> generate(Cycles cycles, Collection<SourceFile> generatedInThisCycle, ExecutionContext ctx) {
+            int cycle = ctx.getCycle();
+            cycles.cycle(cycle).expected.add(generatedInThisCycle.size());
+            // Every source file of the previous cycle went through the tree before this one started
+            cycles.endBefore(cycle, ctx);
+            return emptyList();
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor(Cycles cycles) {
+            return new TreeVisitor<Tree, ExecutionContext>() {
+                @Override
+                public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    if (tree instanceof SourceFile) {
+                        listener.finished((SourceFile) tree, ctx);
+                        cycles.finished(ctx.getCycle(), ctx);
+                    }
+                    return tree;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.concurrent;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.MethodCall;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Calls that block the calling thread on I/O, a database, another thread or a monitor. On a virtual thread these
+ * unmount the virtual thread from its carrier, unless they are made while holding a monitor.
+ */
+final class BlockingCalls {
+    private static final MethodMatcherIndex<String> BLOCKING = new MethodMatcherIndex<String>()
+            .add("java.io.InputStream read*(..)", true, "I/O")
+            .add("java.io.InputStream transferTo(..)", true, "I/O")
+            .add("java.io.OutputStream write(..)", true, "I/O")
+            .add("java.io.OutputStream flush()", true, "I/O")
+            .add("java.io.Reader read*(..)", true, "I/O")
+            .add("java.io.Writer write(..)", true, "I/O")
+            .add("java.io.Writer flush()", true, "I/O")
+            .add("java.io.RandomAccessFile read*(..)", false, "I/O")
+            .add("java.io.RandomAccessFile write*(..)", false, "I/O")
+            .add("java.nio.file.Files *(..)", false, "I/O")
+            .add("java.nio.channels.ReadableByteChannel read(..)", true, "I/O")
+            .add("java.nio.channels.WritableByteChannel write(..)", true, "I/O")
+            .add("java.net.Socket connect(..)", true, "network")
+            .add("java.net.ServerSocket accept()", true, "network")
+            .add("java.net.URL openStream()", false, "network")
+            .add("java.net.URLConnection connect()", true, "network")
+            .add("java.net.URLConnection getInputStream()", true, "network")
+            .add("java.net.HttpURLConnection getResponseCode()", true, "network")
+            .add("java.net.http.HttpClient send(..)", true, "network")
+            .add("java.sql.DriverManager getConnection(..)", false, "JDBC")
+            .add("javax.sql.DataSource getConnection(..)", true, "JDBC")
+            .add("java.sql.Connection *(..)", true, "JDBC")
+            .add("java.sql.Statement execute*(..)", true, "JDBC")
+            .add("java.sql.ResultSet next()", true, "JDBC")
+            .add("java.lang.Object wait(..)", false, "Object.wait")
+            .add("java.lang.Thread sleep(..)", false, "Thread.sleep")
+            .add("java.lang.Thread join(..)", false, "Thread.join")
+            .add("java.util.concurrent.Future get(..)", true, "Future.get")
+            .add("java.util.concurrent.BlockingQueue put(..)", true, "BlockingQueue")
+            .add("java.util.concurrent.BlockingQueue take()", true, "BlockingQueue")
+            .add("java.util.concurrent.CountDownLatch await(..)", false, "CountDownLatch.await")
+            .add("java.util.concurrent.Semaphore acquire*(..)", false, "Semaphore.acquire");
+
+    /**
+     * Streams, readers and writers over memory, which never block even though they override the methods of
+     * {@code InputStream}, {@code OutputStream}, {@code Reader} and {@code Writer}.
+     */
+    private static final Set<String> IN_MEMORY = new HashSet<>(Arrays.asList(
+            "java.io.ByteArrayInputStream",
+            "java.io.ByteArrayOutputStream",
+            "java.io.CharArrayReader",
+            "java.io.CharArrayWriter",
+            "java.io.StringReader",
+            "java.io.StringWriter"));
+
+    private BlockingCalls() {
+    }
+
+    /**
+     * @param call The method invocation or method reference.
+     * @return The kind of blocking call, such as {@code I/O} or {@code JDBC}, or {@code null} if the method does not
+     * block. Calls on a stream, reader or writer over memory do not block, unless it is only known by a type like
+     * {@code OutputStream}.
+     */
+    static @Nullable String category(MethodCall call) {
+        String category = BLOCKING.get(call);
+        return category == null || isInMemory(receiverType(call)) ? null : category;
+    }
+
+    private static @Nullable JavaType receiverType(MethodCall call) {
+        if (call instanceof J.MethodInvocation && ((J.MethodInvocation) call).getSelect() != null) {
+            return ((J.MethodInvocation) call).getSelect().getType();
+        } else if (call instanceof J.MemberReference) {
+            return ((J.MemberReference) call).getContaining().getType();
+        }
+        return call.getMethodType() == null ? null : call.getMethodType().getDeclaringType();
+    }
+
+    private static boolean isInMemory(@Nullable JavaType type) {
+        for (JavaType.FullyQualified t = TypeUtils.asFullyQualified(type); t != null; t = t.getSupertype()) {
+            if (IN_MEMORY.contains(t.getFullyQualifiedName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param tree The tree to search.
+     * @return The blocking calls made directly in the tree, in the order they appear in.
+     */
+    static List<MethodCall> find(J tree) {
+        List<MethodCall> calls = new ArrayList<>();
+        new JavaIsoVisitor<List<MethodCall>>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, List<MethodCall> found) {
+                if (category(method) != null) {
+                    found.add(method);
+                }
+                return super.visitMethodInvocation(method, found);
+            }
+
+            @Override
+            public J.MemberReference visitMemberReference(J.MemberReference memberRef, List<MethodCall> found) {
+                if (category(memberRef) != null) {
+                    found.add(memberRef);
+                }
+                return super.visitMemberReference(memberRef, found);
+            }
+        }.visit(tree, calls);
+        return calls;
+    }
+
+    /**
+     * @param tree    The tree to search.
+     * @param methods The source file or class whose method declarations are followed when called from the tree.
+     * @return Whether the tree makes a blocking call, either directly or through a method declared in {@code methods}.
+     */
+    static boolean isBlocking(J tree, J methods) {
+        return callsAny(tree, methods, call -> category(call) != null);
+    }
+
+    /**
+     * @param tree    The tree to search.
+     * @param methods The source file or class whose method declarations are followed when called from the tree.
+     * @param matches The calls searched for.
+     * @return Whether the tree calls a matching method, either directly or through a method declared in
+     * {@code methods}.
+     */
+    static boolean callsAny(J tree, J methods, Predicate<MethodCall> matches) {
+        Map<String, J.MethodDeclaration> declarations = new HashMap<>();
+        new JavaIsoVisitor<Map<String, J.MethodDeclaration>>() {
+            @Override
+            public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Map<String, J.MethodDeclaration> found) {
+                String key = key(method.getMethodType());
+                if (key != null && method.getBody() != null) {
+                    found.put(key, method);
+                }
+                return super.visitMethodDeclaration(method, found);
+            }
+        }.visit(methods, declarations);
+
+        Set<String> followed = new HashSet<>();
+        Deque<J> remaining = new ArrayDeque<>();
+        remaining.add(tree);
+        while (!remaining.isEmpty()) {
+            J next = remaining.pop();
+            AtomicBoolean found = new AtomicBoolean();
+            new JavaIsoVisitor<Deque<J>>() {
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Deque<J> calls) {
+                    follow(method, calls);
+                    return super.visitMethodInvocation(method, calls);
+                }
+
+                @Override
+                public J.MemberReference visitMemberReference(J.MemberReference memberRef, Deque<J> calls) {
+                    follow(memberRef, calls);
+                    return super.visitMemberReference(memberRef, calls);
+                }
+
+                private void follow(MethodCall call, Deque<J> calls) {
+                    if (matches.test(call)) {
+                        found.set(true);
+                        return;
+                    }
+                    String key = key(call.getMethodType());
+                    J.MethodDeclaration declaration = key == null ? null : declarations.get(key);
+                    if (declaration != null && followed.add(key)) {
+                        calls.add(declaration);
+                    }
+                }
+            }.visit(next, remaining);
+            if (found.get()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static @Nullable String key(JavaType.@Nullable Method method) {
+        if (method == null) {
+            return null;
+        }
+        return method.getDeclaringType().getFullyQualifiedName() + "#" + method.getName() + "/" + method.getParameterTypes().size();
+    }
+}
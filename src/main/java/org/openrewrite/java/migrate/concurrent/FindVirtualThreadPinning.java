@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.concurrent;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.migrate.table.VirtualThreadPinning;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.marker.SearchResult;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class FindVirtualThreadPinning extends Recipe {
+    transient VirtualThreadPinning pinning = new VirtualThreadPinning(this);
+
+    @Override
+    public String getDisplayName() {
+        return "Find blocking calls that pin virtual threads";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Find blocking calls, such as I/O, JDBC, socket calls and `Object.wait()`, made inside a `synchronized` " +
+               "block or method. On Java 21, a virtual thread blocking while it holds a monitor pins its carrier thread, " +
+               "so no other virtual thread can run on it. Calls made in lambdas and classes declared inside the " +
+               "synchronized region are not reported, as they do not necessarily run while the monitor is held.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new JavaIsoVisitor<ExecutionContext>() {
+            /**
+             * The innermost synchronized region around the current position, reset when entering code that is
+             * not necessarily run while holding its monitor.
+             */
+            private @Nullable String region;
+
+            @Override
+            public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+                String enclosing = region;
+                region = method.hasModifier(J.Modifier.Type.Synchronized) ? "synchronized " + method.getSimpleName() + "(..)" : null;
+                try {
+                    return super.visitMethodDeclaration(method, ctx);
+                } finally {
+                    region = enclosing;
+                }
+            }
+
+            @Override
+            public J.Synchronized visitSynchronized(J.Synchronized sync, ExecutionContext ctx) {
+                String enclosing = region;
+                region = "synchronized (" + sync.getLock().getTree().printTrimmed(getCursor()) + ")";
+                try {
+                    return super.visitSynchronized(sync, ctx);
+                } finally {
+                    region = enclosing;
+                }
+            }
+
+            @Override
+            public J.Lambda visitLambda(J.Lambda lambda, ExecutionContext ctx) {
+                String enclosing = region;
+                region = null;
+                try {
+                    return super.visitLambda(lambda, ctx);
+                } finally {
+                    region = enclosing;
+                }
+            }
+
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                String enclosing = region;
+                region = null;
+                try {
+                    return super.visitClassDeclaration(classDecl, ctx);
+                } finally {
+                    region = enclosing;
+                }
+            }
+
+            @Override
+            public J.NewClass visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
+                if (newClass.getBody() == null) {
+                    return super.visitNewClass(newClass, ctx);
+                }
+                String enclosing = region;
+                region = null;
+                try {
+                    return super.visitNewClass(newClass, ctx);
+                } finally {
+                    region = enclosing;
+                }
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
+                String kind = region == null ? null : BlockingCalls.category(method);
+                if (kind != null) {
+                    pinning.insertRow(ctx, new VirtualThreadPinning.Row(
+                            getCursor().firstEnclosingOrThrow(JavaSourceFile.class).getSourcePath().toString(),
+                            region,
+                            method.printTrimmed(getCursor().getParentTreeCursor()),
+                            kind));
+                    return SearchResult.found(m, "Pins the carrier thread of a virtual thread");
+                }
+                return m;
+            }
+        };
+    }
+}
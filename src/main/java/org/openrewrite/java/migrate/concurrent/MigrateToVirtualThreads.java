@@ -0,0 +1,293 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.concurrent;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.JavaTemplateCache;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
+import org.openrewrite.java.migrate.table.VirtualThreadMigrations;
+import org.openrewrite.java.search.UsesJavaVersion;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.tree.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class MigrateToVirtualThreads extends Recipe {
+    private static final MethodMatcher NEW_CACHED_THREAD_POOL = new MethodMatcher("java.util.concurrent.Executors newCachedThreadPool()");
+    private static final MethodMatcher NEW_FIXED_THREAD_POOL = new MethodMatcher("java.util.concurrent.Executors newFixedThreadPool(int)");
+    private static final MethodMatcher THREAD_START = new MethodMatcher("java.lang.Thread start()");
+    private static final MethodMatcher NEW_THREAD = new MethodMatcher("java.lang.Thread <constructor>(java.lang.Runnable)");
+    private static final MethodMatcher NEW_NAMED_THREAD = new MethodMatcher("java.lang.Thread <constructor>(java.lang.Runnable, java.lang.String)");
+    private static final MethodMatcherIndex<String> SUBMISSIONS = MethodMatcherIndex.of(true,
+            "java.util.concurrent.Executor execute(java.lang.Runnable)",
+            "java.util.concurrent.ExecutorService submit(..)",
+            "java.util.concurrent.ExecutorService invokeAll(..)",
+            "java.util.concurrent.ExecutorService invokeAny(..)");
+
+    transient VirtualThreadMigrations migrations = new VirtualThreadMigrations(this);
+
+    @Option(displayName = "Migrate fixed thread pools",
+            description = "Also replace `Executors.newFixedThreadPool(int)` when every task submitted to it makes " +
+                          "blocking calls. This removes the bound the pool puts on how many tasks run at once, which " +
+                          "may have been protecting a downstream resource. Defaults to `false`, in which case such " +
+                          "pools are only reported.",
+            required = false)
+    @Nullable
+    Boolean migrateFixedThreadPools;
+
+    @Override
+    public String getDisplayName() {
+        return "Use virtual threads for blocking tasks";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replace `Executors.newCachedThreadPool()`, and optionally `Executors.newFixedThreadPool(int)`, with " +
+               "`Executors.newVirtualThreadPerTaskExecutor()` where every task submitted to the pool makes blocking " +
+               "calls and the pool is not shared with other code, and `new Thread(runnable).start()` with " +
+               "`Thread.ofVirtual().start(runnable)` where the runnable makes blocking calls. Virtual threads are " +
+               "always daemon threads, so threads started from a `main` method, which may be what keeps the JVM " +
+               "running, are kept. Every pool and thread considered is reported in a data table, with the reason " +
+               "it was or was not migrated.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(
+                Preconditions.and(
+                        new UsesJavaVersion<>(21),
+                        Preconditions.or(
+                                new UsesMethod<>(NEW_CACHED_THREAD_POOL),
+                                new UsesMethod<>(NEW_FIXED_THREAD_POOL),
+                                new UsesMethod<>(THREAD_START))),
+                new JavaVisitor<ExecutionContext>() {
+                    @Override
+                    public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                        J j = super.visitMethodInvocation(method, ctx);
+                        if (!(j instanceof J.MethodInvocation)) {
+                            return j;
+                        }
+                        J.MethodInvocation m = (J.MethodInvocation) j;
+
+                        boolean cachedPool = NEW_CACHED_THREAD_POOL.matches(m);
+                        if (cachedPool || NEW_FIXED_THREAD_POOL.matches(m)) {
+                            String keptBecause = new PoolUsage(getCursor(), cachedPool).keptBecause();
+                            if (keptBecause == null && !cachedPool && !Boolean.TRUE.equals(migrateFixedThreadPools)) {
+                                keptBecause = "Every task submitted to the fixed thread pool makes blocking calls, but the " +
+                                              "pool bounds how many of them run at once, which a virtual thread per task does not";
+                            }
+                            if (keptBecause != null) {
+                                report(method, false, keptBecause, ctx);
+                                return m;
+                            }
+                            report(method, true, cachedPool ?
+                                    "A cached thread pool is not shared, and the tasks submitted to it, if any, make blocking calls" :
+                                    "Every task submitted to the fixed thread pool makes blocking calls, and the pool is not shared", ctx);
+                            maybeAddImport("java.util.concurrent.Executors");
+                            return JavaTemplateCache.contextFree("Executors.newVirtualThreadPerTaskExecutor()", "java.util.concurrent.Executors")
+                                    .apply(getCursor(), m.getCoordinates().replace());
+                        }
+
+                        Expression select = m.getSelect() == null ? null : m.getSelect().unwrap();
+                        if (THREAD_START.matches(m) && select instanceof J.NewClass && ((J.NewClass) select).getBody() == null) {
+                            J.NewClass newThread = (J.NewClass) select;
+                            List<Expression> args = newThread.getArguments();
+                            boolean named = NEW_NAMED_THREAD.matches(newThread);
+                            if (named || NEW_THREAD.matches(newThread)) {
+                                String keptBecause = threadKeptBecause(args.get(0));
+                                if (keptBecause != null) {
+                                    report(method, false, keptBecause, ctx);
+                                    return m;
+                                }
+                                report(method, true, "A platform thread is started for a single task that makes blocking calls", ctx);
+                                if (named) {
+                                    return JavaTemplateCache.contextFree("Thread.ofVirtual().name(#{any(java.lang.String)}).start(#{any(java.lang.Runnable)})")
+                                            .apply(getCursor(), m.getCoordinates().replace(), args.get(1), args.get(0));
+                                }
+                                return JavaTemplateCache.contextFree("Thread.ofVirtual().start(#{any(java.lang.Runnable)})")
+                                        .apply(getCursor(), m.getCoordinates().replace(), args.get(0));
+                            }
+                        }
+                        return m;
+                    }
+
+                    /**
+                     * @return Why the thread should stay a platform thread, or {@code null} if it can be virtual.
+                     */
+                    private @Nullable String threadKeptBecause(Expression task) {
+                        J body = PoolUsage.taskBody(task.unwrap());
+                        if (body == null) {
+                            return "The task started on the thread could not be analyzed";
+                        } else if (!BlockingCalls.isBlocking(body, getCursor().firstEnclosingOrThrow(JavaSourceFile.class))) {
+                            return "The task started on the thread makes no blocking calls";
+                        }
+                        J.MethodDeclaration enclosing = getCursor().firstEnclosing(J.MethodDeclaration.class);
+                        if (enclosing != null && "main".equals(enclosing.getSimpleName()) &&
+                            enclosing.hasModifier(J.Modifier.Type.Static)) {
+                            return "The thread is started from a main method, where it may be what keeps the JVM running, " +
+                                   "and a virtual thread is always a daemon thread";
+                        }
+                        return null;
+                    }
+
+                    private void report(J.MethodInvocation method, boolean migrated, String reason, ExecutionContext ctx) {
+                        migrations.insertRow(ctx, new VirtualThreadMigrations.Row(
+                                getCursor().firstEnclosingOrThrow(JavaSourceFile.class).getSourcePath().toString(),
+                                method.printTrimmed(getCursor().getParentTreeCursor()),
+                                migrated,
+                                reason));
+                    }
+                });
+    }
+
+    /**
+     * Finds the variable a new thread pool is stored in and everything done with it, to tell whether only blocking
+     * tasks are submitted to the pool.
+     */
+    private static class PoolUsage {
+        private final Cursor cursor;
+        private final boolean cachedPool;
+        private final List<J.MethodInvocation> invocations = new ArrayList<>();
+        private boolean escapes;
+
+        PoolUsage(Cursor cursor, boolean cachedPool) {
+            this.cursor = cursor;
+            this.cachedPool = cachedPool;
+        }
+
+        /**
+         * @return Why the thread pool should not be migrated, or {@code null} if it can be.
+         */
+        @Nullable
+        String keptBecause() {
+            Cursor parent = cursor.getParentTreeCursor();
+            Object parentValue = parent.getValue();
+            JavaType.Variable variable;
+            J scope;
+            if (parentValue instanceof J.VariableDeclarations.NamedVariable) {
+                variable = ((J.VariableDeclarations.NamedVariable) parentValue).getVariableType();
+                J.VariableDeclarations declarations = parent.getParentTreeCursor().getValue();
+                if (isField(parent.getParentTreeCursor())) {
+                    if (!declarations.hasModifier(J.Modifier.Type.Private)) {
+                        return "The thread pool is stored in a field that is not private, so other classes may submit work to it";
+                    }
+                    scope = cursor.firstEnclosing(J.ClassDeclaration.class);
+                } else {
+                    scope = cursor.firstEnclosing(J.Block.class);
+                }
+            } else if (parentValue instanceof J.Assignment) {
+                Expression target = ((J.Assignment) parentValue).getVariable().unwrap();
+                variable = target instanceof J.FieldAccess ? ((J.FieldAccess) target).getName().getFieldType() :
+                        target instanceof J.Identifier ? ((J.Identifier) target).getFieldType() : null;
+                if (variable != null && variable.getOwner() instanceof JavaType.FullyQualified) {
+                    if (!variable.hasFlags(Flag.Private)) {
+                        return "The thread pool is stored in a field that is not private, so other classes may submit work to it";
+                    }
+                    scope = cursor.firstEnclosing(J.ClassDeclaration.class);
+                } else {
+                    scope = cursor.firstEnclosing(J.Block.class);
+                }
+            } else if (parentValue instanceof J.MethodInvocation && ((J.MethodInvocation) parentValue).getSelect() == cursor.getValue()) {
+                variable = null;
+                scope = null;
+                invocations.add((J.MethodInvocation) parentValue);
+            } else {
+                return "The thread pool is passed on to other code, which may submit CPU-bound work to it";
+            }
+
+            if (variable != null && scope != null) {
+                findUses(variable, scope);
+            } else if (invocations.isEmpty()) {
+                return "The variable the thread pool is stored in could not be determined";
+            }
+            if (escapes) {
+                return "The thread pool is passed on to other code, which may submit CPU-bound work to it";
+            }
+
+            J sourceFile = cursor.firstEnclosingOrThrow(JavaSourceFile.class);
+            boolean anyBlocking = false;
+            for (J.MethodInvocation invocation : invocations) {
+                if (!SUBMISSIONS.matches(invocation)) {
+                    continue;
+                }
+                for (Expression task : invocation.getArguments()) {
+                    J body = taskBody(task.unwrap());
+                    if (body == null) {
+                        return "Not every task submitted to the thread pool could be analyzed";
+                    } else if (!BlockingCalls.isBlocking(body, sourceFile)) {
+                        return "The thread pool is also used for tasks that make no blocking calls";
+                    }
+                    anyBlocking = true;
+                }
+            }
+            if (!cachedPool && !anyBlocking) {
+                return "No blocking tasks are submitted to the fixed thread pool";
+            }
+            return null;
+        }
+
+        private static boolean isField(Cursor variableDeclarations) {
+            Cursor block = variableDeclarations.getParentTreeCursor();
+            return block.getValue() instanceof J.Block && block.getParentTreeCursor().getValue() instanceof J.ClassDeclaration;
+        }
+
+        private void findUses(JavaType.Variable variable, J scope) {
+            new JavaIsoVisitor<Integer>() {
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, Integer p) {
+                    JavaType.Variable fieldType = identifier.getFieldType();
+                    if (fieldType != null && variable.getName().equals(fieldType.getName()) &&
+                        Objects.equals(String.valueOf(variable.getOwner()), String.valueOf(fieldType.getOwner()))) {
+                        Cursor use = getCursor();
+                        Object parent = use.getParentTreeCursor().getValue();
+                        if (parent instanceof J.FieldAccess && ((J.FieldAccess) parent).getName() == identifier) {
+                            use = use.getParentTreeCursor();
+                            parent = use.getParentTreeCursor().getValue();
+                        }
+                        if (parent instanceof J.MethodInvocation && ((J.MethodInvocation) parent).getSelect() == use.getValue()) {
+                            invocations.add((J.MethodInvocation) parent);
+                        } else if (!(parent instanceof J.VariableDeclarations.NamedVariable) &&
+                                   !(parent instanceof J.Assignment && ((J.Assignment) parent).getVariable() == use.getValue())) {
+                            escapes = true;
+                        }
+                    }
+                    return identifier;
+                }
+            }.visit(scope, 0, cursor.dropParentUntil(scope::equals).getParentOrThrow());
+        }
+
+        private static @Nullable J taskBody(Expression task) {
+            if (task instanceof J.Lambda) {
+                return ((J.Lambda) task).getBody();
+            } else if (task instanceof J.NewClass && ((J.NewClass) task).getBody() != null) {
+                return ((J.NewClass) task).getBody();
+            } else if (task instanceof J.MemberReference) {
+                return task;
+            }
+            return null;
+        }
+    }
+}
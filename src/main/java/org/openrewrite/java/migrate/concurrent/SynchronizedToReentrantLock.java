@@ -0,0 +1,407 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.concurrent;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.migrate.JavaTemplateCache;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static org.openrewrite.Tree.randomId;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class SynchronizedToReentrantLock extends Recipe {
+    private static final String REENTRANT_LOCK = "java.util.concurrent.locks.ReentrantLock";
+    private static final MethodMatcherIndex<String> WAIT_NOTIFY = MethodMatcherIndex.of(false,
+            "java.lang.Object wait(..)",
+            "java.lang.Object notify()",
+            "java.lang.Object notifyAll()");
+
+    @Override
+    public String getDisplayName() {
+        return "Replace `synchronized` blocks around blocking calls with `ReentrantLock`";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replace `synchronized` blocks that make blocking calls with a `ReentrantLock` locked in front of a " +
+               "`try` and unlocked in its `finally`, so that virtual threads blocking in them do not pin their carrier " +
+               "thread. The blocks must lock on `this` of a final class or on a private final `new Object()` field " +
+               "that is used for nothing else. All blocks locking on the same object are replaced together, and only " +
+               "when none of them calls `wait()` or `notify()`, directly or through a method of the same class, and, " +
+               "for `this`, the class has no synchronized instance methods. Code outside the class is assumed not to " +
+               "synchronize on its instances.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new JavaVisitor<ExecutionContext>() {
+            private ClassLocks locks = ClassLocks.NONE;
+            private Set<UUID> classesWithSynchronizedBlocks = emptySet();
+            private final Map<UUID, J.Identifier> unlockedInFinally = new HashMap<>();
+
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                classesWithSynchronizedBlocks = ClassLocks.withSynchronizedBlocks(cu);
+                return super.visitCompilationUnit(cu, ctx);
+            }
+
+            @Override
+            public J visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                ClassLocks enclosing = locks;
+                locks = classesWithSynchronizedBlocks.contains(classDecl.getId()) ? ClassLocks.plan(classDecl) : ClassLocks.NONE;
+                try {
+                    J j = super.visitClassDeclaration(classDecl, ctx);
+                    if (!(j instanceof J.ClassDeclaration) || locks.plans.isEmpty()) {
+                        return j;
+                    }
+                    J.ClassDeclaration c = (J.ClassDeclaration) j;
+                    for (LockPlan plan : locks.plans.values()) {
+                        if (plan.getRetypedField() == null) {
+                            c = JavaTemplateCache.contextSensitive("private final ReentrantLock " + plan.getName() + " = new ReentrantLock();", REENTRANT_LOCK)
+                                    .apply(updateCursor(c), c.getBody().getCoordinates().firstStatement());
+                        }
+                    }
+                    maybeAddImport(REENTRANT_LOCK);
+                    return c;
+                } finally {
+                    locks = enclosing;
+                }
+            }
+
+            @Override
+            public J visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
+                if (newClass.getBody() == null) {
+                    return super.visitNewClass(newClass, ctx);
+                }
+                // `this` refers to the anonymous class, and fields of the enclosing class used as locks in it are not replaced
+                ClassLocks enclosing = locks;
+                locks = ClassLocks.NONE;
+                try {
+                    return super.visitNewClass(newClass, ctx);
+                } finally {
+                    locks = enclosing;
+                }
+            }
+
+            @Override
+            public J visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                J j = super.visitVariableDeclarations(multiVariable, ctx);
+                if (!(j instanceof J.VariableDeclarations) || !locks.isRetyped(multiVariable)) {
+                    return j;
+                }
+                J.VariableDeclarations vd = (J.VariableDeclarations) j;
+                JavaType.ShallowClass lockType = JavaType.ShallowClass.build(REENTRANT_LOCK);
+                TypeTree typeExpression = vd.getTypeExpression();
+                return vd
+                        .withTypeExpression(new J.Identifier(randomId(), typeExpression == null ? Space.SINGLE_SPACE : typeExpression.getPrefix(),
+                                Markers.EMPTY, emptyList(), "ReentrantLock", lockType, null))
+                        .withVariables(ListUtils.map(vd.getVariables(), v -> {
+                            JavaType.Variable variableType = v.getVariableType() == null ? null : v.getVariableType().withType(lockType);
+                            Expression initializer = v.getInitializer();
+                            if (initializer != null) {
+                                v = v.withInitializer(JavaTemplateCache.contextFree("new ReentrantLock()", REENTRANT_LOCK)
+                                        .apply(new Cursor(new Cursor(getCursor(), v), initializer), initializer.getCoordinates().replace()));
+                            }
+                            return v.withName(v.getName().withType(lockType).withFieldType(variableType))
+                                    .withVariableType(variableType);
+                        }));
+            }
+
+            @Override
+            public J visitSynchronized(J.Synchronized sync, ExecutionContext ctx) {
+                J j = super.visitSynchronized(sync, ctx);
+                LockPlan plan = locks.get(sync.getLock().getTree());
+                if (plan == null || !(j instanceof J.Synchronized)) {
+                    return j;
+                }
+                J.Identifier lock = plan.identifier();
+                J.Try tryFinally = JavaTemplateCache.contextFree("try {\n} finally {\n    #{any(java.util.concurrent.locks.ReentrantLock)}.unlock();\n}")
+                        .apply(getCursor(), sync.getCoordinates().replace(), lock);
+                tryFinally = tryFinally.withBody(((J.Synchronized) j).getBody());
+                unlockedInFinally.put(tryFinally.getId(), lock);
+                return tryFinally;
+            }
+
+            @Override
+            public J visitBlock(J.Block block, ExecutionContext ctx) {
+                J j = super.visitBlock(block, ctx);
+                if (!(j instanceof J.Block) || unlockedInFinally.isEmpty()) {
+                    return j;
+                }
+                J.Block b = (J.Block) j;
+                for (Statement statement : b.getStatements()) {
+                    J.Identifier lock = unlockedInFinally.remove(statement.getId());
+                    if (lock != null) {
+                        b = JavaTemplateCache.contextFree("#{any(java.util.concurrent.locks.ReentrantLock)}.lock();")
+                                .apply(updateCursor(b), statement.getCoordinates().before(), lock);
+                    }
+                }
+                return b;
+            }
+        };
+    }
+
+    @Value
+    static class LockPlan {
+        String name;
+
+        /**
+         * The {@code private final Object} field replaced by the lock, or {@code null} if a new field is added to
+         * replace {@code this}.
+         */
+        @Nullable
+        UUID retypedField;
+
+        J.Identifier identifier() {
+            return new J.Identifier(randomId(), Space.EMPTY, Markers.EMPTY, emptyList(), name,
+                    JavaType.ShallowClass.build(REENTRANT_LOCK), null);
+        }
+    }
+
+    /**
+     * The locks of one class that can be replaced, keyed by {@code this} or the name of the field that is locked on.
+     */
+    static class ClassLocks {
+        static final ClassLocks NONE = new ClassLocks(null, emptyMap());
+
+        private final JavaType.@Nullable FullyQualified classType;
+        private final Map<String, LockPlan> plans;
+
+        ClassLocks(JavaType.@Nullable FullyQualified classType, Map<String, LockPlan> plans) {
+            this.classType = classType;
+            this.plans = plans;
+        }
+
+        @Nullable
+        LockPlan get(Expression lock) {
+            String key = key(lock, classType);
+            return key == null ? null : plans.get(key);
+        }
+
+        boolean isRetyped(J.VariableDeclarations field) {
+            for (LockPlan plan : plans.values()) {
+                if (field.getId().equals(plan.getRetypedField())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static @Nullable String key(Expression lock, JavaType.@Nullable FullyQualified classType) {
+            lock = lock.unwrap();
+            if (lock instanceof J.Identifier && "this".equals(((J.Identifier) lock).getSimpleName())) {
+                return "this";
+            }
+            J.Identifier field = lock instanceof J.Identifier ? (J.Identifier) lock :
+                    lock instanceof J.FieldAccess && ((J.FieldAccess) lock).getTarget() instanceof J.Identifier &&
+                    "this".equals(((J.Identifier) ((J.FieldAccess) lock).getTarget()).getSimpleName()) ?
+                            ((J.FieldAccess) lock).getName() : null;
+            if (field != null && field.getFieldType() != null && TypeUtils.isOfType(field.getFieldType().getOwner(), classType)) {
+                return field.getSimpleName();
+            }
+            return null;
+        }
+
+        /**
+         * The ids of the classes that directly contain a {@code synchronized} block, as only those need a plan.
+         */
+        static Set<UUID> withSynchronizedBlocks(J tree) {
+            Set<UUID> classes = new HashSet<>();
+            new JavaIsoVisitor<Set<UUID>>() {
+                @Override
+                public J.Synchronized visitSynchronized(J.Synchronized sync, Set<UUID> c) {
+                    J.ClassDeclaration enclosing = getCursor().firstEnclosing(J.ClassDeclaration.class);
+                    if (enclosing != null) {
+                        c.add(enclosing.getId());
+                    }
+                    return super.visitSynchronized(sync, c);
+                }
+            }.visit(tree, classes);
+            return classes;
+        }
+
+        static ClassLocks plan(J.ClassDeclaration classDecl) {
+            JavaType.FullyQualified classType = classDecl.getType();
+            // a new lock field must neither shadow a field nor be shadowed by a variable where it is used
+            Set<String> takenNames = new HashSet<>();
+            addFieldNames(classType, takenNames, new HashSet<>());
+            Map<String, J.VariableDeclarations> lockFields = new HashMap<>();
+            boolean synchronizedMethods = false;
+            for (Statement statement : classDecl.getBody().getStatements()) {
+                if (statement instanceof J.VariableDeclarations) {
+                    J.VariableDeclarations vd = (J.VariableDeclarations) statement;
+                    if (isLockField(vd)) {
+                        lockFields.put(vd.getVariables().get(0).getSimpleName(), vd);
+                    }
+                } else if (statement instanceof J.MethodDeclaration) {
+                    J.MethodDeclaration method = (J.MethodDeclaration) statement;
+                    synchronizedMethods |= method.hasModifier(J.Modifier.Type.Synchronized) && !method.hasModifier(J.Modifier.Type.Static);
+                }
+            }
+
+            Map<String, Regions> regionsByLock = new LinkedHashMap<>();
+            Set<String> usedOtherwise = new HashSet<>();
+            new JavaIsoVisitor<Integer>() {
+                private boolean nested;
+
+                @Override
+                public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration c, Integer p) {
+                    return c == classDecl ? super.visitClassDeclaration(c, p) : visitNested(() -> super.visitClassDeclaration(c, p));
+                }
+
+                @Override
+                public J.NewClass visitNewClass(J.NewClass newClass, Integer p) {
+                    return newClass.getBody() == null ? super.visitNewClass(newClass, p) : visitNested(() -> super.visitNewClass(newClass, p));
+                }
+
+                private <T> T visitNested(Supplier<T> visit) {
+                    boolean enclosing = nested;
+                    nested = true;
+                    try {
+                        return visit.get();
+                    } finally {
+                        nested = enclosing;
+                    }
+                }
+
+                @Override
+                public J.Synchronized visitSynchronized(J.Synchronized sync, Integer p) {
+                    String key = key(sync.getLock().getTree(), classType);
+                    if (!nested && key != null && ("this".equals(key) || lockFields.containsKey(key))) {
+                        Regions regions = regionsByLock.computeIfAbsent(key, k -> new Regions());
+                        regions.eligible &= getCursor().getParentTreeCursor().getValue() instanceof J.Block &&
+                                            !BlockingCalls.callsAny(sync.getBody(), classDecl, WAIT_NOTIFY::matches);
+                        regions.blocking |= BlockingCalls.isBlocking(sync.getBody(), classDecl);
+                    } else if (nested && isQualifiedThis(sync.getLock().getTree())) {
+                        regionsByLock.computeIfAbsent("this", k -> new Regions()).eligible = false;
+                    }
+                    return super.visitSynchronized(sync, p);
+                }
+
+                @Override
+                public J.VariableDeclarations.NamedVariable visitVariable(J.VariableDeclarations.NamedVariable variable, Integer p) {
+                    takenNames.add(variable.getSimpleName());
+                    return super.visitVariable(variable, p);
+                }
+
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, Integer p) {
+                    if (identifier.getFieldType() != null) {
+                        // fields of enclosing classes and static imports
+                        takenNames.add(identifier.getSimpleName());
+                    }
+                    if (lockFields.containsKey(identifier.getSimpleName()) && identifier.getFieldType() != null &&
+                        TypeUtils.isOfType(identifier.getFieldType().getOwner(), classType) && !isDeclaration() && !isLockOfRegion()) {
+                        usedOtherwise.add(identifier.getSimpleName());
+                    }
+                    return identifier;
+                }
+
+                private boolean isQualifiedThis(Expression lock) {
+                    lock = lock.unwrap();
+                    return lock instanceof J.FieldAccess && "this".equals(((J.FieldAccess) lock).getSimpleName()) &&
+                           TypeUtils.isOfType(lock.getType(), classType);
+                }
+
+                private boolean isDeclaration() {
+                    return getCursor().getParentTreeCursor().getValue() instanceof J.VariableDeclarations.NamedVariable;
+                }
+
+                private boolean isLockOfRegion() {
+                    Cursor parent = getCursor().getParentTreeCursor();
+                    if (parent.getValue() instanceof J.FieldAccess) {
+                        parent = parent.getParentTreeCursor();
+                    }
+                    return !nested && parent.getValue() instanceof J.ControlParentheses &&
+                           parent.getParentTreeCursor().getValue() instanceof J.Synchronized;
+                }
+            }.visit(classDecl, 0);
+
+            Map<String, LockPlan> plans = new LinkedHashMap<>();
+            for (Map.Entry<String, Regions> entry : regionsByLock.entrySet()) {
+                Regions regions = entry.getValue();
+                String key = entry.getKey();
+                if (!regions.eligible || !regions.blocking) {
+                    continue;
+                }
+                if ("this".equals(key)) {
+                    // a subclass could synchronize on this as well, which a final class rules out
+                    if (!synchronizedMethods && classDecl.hasModifier(J.Modifier.Type.Final)) {
+                        plans.put(key, new LockPlan(uniqueName(takenNames), null));
+                    }
+                } else if (!usedOtherwise.contains(key)) {
+                    plans.put(key, new LockPlan(key, lockFields.get(key).getId()));
+                }
+            }
+            return plans.isEmpty() ? NONE : new ClassLocks(classType, plans);
+        }
+
+        private static boolean isLockField(J.VariableDeclarations vd) {
+            if (vd.getVariables().size() != 1 || !vd.hasModifier(J.Modifier.Type.Private) || !vd.hasModifier(J.Modifier.Type.Final) ||
+                !TypeUtils.isOfClassType(vd.getType(), "java.lang.Object")) {
+                return false;
+            }
+            Expression initializer = vd.getVariables().get(0).getInitializer();
+            return initializer instanceof J.NewClass && ((J.NewClass) initializer).getBody() == null &&
+                   ((J.NewClass) initializer).getArguments().stream().allMatch(J.Empty.class::isInstance);
+        }
+
+        private static void addFieldNames(JavaType.@Nullable FullyQualified type, Set<String> names, Set<String> visited) {
+            if (type == null || !visited.add(type.getFullyQualifiedName())) {
+                return;
+            }
+            for (JavaType.Variable field : type.getMembers()) {
+                names.add(field.getName());
+            }
+            addFieldNames(type.getSupertype(), names, visited);
+            for (JavaType.FullyQualified anInterface : type.getInterfaces()) {
+                addFieldNames(anInterface, names, visited);
+            }
+            addFieldNames(type.getOwningClass(), names, visited);
+        }
+
+        private static String uniqueName(Set<String> takenNames) {
+            String name = "lock";
+            for (int i = 2; takenNames.contains(name); i++) {
+                name = "lock" + i;
+            }
+            return name;
+        }
+    }
+
+    private static class Regions {
+        boolean eligible = true;
+        boolean blocking;
+    }
+}
@@ -20,15 +20,14 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.JavaVisitor;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.JavaTemplateCache;
 import org.openrewrite.java.search.UsesJavaVersion;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 
 import java.time.Duration;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 abstract class AbstractNoGuavaImmutableOf extends Recipe {
@@ -73,41 +72,11 @@ abstract class AbstractNoGuavaImmutableOf extends Recipe {
                     maybeAddImport(javaType);
 
                     String template = method.getArguments().stream()
-                            .map(arg -> {
-                                if (arg.getType() instanceof JavaType.Primitive) {
-                                    String type = "";
-                                    if (JavaType.Primitive.Boolean == arg.getType()) {
-                                        type = "Boolean";
-                                    } else if (JavaType.Primitive.Byte == arg.getType()) {
-                                        type = "Byte";
-                                    } else if (JavaType.Primitive.Char == arg.getType()) {
-                                        type = "Character";
-                                    } else if (JavaType.Primitive.Double == arg.getType()) {
-                                        type = "Double";
-                                    } else if (JavaType.Primitive.Float == arg.getType()) {
-                                        type = "Float";
-                                    } else if (JavaType.Primitive.Int == arg.getType()) {
-                                        type = "Integer";
-                                    } else if (JavaType.Primitive.Long == arg.getType()) {
-                                        type = "Long";
-                                    } else if (JavaType.Primitive.Short == arg.getType()) {
-                                        type = "Short";
-                                    } else if (JavaType.Primitive.String == arg.getType()) {
-                                        type = "String";
-                                    }
-                                    return TypeUtils.asFullyQualified(JavaType.buildType("java.lang." + type));
-                                } else {
-                                    return TypeUtils.asFullyQualified(arg.getType());
-                                }
-                            })
-                            .filter(Objects::nonNull)
-                            .map(type -> "#{any(" + type.getFullyQualifiedName() + ")}")
+                            .filter(arg -> !(arg instanceof J.Empty))
+                            .map(JavaTemplateCache::typedParameter)
                             .collect(Collectors.joining(",", getShortType(javaType) + ".of(", ")"));
 
-                    return JavaTemplate.builder(template)
-                            .contextSensitive()
-                            .imports(javaType)
-                            .build()
+                    return JavaTemplateCache.contextFree(template, javaType)
                             .apply(getCursor(),
                                     method.getCoordinates().replace(),
                                     method.getArguments().get(0) instanceof J.Empty ? new Object[]{} : method.getArguments().toArray());
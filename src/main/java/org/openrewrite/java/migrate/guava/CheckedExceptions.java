@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Guava's functional types often allow checked exceptions where the {@code java.util.function} types that replace
+ * them do not, such as a {@code Callable} replaced by a {@code Function}.
+ */
+final class CheckedExceptions {
+
+    private CheckedExceptions() {
+    }
+
+    /**
+     * @return whether the body of a lambda may throw a checked exception, not counting nested lambdas and classes
+     */
+    static boolean thrownBy(J body) {
+        return new JavaIsoVisitor<AtomicBoolean>() {
+            @Override
+            public J.Lambda visitLambda(J.Lambda lambda, AtomicBoolean found) {
+                return lambda;
+            }
+
+            @Override
+            public J.NewClass visitNewClass(J.NewClass newClass, AtomicBoolean found) {
+                if (throwsChecked(newClass.getConstructorType())) {
+                    found.set(true);
+                }
+                for (Expression argument : newClass.getArguments()) {
+                    visit(argument, found, getCursor());
+                }
+                return newClass;
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean found) {
+                if (throwsChecked(method.getMethodType())) {
+                    found.set(true);
+                }
+                return super.visitMethodInvocation(method, found);
+            }
+
+            @Override
+            public J.Throw visitThrow(J.Throw thrown, AtomicBoolean found) {
+                if (!isUnchecked(thrown.getException().getType())) {
+                    found.set(true);
+                }
+                return super.visitThrow(thrown, found);
+            }
+        }.reduce(body, new AtomicBoolean()).get();
+    }
+
+    private static boolean throwsChecked(JavaType.@Nullable Method method) {
+        return method != null && method.getThrownExceptions().stream().anyMatch(t -> !isUnchecked(t));
+    }
+
+    private static boolean isUnchecked(@Nullable JavaType exception) {
+        return TypeUtils.isAssignableTo("java.lang.RuntimeException", exception) ||
+               TypeUtils.isAssignableTo("java.lang.Error", exception);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.marker.SearchResult;
+
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * A lookup table of {@link GuavaMethodRule}s by declaring type and method name. Any number of rules share one
+ * traversal: each method invocation costs a single map lookup, and only the rules registered for that exact
+ * declaring type and name have their matcher evaluated.
+ */
+final class GuavaMethodDispatch {
+    private final Map<String, Map<String, List<GuavaMethodRule>>> rulesByTypeAndName = new HashMap<>();
+
+    GuavaMethodDispatch(Collection<GuavaMethodRule> rules) {
+        for (GuavaMethodRule rule : rules) {
+            rulesByTypeAndName.computeIfAbsent(rule.getDeclaringType(), t -> new HashMap<>())
+                    .computeIfAbsent(rule.getMethodName(), n -> new ArrayList<>(1))
+                    .add(rule);
+        }
+    }
+
+    private List<GuavaMethodRule> candidates(JavaType.@Nullable Method method) {
+        if (method == null) {
+            return emptyList();
+        }
+        Map<String, List<GuavaMethodRule>> byName = rulesByTypeAndName.get(method.getDeclaringType().getFullyQualifiedName());
+        return byName == null ? emptyList() : byName.getOrDefault(method.getName(), emptyList());
+    }
+
+    /**
+     * @return A precondition that marks source files invoking at least one method a rule is registered for,
+     * answered from the types in use rather than by walking the tree.
+     */
+    TreeVisitor<?, ExecutionContext> precondition() {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof JavaSourceFile) {
+                    JavaSourceFile sourceFile = (JavaSourceFile) tree;
+                    for (JavaType.Method method : sourceFile.getTypesInUse().getUsedMethods()) {
+                        for (GuavaMethodRule rule : candidates(method)) {
+                            if (rule.getMatcher().matches(method)) {
+                                return SearchResult.found(sourceFile);
+                            }
+                        }
+                    }
+                }
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * @return A visitor applying the first rule that rewrites each matching invocation. Arguments are visited
+     * before the invocation itself, so nested Guava calls are all replaced in the same pass.
+     */
+    JavaVisitor<ExecutionContext> visitor() {
+        return new JavaVisitor<ExecutionContext>() {
+            @Override
+            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J j = super.visitMethodInvocation(method, ctx);
+                if (!(j instanceof J.MethodInvocation)) {
+                    return j;
+                }
+                J.MethodInvocation m = (J.MethodInvocation) j;
+                List<GuavaMethodRule> candidates = candidates(m.getMethodType());
+                if (candidates.isEmpty()) {
+                    return m;
+                }
+                if (m != method) {
+                    updateCursor(m);
+                }
+                for (GuavaMethodRule rule : candidates) {
+                    if (rule.getMatcher().matches(m)) {
+                        J rewritten = rule.getRewrite().apply(m, this);
+                        if (rewritten != null) {
+                            return rewritten;
+                        }
+                    }
+                }
+                return m;
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.J;
+
+/**
+ * A rewrite of one Guava method to its Java standard library equivalent. The declaring type and method name are taken
+ * from the method pattern so that {@link GuavaMethodDispatch} can find the candidate rules for an invocation with a
+ * single lookup, before the full {@link MethodMatcher} is consulted.
+ */
+@Value
+class GuavaMethodRule {
+    String declaringType;
+    String methodName;
+    MethodMatcher matcher;
+    Rewrite rewrite;
+
+    static GuavaMethodRule of(String methodPattern, Rewrite rewrite) {
+        int space = methodPattern.indexOf(' ');
+        String declaringType = methodPattern.substring(0, space);
+        String methodName = methodPattern.substring(space + 1, methodPattern.indexOf('(', space));
+        return new GuavaMethodRule(declaringType, methodName, new MethodMatcher(methodPattern), rewrite);
+    }
+
+    @FunctionalInterface
+    interface Rewrite {
+        /**
+         * @param method  An invocation already matched by the rule's {@link MethodMatcher}.
+         * @param visitor The visitor positioned on {@code method}, used for its cursor and import bookkeeping.
+         * @return The replacement, or {@code null} when this invocation cannot be rewritten safely.
+         */
+        @Nullable J apply(J.MethodInvocation method, JavaVisitor<ExecutionContext> visitor);
+    }
+}
@@ -20,16 +20,27 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
 import org.openrewrite.java.tree.J;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaAtomicsNewReference extends Recipe {
-    private static final MethodMatcher NEW_ATOMIC_REFERENCE = new MethodMatcher("com.google.common.util.concurrent.Atomics newReference(..)");
+    private static final JavaTemplate NEW_ATOMIC_REFERENCE = JavaTemplate.builder("new AtomicReference<>()")
+            .contextSensitive()
+            .imports("java.util.concurrent.atomic.AtomicReference")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Collections.singletonList(
+            GuavaMethodRule.of("com.google.common.util.concurrent.Atomics newReference(..)", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.util.concurrent.Atomics");
+                v.maybeAddImport("java.util.concurrent.atomic.AtomicReference");
+                return ((J.NewClass) NEW_ATOMIC_REFERENCE.apply(v.getCursor(), method.getCoordinates().replace()))
+                        .withArguments(method.getArguments());
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -48,22 +59,6 @@ public class NoGuavaAtomicsNewReference extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(new UsesMethod<>(NEW_ATOMIC_REFERENCE), new JavaVisitor<ExecutionContext>() {
-            private final JavaTemplate newAtomicReference = JavaTemplate.builder("new AtomicReference<>()")
-                    .contextSensitive()
-                    .imports("java.util.concurrent.atomic.AtomicReference")
-                    .build();
-
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_ATOMIC_REFERENCE.matches(method)) {
-                    maybeRemoveImport("com.google.common.util.concurrent.Atomics");
-                    maybeAddImport("java.util.concurrent.atomic.AtomicReference");
-                    return ((J.NewClass) newAtomicReference.apply(getCursor(), method.getCoordinates().replace()))
-                            .withArguments(method.getArguments());
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.ChangeMethodName;
+import org.openrewrite.java.ChangeType;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.openrewrite.Tree.randomId;
+
+public class NoGuavaCacheBuilder extends Recipe {
+    private static final String GUAVA_CACHE = "com.google.common.cache.";
+    private static final String CAFFEINE_CACHE = "com.github.benmanes.caffeine.cache.";
+
+    /**
+     * The Guava cache methods that have a Caffeine equivalent of the same name once the types are changed, or one
+     * of the {@link #RENAMES}, or that are rewritten below.
+     */
+    private static final MethodMatcherIndex<String> SUPPORTED = MethodMatcherIndex.of(false,
+            GUAVA_CACHE + "CacheBuilder newBuilder()",
+            GUAVA_CACHE + "CacheBuilder maximumSize(long)",
+            GUAVA_CACHE + "CacheBuilder maximumWeight(long)",
+            GUAVA_CACHE + "CacheBuilder weigher(..)",
+            GUAVA_CACHE + "CacheBuilder expireAfterWrite(..)",
+            GUAVA_CACHE + "CacheBuilder expireAfterAccess(..)",
+            GUAVA_CACHE + "CacheBuilder refreshAfterWrite(..)",
+            GUAVA_CACHE + "CacheBuilder recordStats()",
+            GUAVA_CACHE + "CacheBuilder weakKeys()",
+            GUAVA_CACHE + "CacheBuilder weakValues()",
+            GUAVA_CACHE + "CacheBuilder softValues()",
+            GUAVA_CACHE + "CacheBuilder initialCapacity(int)",
+            GUAVA_CACHE + "CacheBuilder concurrencyLevel(int)",
+            GUAVA_CACHE + "CacheBuilder removalListener(..)",
+            GUAVA_CACHE + "CacheBuilder build(..)",
+            GUAVA_CACHE + "Cache getIfPresent(..)",
+            GUAVA_CACHE + "Cache get(..)",
+            GUAVA_CACHE + "Cache getAllPresent(..)",
+            GUAVA_CACHE + "Cache put(..)",
+            GUAVA_CACHE + "Cache putAll(..)",
+            GUAVA_CACHE + "Cache invalidate(..)",
+            GUAVA_CACHE + "Cache invalidateAll(..)",
+            GUAVA_CACHE + "Cache size()",
+            GUAVA_CACHE + "Cache stats()",
+            GUAVA_CACHE + "Cache asMap()",
+            GUAVA_CACHE + "Cache cleanUp()",
+            GUAVA_CACHE + "LoadingCache get(..)",
+            GUAVA_CACHE + "LoadingCache getUnchecked(..)",
+            GUAVA_CACHE + "LoadingCache getAll(..)",
+            GUAVA_CACHE + "LoadingCache refresh(..)",
+            GUAVA_CACHE + "LoadingCache apply(..)",
+            GUAVA_CACHE + "LoadingCache asMap()",
+            GUAVA_CACHE + "CacheLoader load(..)",
+            GUAVA_CACHE + "CacheLoader from(com.google.common.base.Function)",
+            GUAVA_CACHE + "CacheStats *(..)",
+            GUAVA_CACHE + "RemovalCause *(..)",
+            GUAVA_CACHE + "RemovalNotification *(..)",
+            GUAVA_CACHE + "Weigher weigh(..)");
+
+    private static final MethodMatcher CONCURRENCY_LEVEL = new MethodMatcher(GUAVA_CACHE + "CacheBuilder concurrencyLevel(int)");
+    private static final MethodMatcher REMOVAL_LISTENER = new MethodMatcher(GUAVA_CACHE + "CacheBuilder removalListener(..)");
+    private static final MethodMatcher BUILD_WITH_LOADER = new MethodMatcher(GUAVA_CACHE + "CacheBuilder build(" + GUAVA_CACHE + "CacheLoader)");
+    private static final MethodMatcher LOADER_FROM = new MethodMatcher(GUAVA_CACHE + "CacheLoader from(..)");
+    private static final MethodMatcher GET_WITH_CALLABLE = new MethodMatcher(GUAVA_CACHE + "Cache get(..)");
+
+    /**
+     * Loads that throw checked {@code ExecutionException} or wrap failures in Guava's unchecked exceptions, which
+     * Caffeine does not.
+     */
+    private static final MethodMatcherIndex<String> LOADS = MethodMatcherIndex.of(false,
+            GUAVA_CACHE + "Cache get(..)",
+            GUAVA_CACHE + "LoadingCache get(..)",
+            GUAVA_CACHE + "LoadingCache getAll(..)",
+            GUAVA_CACHE + "LoadingCache getUnchecked(..)",
+            GUAVA_CACHE + "LoadingCache apply(..)");
+
+    private static final String[][] RENAMES = {
+            {GUAVA_CACHE + "LoadingCache getUnchecked(..)", "get"},
+            {GUAVA_CACHE + "LoadingCache apply(..)", "get"},
+            {GUAVA_CACHE + "Cache size()", "estimatedSize"},
+            {GUAVA_CACHE + "CacheStats loadExceptionCount()", "loadFailureCount"},
+            {GUAVA_CACHE + "CacheStats loadExceptionRate()", "loadFailureRate"}
+    };
+
+    private static final String[][] TYPES = {
+            {GUAVA_CACHE + "CacheBuilder", CAFFEINE_CACHE + "Caffeine"},
+            {GUAVA_CACHE + "Cache", CAFFEINE_CACHE + "Cache"},
+            {GUAVA_CACHE + "LoadingCache", CAFFEINE_CACHE + "LoadingCache"},
+            {GUAVA_CACHE + "CacheLoader", CAFFEINE_CACHE + "CacheLoader"},
+            {GUAVA_CACHE + "RemovalCause", CAFFEINE_CACHE + "RemovalCause"},
+            {GUAVA_CACHE + "Weigher", CAFFEINE_CACHE + "Weigher"},
+            {GUAVA_CACHE + "CacheStats", CAFFEINE_CACHE + "stats.CacheStats"}
+    };
+
+    @Override
+    public String getDisplayName() {
+        return "Prefer Caffeine caches over Guava caches";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Migrate `CacheBuilder.newBuilder()` chains, `Cache`, `LoadingCache` and `CacheLoader` to their Caffeine " +
+               "equivalents. Removal listeners take the key, value and cause instead of a `RemovalNotification`, and " +
+               "`Cache.get(key, Callable)` takes a function of the key. Note that Caffeine runs removal listeners " +
+               "asynchronously on its executor, where Guava runs them on the thread that caused the removal. A source " +
+               "file is only migrated if all of its Guava cache usages have an equivalent, no load failure is caught as " +
+               "an `ExecutionException` or Guava's unchecked wrappers, which Caffeine does not throw, and no field, " +
+               "parameter or return type visible outside the class is a Guava cache type, as other source files using " +
+               "it would not be migrated along with it.";
+    }
+
+    @Override
+    public Set<String> getTags() {
+        return singleton("guava");
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>(GUAVA_CACHE + "*", false), new JavaVisitor<ExecutionContext>() {
+            private Set<String> names = emptySet();
+
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                Compatibility compatibility = new Compatibility();
+                compatibility.visit(cu, 0);
+                if (compatibility.unsupported) {
+                    return cu;
+                }
+                names = compatibility.names;
+                J j = super.visitCompilationUnit(cu, ctx);
+                for (String[] rename : RENAMES) {
+                    doAfterVisit(new ChangeMethodName(rename[0], rename[1], true, null).getVisitor());
+                }
+                for (String[] type : TYPES) {
+                    doAfterVisit(new ChangeType(type[0], type[1], true).getVisitor());
+                }
+                return j;
+            }
+
+            @Override
+            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J j = super.visitMethodInvocation(method, ctx);
+                if (!(j instanceof J.MethodInvocation)) {
+                    return j;
+                }
+                J.MethodInvocation m = (J.MethodInvocation) j;
+                if (CONCURRENCY_LEVEL.matches(method) && m.getSelect() != null) {
+                    // Caffeine does not stripe its locks, so there is nothing to configure
+                    return m.getSelect().withPrefix(m.getPrefix());
+                } else if (LOADER_FROM.matches(method)) {
+                    maybeRemoveImport(GUAVA_CACHE + "CacheLoader");
+                    return m.getArguments().get(0).withPrefix(m.getPrefix());
+                } else if (REMOVAL_LISTENER.matches(method)) {
+                    return m.withArguments(ListUtils.map(m.getArguments(), a -> removalListener((J.Lambda) a)));
+                } else if (GET_WITH_CALLABLE.matches(method)) {
+                    JavaType keyType = m.getArguments().get(0).getType();
+                    return m.withArguments(ListUtils.map(m.getArguments(), (i, a) -> i == 1 ? mappingFunction((J.Lambda) a, keyType) : a));
+                }
+                return m;
+            }
+
+            /**
+             * {@code n -> ..n.getKey()..} becomes {@code (key, value, cause) -> ..key..}.
+             */
+            private J.Lambda removalListener(J.Lambda listener) {
+                J.VariableDeclarations notification = (J.VariableDeclarations) listener.getParameters().getParameters().get(0);
+                String param = notification.getVariables().get(0).getSimpleName();
+                JavaType.Parameterized notificationType = TypeUtils.asParameterized(notification.getVariables().get(0).getType());
+                JavaType keyType = notificationType == null ? null : notificationType.getTypeParameters().get(0);
+                JavaType valueType = notificationType == null ? null : notificationType.getTypeParameters().get(1);
+                JavaType causeType = JavaType.ShallowClass.build(CAFFEINE_CACHE + "RemovalCause");
+                J.Identifier key = identifier(unusedName("key"), keyType);
+                J.Identifier value = identifier(unusedName("value"), valueType);
+                J.Identifier cause = identifier(unusedName("cause"), causeType);
+
+                J body = new JavaVisitor<Integer>() {
+                    @Override
+                    public J visitMethodInvocation(J.MethodInvocation method, Integer p) {
+                        J.MethodInvocation m = (J.MethodInvocation) super.visitMethodInvocation(method, p);
+                        if (!(m.getSelect() instanceof J.Identifier) || !param.equals(((J.Identifier) m.getSelect()).getSimpleName())) {
+                            return m;
+                        }
+                        switch (m.getSimpleName()) {
+                            case "getKey":
+                                return key.withId(randomId()).withPrefix(m.getPrefix());
+                            case "getValue":
+                                return value.withId(randomId()).withPrefix(m.getPrefix());
+                            case "getCause":
+                                return cause.withId(randomId()).withPrefix(m.getPrefix());
+                            default:
+                                return m.withSelect(cause.withId(randomId()));
+                        }
+                    }
+                }.visitNonNull(listener.getBody(), 0);
+
+                return listener
+                        .withParameters(listener.getParameters()
+                                .withParenthesized(true)
+                                .withParameters(Arrays.<J>asList(
+                                        parameter(key, Space.EMPTY),
+                                        parameter(value, Space.SINGLE_SPACE),
+                                        parameter(cause, Space.SINGLE_SPACE))))
+                        .withBody(body);
+            }
+
+            /**
+             * {@code () -> ..} becomes {@code k -> ..}.
+             */
+            private J.Lambda mappingFunction(J.Lambda callable, @Nullable JavaType keyType) {
+                return callable.withParameters(callable.getParameters()
+                        .withParenthesized(false)
+                        .withParameters(singletonList(parameter(identifier(unusedName("k"), keyType), Space.EMPTY))));
+            }
+
+            private String unusedName(String name) {
+                String unused = name;
+                for (int i = 2; names.contains(unused); i++) {
+                    unused = name + i;
+                }
+                return unused;
+            }
+        });
+    }
+
+    private static J.Identifier identifier(String name, @Nullable JavaType type) {
+        return new J.Identifier(randomId(), Space.EMPTY, Markers.EMPTY, emptyList(), name, type, null);
+    }
+
+    private static J.VariableDeclarations parameter(J.Identifier name, Space prefix) {
+        return new J.VariableDeclarations(randomId(), prefix, Markers.EMPTY, emptyList(), emptyList(), null, null, emptyList(),
+                singletonList(JRightPadded.build(new J.VariableDeclarations.NamedVariable(randomId(), Space.EMPTY, Markers.EMPTY,
+                        name, emptyList(), null, null))));
+    }
+
+    /**
+     * Decides whether every Guava cache usage of a source file can be migrated, and collects the variable names in
+     * use so that new lambda parameters do not clash with them.
+     */
+    private static class Compatibility extends JavaIsoVisitor<Integer> {
+        final Set<String> names = new HashSet<>();
+        boolean unsupported;
+
+        @Override
+        public J.VariableDeclarations.NamedVariable visitVariable(J.VariableDeclarations.NamedVariable variable, Integer p) {
+            names.add(variable.getSimpleName());
+            return super.visitVariable(variable, p);
+        }
+
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Integer p) {
+            if (isGuavaCache(classDecl.getExtends()) ||
+                classDecl.getImplements() != null && classDecl.getImplements().stream().anyMatch(this::isGuavaCache)) {
+                unsupported = true;
+            }
+            return super.visitClassDeclaration(classDecl, p);
+        }
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Integer p) {
+            if (!method.hasModifier(J.Modifier.Type.Private)) {
+                unsupported |= mentionsGuavaCache(method.getReturnTypeExpression() == null ? null : method.getReturnTypeExpression().getType());
+                for (Statement parameter : method.getParameters()) {
+                    unsupported |= parameter instanceof J.VariableDeclarations && mentionsGuavaCache(((J.VariableDeclarations) parameter).getType());
+                }
+            }
+            return super.visitMethodDeclaration(method, p);
+        }
+
+        @Override
+        public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, Integer p) {
+            Cursor block = getCursor().getParentTreeCursor();
+            if (block.getValue() instanceof J.Block && block.getParentTreeCursor().getValue() instanceof J.ClassDeclaration &&
+                !multiVariable.hasModifier(J.Modifier.Type.Private)) {
+                unsupported |= mentionsGuavaCache(multiVariable.getType());
+            }
+            return super.visitVariableDeclarations(multiVariable, p);
+        }
+
+        @Override
+        public J.NewClass visitNewClass(J.NewClass newClass, Integer p) {
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(newClass.getClazz() == null ? null : newClass.getClazz().getType());
+            if (type != null && type.getFullyQualifiedName().startsWith(GUAVA_CACHE)) {
+                // a Caffeine `CacheLoader` is an interface with the same `load(K)`, but Guava's other methods return Guava futures
+                boolean onlyLoads = newClass.getBody() != null && newClass.getBody().getStatements().stream()
+                        .allMatch(s -> s instanceof J.MethodDeclaration && "load".equals(((J.MethodDeclaration) s).getSimpleName()));
+                unsupported |= !(onlyLoads && TypeUtils.isOfClassType(type, GUAVA_CACHE + "CacheLoader") ||
+                                 newClass.getBody() != null && TypeUtils.isOfClassType(type, GUAVA_CACHE + "Weigher"));
+            }
+            return super.visitNewClass(newClass, p);
+        }
+
+        @Override
+        public J.MemberReference visitMemberReference(J.MemberReference memberRef, Integer p) {
+            unsupported |= isUnsupported(memberRef.getMethodType());
+            return super.visitMemberReference(memberRef, p);
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Integer p) {
+            if (isUnsupported(method.getMethodType())) {
+                unsupported = true;
+            } else if (REMOVAL_LISTENER.matches(method)) {
+                unsupported |= !isConvertibleRemovalListener(method.getArguments().get(0));
+            } else if (LOADER_FROM.matches(method)) {
+                Object parent = getCursor().getParentTreeCursor().getValue();
+                unsupported |= !(parent instanceof J.MethodInvocation && BUILD_WITH_LOADER.matches((J.MethodInvocation) parent) &&
+                                 (method.getArguments().get(0) instanceof J.Lambda || method.getArguments().get(0) instanceof J.MemberReference));
+            } else if (GET_WITH_CALLABLE.matches(method)) {
+                Expression callable = method.getArguments().get(1);
+                unsupported |= !(callable instanceof J.Lambda &&
+                                 ((J.Lambda) callable).getParameters().getParameters().get(0) instanceof J.Empty &&
+                                 !CheckedExceptions.thrownBy(((J.Lambda) callable).getBody()));
+            }
+            return super.visitMethodInvocation(method, p);
+        }
+
+        @Override
+        public J.Try visitTry(J.Try tryable, Integer p) {
+            for (J.Try.Catch c : tryable.getCatches()) {
+                if (catchesLoadFailure(c.getParameter().getTree().getType()) && loads(tryable.getBody())) {
+                    unsupported = true;
+                }
+            }
+            return super.visitTry(tryable, p);
+        }
+
+        private boolean isGuavaCache(@Nullable TypeTree type) {
+            JavaType.FullyQualified fq = type == null ? null : TypeUtils.asFullyQualified(type.getType());
+            return fq != null && fq.getFullyQualifiedName().startsWith(GUAVA_CACHE);
+        }
+
+        /**
+         * @return whether the type is, or is parameterized with, a Guava cache type
+         */
+        private static boolean mentionsGuavaCache(@Nullable JavaType type) {
+            if (type instanceof JavaType.Array) {
+                return mentionsGuavaCache(((JavaType.Array) type).getElemType());
+            } else if (type instanceof JavaType.Parameterized &&
+                       ((JavaType.Parameterized) type).getTypeParameters().stream().anyMatch(Compatibility::mentionsGuavaCache)) {
+                return true;
+            }
+            JavaType.FullyQualified fq = TypeUtils.asFullyQualified(type);
+            return fq != null && fq.getFullyQualifiedName().startsWith(GUAVA_CACHE);
+        }
+
+        private static boolean isUnsupported(JavaType.@Nullable Method method) {
+            return method != null && method.getDeclaringType().getFullyQualifiedName().startsWith(GUAVA_CACHE) &&
+                   !SUPPORTED.matches(method);
+        }
+
+        /**
+         * @return whether the listener is a lambda whose notification is only used for its key, value and cause
+         */
+        private static boolean isConvertibleRemovalListener(Expression listener) {
+            if (!(listener instanceof J.Lambda) || ((J.Lambda) listener).getParameters().getParameters().size() != 1 ||
+                !(((J.Lambda) listener).getParameters().getParameters().get(0) instanceof J.VariableDeclarations) ||
+                ((J.VariableDeclarations) ((J.Lambda) listener).getParameters().getParameters().get(0)).getTypeExpression() != null) {
+                return false;
+            }
+            J.Lambda lambda = (J.Lambda) listener;
+            String param = ((J.VariableDeclarations) lambda.getParameters().getParameters().get(0)).getVariables().get(0).getSimpleName();
+            return !new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, AtomicBoolean otherUse) {
+                    if (param.equals(identifier.getSimpleName())) {
+                        Object parent = getCursor().getParentTreeCursor().getValue();
+                        otherUse.compareAndSet(false, !(parent instanceof J.MethodInvocation) ||
+                                                      ((J.MethodInvocation) parent).getSelect() != identifier ||
+                                                      !Arrays.asList("getKey", "getValue", "getCause", "wasEvicted")
+                                                              .contains(((J.MethodInvocation) parent).getSimpleName()));
+                    }
+                    return identifier;
+                }
+            }.reduce(lambda.getBody(), new AtomicBoolean()).get();
+        }
+
+        private static boolean catchesLoadFailure(@Nullable JavaType caught) {
+            if (caught instanceof JavaType.MultiCatch) {
+                return ((JavaType.MultiCatch) caught).getThrowableTypes().stream().anyMatch(Compatibility::catchesLoadFailure);
+            }
+            return TypeUtils.isOfClassType(caught, "java.util.concurrent.ExecutionException") ||
+                   TypeUtils.isOfClassType(caught, "com.google.common.util.concurrent.UncheckedExecutionException") ||
+                   TypeUtils.isOfClassType(caught, "com.google.common.util.concurrent.ExecutionError");
+        }
+
+        private static boolean loads(J tree) {
+            return new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean found) {
+                    if (LOADS.matches(method)) {
+                        found.set(true);
+                    }
+                    return super.visitMethodInvocation(method, found);
+                }
+            }.reduce(tree, new AtomicBoolean()).get();
+        }
+    }
+}
@@ -20,16 +20,24 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaDirectExecutor extends Recipe {
-    private static final MethodMatcher DIRECT_EXECUTOR = new MethodMatcher("com.google.common.util.concurrent.MoreExecutors directExecutor()");
+    private static final JavaTemplate RUNNABLE_RUN = JavaTemplate.builder("Runnable::run")
+            .contextSensitive()
+            .imports("java.lang.Runnable")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Collections.singletonList(
+            GuavaMethodRule.of("com.google.common.util.concurrent.MoreExecutors directExecutor()", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.util.concurrent.MoreExecutors");
+                return RUNNABLE_RUN.apply(v.getCursor(), method.getCoordinates().replace());
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -48,19 +56,6 @@ public class NoGuavaDirectExecutor extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(new UsesMethod<>(DIRECT_EXECUTOR), new JavaVisitor<ExecutionContext>() {
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (DIRECT_EXECUTOR.matches(method)) {
-                    maybeRemoveImport("com.google.common.util.concurrent.MoreExecutors");
-                    return JavaTemplate.builder("Runnable::run")
-                            .contextSensitive()
-                            .imports("java.lang.Runnable")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace());
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
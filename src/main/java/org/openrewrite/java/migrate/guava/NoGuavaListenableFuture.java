@@ -0,0 +1,545 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.ChangeMethodName;
+import org.openrewrite.java.ChangeType;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.JavaTemplateCache;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.nCopies;
+import static java.util.Collections.singleton;
+
+public class NoGuavaListenableFuture extends ScanningRecipe<Set<String>> {
+    private static final String GUAVA_CONCURRENT = "com.google.common.util.concurrent.";
+    private static final String COMPLETABLE_FUTURE = "java.util.concurrent.CompletableFuture";
+
+    /**
+     * Types whose methods take or return Guava futures. Any use of their methods other than the ones below keeps a
+     * source file from being migrated.
+     */
+    private static final Set<String> FUTURE_TYPES = new HashSet<>(Arrays.asList(
+            GUAVA_CONCURRENT + "ListenableFuture",
+            GUAVA_CONCURRENT + "SettableFuture",
+            GUAVA_CONCURRENT + "AbstractFuture",
+            GUAVA_CONCURRENT + "FluentFuture",
+            GUAVA_CONCURRENT + "ListenableFutureTask",
+            GUAVA_CONCURRENT + "Futures",
+            GUAVA_CONCURRENT + "FutureCallback",
+            GUAVA_CONCURRENT + "ListeningExecutorService",
+            GUAVA_CONCURRENT + "ListeningScheduledExecutorService"));
+
+    private static final MethodMatcher TRANSFORM = new MethodMatcher(GUAVA_CONCURRENT + "Futures transform(..)");
+    private static final MethodMatcher TRANSFORM_ASYNC = new MethodMatcher(GUAVA_CONCURRENT + "Futures transformAsync(..)");
+    private static final MethodMatcher ALL_AS_LIST = new MethodMatcher(GUAVA_CONCURRENT + "Futures allAsList(..)");
+    private static final MethodMatcher ADD_CALLBACK = new MethodMatcher(GUAVA_CONCURRENT + "Futures addCallback(..)");
+    private static final MethodMatcher IMMEDIATE_FUTURE = new MethodMatcher(GUAVA_CONCURRENT + "Futures immediateFuture(..)");
+    private static final MethodMatcher SETTABLE_FUTURE_CREATE = new MethodMatcher(GUAVA_CONCURRENT + "SettableFuture create()");
+    private static final MethodMatcher LISTENING_DECORATOR = new MethodMatcher(GUAVA_CONCURRENT + "MoreExecutors listeningDecorator(java.util.concurrent.ExecutorService)");
+    private static final MethodMatcher SUBMIT_CALLABLE = new MethodMatcher(GUAVA_CONCURRENT + "ListeningExecutorService submit(java.util.concurrent.Callable)");
+    private static final MethodMatcher SUBMIT_RUNNABLE = new MethodMatcher(GUAVA_CONCURRENT + "ListeningExecutorService submit(java.lang.Runnable)");
+    private static final MethodMatcher DIRECT_EXECUTOR = new MethodMatcher(GUAVA_CONCURRENT + "MoreExecutors directExecutor()");
+
+    private static final MethodMatcherIndex<String> SUPPORTED = MethodMatcherIndex.of(false,
+            GUAVA_CONCURRENT + "Futures transform(..)",
+            GUAVA_CONCURRENT + "Futures transformAsync(..)",
+            GUAVA_CONCURRENT + "Futures allAsList(..)",
+            GUAVA_CONCURRENT + "Futures addCallback(..)",
+            GUAVA_CONCURRENT + "Futures immediateFuture(..)",
+            GUAVA_CONCURRENT + "SettableFuture create()",
+            GUAVA_CONCURRENT + "SettableFuture set(..)",
+            GUAVA_CONCURRENT + "SettableFuture setException(..)",
+            GUAVA_CONCURRENT + "MoreExecutors listeningDecorator(java.util.concurrent.ExecutorService)",
+            GUAVA_CONCURRENT + "ListeningExecutorService submit(java.util.concurrent.Callable)",
+            GUAVA_CONCURRENT + "ListeningExecutorService submit(java.lang.Runnable)",
+            GUAVA_CONCURRENT + "FutureCallback *(..)",
+            GUAVA_CONCURRENT + "AbstractFuture get(..)",
+            GUAVA_CONCURRENT + "AbstractFuture isDone()",
+            GUAVA_CONCURRENT + "AbstractFuture isCancelled()",
+            GUAVA_CONCURRENT + "AbstractFuture cancel(boolean)");
+
+    private static final String[][] RENAMES = {
+            {GUAVA_CONCURRENT + "SettableFuture set(..)", "complete"},
+            {GUAVA_CONCURRENT + "SettableFuture setException(..)", "completeExceptionally"}
+    };
+
+    private static final String[][] TYPES = {
+            {GUAVA_CONCURRENT + "ListenableFuture", COMPLETABLE_FUTURE},
+            {GUAVA_CONCURRENT + "SettableFuture", COMPLETABLE_FUTURE},
+            {GUAVA_CONCURRENT + "ListeningExecutorService", "java.util.concurrent.ExecutorService"}
+    };
+
+    @Override
+    public String getDisplayName() {
+        return "Prefer `CompletableFuture` over Guava's `ListenableFuture`";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Migrate `ListenableFuture`, `SettableFuture`, `Futures` and `MoreExecutors.listeningDecorator(..)` to " +
+               "`CompletableFuture`. `Futures.transform` becomes `thenApply`, `transformAsync` becomes `thenCompose`, " +
+               "`allAsList` becomes `allOf` and `addCallback` becomes `whenComplete`, all keeping their executor unless " +
+               "it is the direct executor. A source file is only migrated if all of its Guava future usages have an " +
+               "equivalent, and if no other source file uses a class of it whose fields or methods visible outside " +
+               "the class take or return Guava futures. Note that `allOf` waits for all futures to complete rather than failing on the first failure, " +
+               "and that failures of dependent stages reach `whenComplete` wrapped in a `CompletionException`.";
+    }
+
+    @Override
+    public Set<String> getTags() {
+        return singleton("guava");
+    }
+
+    /**
+     * @return The types used by a source file that uses Guava futures, but declared in another source file.
+     */
+    @Override
+    public Set<String> getInitialValue(ExecutionContext ctx) {
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Set<String> usedElsewhere) {
+        return Preconditions.check(new UsesType<>(GUAVA_CONCURRENT + "*", false), new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                Set<String> declared = declaredTypes(cu);
+                for (JavaType type : cu.getTypesInUse().getTypesInUse()) {
+                    JavaType.FullyQualified fq = TypeUtils.asFullyQualified(type);
+                    if (fq != null && !declared.contains(fq.getFullyQualifiedName())) {
+                        usedElsewhere.add(fq.getFullyQualifiedName());
+                    }
+                }
+                for (JavaType.Method method : cu.getTypesInUse().getUsedMethods()) {
+                    if (!declared.contains(method.getDeclaringType().getFullyQualifiedName())) {
+                        usedElsewhere.add(method.getDeclaringType().getFullyQualifiedName());
+                    }
+                }
+                return cu;
+            }
+        });
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Set<String> usedElsewhere) {
+        return Preconditions.check(new UsesType<>(GUAVA_CONCURRENT + "*", false), new JavaVisitor<ExecutionContext>() {
+            private Set<String> names = emptySet();
+
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                Compatibility compatibility = new Compatibility(declaredTypes(cu), usedElsewhere);
+                compatibility.visit(cu, 0);
+                if (!compatibility.isSupported()) {
+                    return cu;
+                }
+                names = compatibility.names.keySet();
+                J j = super.visitCompilationUnit(cu, ctx);
+                for (String[] rename : RENAMES) {
+                    doAfterVisit(new ChangeMethodName(rename[0], rename[1], true, null).getVisitor());
+                }
+                for (String[] type : TYPES) {
+                    doAfterVisit(new ChangeType(type[0], type[1], true).getVisitor());
+                }
+                return j;
+            }
+
+            @Override
+            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J j = super.visitMethodInvocation(method, ctx);
+                if (!(j instanceof J.MethodInvocation)) {
+                    return j;
+                }
+                J.MethodInvocation m = (J.MethodInvocation) j;
+                List<Expression> args = m.getArguments();
+                if (TRANSFORM.matches(method) || TRANSFORM_ASYNC.matches(method)) {
+                    String stage = TRANSFORM.matches(method) ? "thenApply" : "thenCompose";
+                    return stage(m, stage, "#{any(java.util.function.Function)}", args.get(0), args.get(1), executor(method, 2));
+                } else if (ADD_CALLBACK.matches(method)) {
+                    return addCallback(m, executor(method, 2));
+                } else if (ALL_AS_LIST.matches(method)) {
+                    return allAsList(m);
+                } else if (IMMEDIATE_FUTURE.matches(method)) {
+                    maybeRemoveImport(GUAVA_CONCURRENT + "Futures");
+                    maybeAddImport(COMPLETABLE_FUTURE);
+                    return JavaTemplateCache.contextSensitive("CompletableFuture.completedFuture(#{any()})", COMPLETABLE_FUTURE)
+                            .apply(getCursor(), m.getCoordinates().replace(), args.get(0));
+                } else if (SETTABLE_FUTURE_CREATE.matches(method)) {
+                    maybeAddImport(COMPLETABLE_FUTURE);
+                    return JavaTemplateCache.contextSensitive("new CompletableFuture<>()", COMPLETABLE_FUTURE)
+                            .apply(getCursor(), m.getCoordinates().replace());
+                } else if (LISTENING_DECORATOR.matches(method)) {
+                    maybeRemoveImport(GUAVA_CONCURRENT + "MoreExecutors");
+                    return args.get(0).withPrefix(m.getPrefix());
+                } else if ((SUBMIT_CALLABLE.matches(method) || SUBMIT_RUNNABLE.matches(method)) && m.getSelect() != null) {
+                    maybeAddImport(COMPLETABLE_FUTURE);
+                    String async = SUBMIT_CALLABLE.matches(method) ?
+                            "CompletableFuture.supplyAsync(#{any(java.util.function.Supplier)}, #{any(java.util.concurrent.Executor)})" :
+                            "CompletableFuture.runAsync(#{any(java.lang.Runnable)}, #{any(java.util.concurrent.Executor)})";
+                    return JavaTemplateCache.contextSensitive(async, COMPLETABLE_FUTURE)
+                            .apply(getCursor(), m.getCoordinates().replace(), args.get(0), m.getSelect());
+                }
+                return m;
+            }
+
+            /**
+             * @return the executor argument, or {@code null} for the direct executor, which runs the stage in the
+             * thread that completes the future just like the non async methods of {@code CompletableFuture}
+             */
+            private @Nullable Expression executor(J.MethodInvocation method, int index) {
+                if (method.getArguments().size() <= index) {
+                    return null;
+                }
+                Expression executor = method.getArguments().get(index);
+                if (DIRECT_EXECUTOR.matches(executor) || isRunnableRun(executor)) {
+                    maybeRemoveImport(GUAVA_CONCURRENT + "MoreExecutors");
+                    return null;
+                }
+                return executor;
+            }
+
+            private J stage(J.MethodInvocation m, String stage, String function, Expression future, J stageArgument, @Nullable Expression executor) {
+                maybeRemoveImport(GUAVA_CONCURRENT + "Futures");
+                String code = "#{any(java.util.concurrent.CompletableFuture)}." + stage +
+                              (executor == null ? "(" + function + ")" : "Async(" + function + ", #{any(java.util.concurrent.Executor)})");
+                Object[] parameters = executor == null ? new Object[]{future, stageArgument} : new Object[]{future, stageArgument, executor};
+                return JavaTemplateCache.contextSensitive(code, COMPLETABLE_FUTURE)
+                        .apply(getCursor(), m.getCoordinates().replace(), parameters);
+            }
+
+            /**
+             * An anonymous {@code FutureCallback} becomes a lambda which runs the body of {@code onSuccess} or
+             * {@code onFailure}, with their parameters as its own.
+             */
+            private J addCallback(J.MethodInvocation m, @Nullable Expression executor) {
+                J.NewClass callback = (J.NewClass) m.getArguments().get(1);
+                J.MethodDeclaration onSuccess = callbackMethod(callback, "onSuccess");
+                J.MethodDeclaration onFailure = callbackMethod(callback, "onFailure");
+                String result = parameterName(onSuccess);
+                String failure = parameterName(onFailure);
+                maybeRemoveImport(GUAVA_CONCURRENT + "Futures");
+                maybeRemoveImport(GUAVA_CONCURRENT + "FutureCallback");
+                //noinspection DataFlowIssue
+                String code = "#{any(java.util.concurrent.CompletableFuture" + resultType(m.getArguments().get(0)) + ")}." + (executor == null ? "whenComplete" : "whenCompleteAsync") +
+                              "((" + result + ", " + failure + ") -> {\n" +
+                              "if (" + failure + " == null) " + onSuccess.getBody().printTrimmed(getCursor()) +
+                              " else " + onFailure.getBody().printTrimmed(getCursor()) + "\n}" +
+                              (executor == null ? ")" : ", #{any(java.util.concurrent.Executor)})");
+                Object[] parameters = executor == null ? new Object[]{m.getArguments().get(0)} : new Object[]{m.getArguments().get(0), executor};
+                // the callback bodies make every template unique, so it is not worth caching
+                return JavaTemplate.builder(code).contextSensitive().build()
+                        .apply(getCursor(), m.getCoordinates().replace(), parameters);
+            }
+
+            /**
+             * The type argument of a future as written in a template, so that the parameters of the callback lambda
+             * are attributed with the result type and {@code Throwable} rather than {@code Object}.
+             */
+            private String resultType(Expression future) {
+                JavaType.Parameterized type = TypeUtils.asParameterized(future.getType());
+                if (type != null && type.getTypeParameters().size() == 1 &&
+                    type.getTypeParameters().get(0) instanceof JavaType.FullyQualified) {
+                    return "<" + TypeUtils.toString(type.getTypeParameters().get(0)) + ">";
+                }
+                return "<?>";
+            }
+
+            /**
+             * {@code allAsList(a, b)} becomes {@code allOf(a, b)} completed with the list of results of
+             * {@code a} and {@code b}, and {@code allAsList(futures)} the same for a collection of futures.
+             */
+            private J allAsList(J.MethodInvocation m) {
+                List<Expression> futures = m.getArguments();
+                String done = unusedName("done");
+                String code;
+                Object[] parameters;
+                if (futures.size() == 1 && TypeUtils.isAssignableTo("java.util.Collection", futures.get(0).getType())) {
+                    code = "CompletableFuture.allOf(#{any(java.util.Collection)}.toArray(new CompletableFuture[0]))" +
+                           ".thenApply(" + done + " -> #{any(java.util.Collection)}.stream().map(CompletableFuture::join).collect(Collectors.toList()))";
+                    parameters = new Object[]{futures.get(0), futures.get(0)};
+                } else {
+                    String any = String.join(", ", nCopies(futures.size(), "#{any(java.util.concurrent.CompletableFuture)}"));
+                    code = "CompletableFuture.allOf(" + any + ")" +
+                           ".thenApply(" + done + " -> Stream.of(" + any + ").map(CompletableFuture::join).collect(Collectors.toList()))";
+                    List<Expression> both = new ArrayList<>(futures);
+                    both.addAll(futures);
+                    parameters = both.toArray();
+                    maybeAddImport("java.util.stream.Stream");
+                }
+                maybeRemoveImport(GUAVA_CONCURRENT + "Futures");
+                maybeAddImport(COMPLETABLE_FUTURE);
+                maybeAddImport("java.util.stream.Collectors");
+                return JavaTemplateCache.contextSensitive(code, COMPLETABLE_FUTURE, "java.util.stream.Collectors", "java.util.stream.Stream")
+                        .apply(getCursor(), m.getCoordinates().replace(), parameters);
+            }
+
+            private String unusedName(String name) {
+                String unused = name;
+                for (int i = 2; names.contains(unused); i++) {
+                    unused = name + i;
+                }
+                return unused;
+            }
+        });
+    }
+
+    private static boolean isRunnableRun(Expression executor) {
+        return executor instanceof J.MemberReference &&
+               "run".equals(((J.MemberReference) executor).getReference().getSimpleName()) &&
+               TypeUtils.isOfClassType(((J.MemberReference) executor).getContaining().getType(), "java.lang.Runnable");
+    }
+
+    /**
+     * @return The fully qualified names of the classes declared in a source file, including nested and local ones.
+     */
+    private static Set<String> declaredTypes(J.CompilationUnit cu) {
+        return new JavaIsoVisitor<Set<String>>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Set<String> declared) {
+                if (classDecl.getType() != null) {
+                    declared.add(classDecl.getType().getFullyQualifiedName());
+                }
+                return super.visitClassDeclaration(classDecl, declared);
+            }
+        }.reduce(cu, new HashSet<>());
+    }
+
+    private static J.MethodDeclaration callbackMethod(J.NewClass callback, String name) {
+        //noinspection DataFlowIssue
+        for (Statement statement : callback.getBody().getStatements()) {
+            if (statement instanceof J.MethodDeclaration && name.equals(((J.MethodDeclaration) statement).getSimpleName())) {
+                return (J.MethodDeclaration) statement;
+            }
+        }
+        throw new IllegalStateException("No " + name + " method in callback");
+    }
+
+    private static String parameterName(J.MethodDeclaration method) {
+        return ((J.VariableDeclarations) method.getParameters().get(0)).getVariables().get(0).getSimpleName();
+    }
+
+    /**
+     * Decides whether every Guava future usage of a source file can be migrated, and counts the declarations of each
+     * variable name so that lambda parameters introduced by the migration do not clash with them.
+     */
+    private static class Compatibility extends JavaIsoVisitor<Integer> {
+        final Map<String, Integer> names = new HashMap<>();
+        private final List<Expression> callbacks = new ArrayList<>();
+        private final Set<String> declaredTypes;
+        private final Set<String> usedElsewhere;
+        private boolean unsupported;
+
+        /**
+         * Whether a field or method visible outside its class takes or returns a Guava future.
+         */
+        private boolean exposesFutures;
+
+        Compatibility(Set<String> declaredTypes, Set<String> usedElsewhere) {
+            this.declaredTypes = declaredTypes;
+            this.usedElsewhere = usedElsewhere;
+        }
+
+        /**
+         * @return whether the visited source file can be migrated, which for callbacks depends on all the variable
+         * names in the file
+         */
+        boolean isSupported() {
+            return !unsupported && callbacks.stream().allMatch(this::isConvertibleCallback) &&
+                   !(exposesFutures && declaredTypes.stream().anyMatch(usedElsewhere::contains));
+        }
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Integer p) {
+            if (!method.hasModifier(J.Modifier.Type.Private)) {
+                exposesFutures |= mentionsFutureType(method.getReturnTypeExpression() == null ? null : method.getReturnTypeExpression().getType());
+                for (Statement parameter : method.getParameters()) {
+                    exposesFutures |= parameter instanceof J.VariableDeclarations && mentionsFutureType(((J.VariableDeclarations) parameter).getType());
+                }
+            }
+            // an override of a method declared in another source file has to keep its signature
+            JavaType.Method overridden = method.getMethodType() == null ? null : TypeUtils.findOverriddenMethod(method.getMethodType()).orElse(null);
+            if (overridden != null && !declaredTypes.contains(overridden.getDeclaringType().getFullyQualifiedName()) &&
+                (mentionsFutureType(overridden.getReturnType()) || overridden.getParameterTypes().stream().anyMatch(Compatibility::mentionsFutureType))) {
+                unsupported = true;
+            }
+            return super.visitMethodDeclaration(method, p);
+        }
+
+        @Override
+        public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, Integer p) {
+            Cursor block = getCursor().getParentTreeCursor();
+            if (block.getValue() instanceof J.Block && block.getParentTreeCursor().getValue() instanceof J.ClassDeclaration &&
+                !multiVariable.hasModifier(J.Modifier.Type.Private)) {
+                exposesFutures |= mentionsFutureType(multiVariable.getType());
+            }
+            return super.visitVariableDeclarations(multiVariable, p);
+        }
+
+        @Override
+        public J.VariableDeclarations.NamedVariable visitVariable(J.VariableDeclarations.NamedVariable variable, Integer p) {
+            names.merge(variable.getSimpleName(), 1, Integer::sum);
+            return super.visitVariable(variable, p);
+        }
+
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Integer p) {
+            if (isFutureType(classDecl.getExtends()) ||
+                classDecl.getImplements() != null && classDecl.getImplements().stream().anyMatch(this::isFutureType)) {
+                unsupported = true;
+            }
+            return super.visitClassDeclaration(classDecl, p);
+        }
+
+        @Override
+        public J.NewClass visitNewClass(J.NewClass newClass, Integer p) {
+            // anonymous callbacks are only supported as the argument of `addCallback`, which is checked there
+            if (isFutureType(newClass.getClazz()) && !isCallbackArgument()) {
+                unsupported = true;
+            }
+            return super.visitNewClass(newClass, p);
+        }
+
+        @Override
+        public J.MemberReference visitMemberReference(J.MemberReference memberRef, Integer p) {
+            unsupported |= isUnsupported(memberRef.getMethodType());
+            return super.visitMemberReference(memberRef, p);
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Integer p) {
+            List<Expression> args = method.getArguments();
+            if (isUnsupported(method.getMethodType())) {
+                unsupported = true;
+            } else if (TRANSFORM.matches(method)) {
+                unsupported |= !isFunction(args.get(1));
+            } else if (TRANSFORM_ASYNC.matches(method)) {
+                // an `AsyncFunction` may throw checked exceptions, the `Function` of `thenCompose` may not
+                unsupported |= !isFunction(args.get(1)) ||
+                               args.get(1) instanceof J.Lambda && CheckedExceptions.thrownBy(((J.Lambda) args.get(1)).getBody());
+            } else if (ADD_CALLBACK.matches(method)) {
+                callbacks.add(args.get(1));
+            } else if (ALL_AS_LIST.matches(method)) {
+                // each future is referenced twice, once to wait for it and once to collect its result
+                unsupported |= args.isEmpty() || !args.stream().allMatch(a -> a instanceof J.Identifier || a instanceof J.FieldAccess);
+            } else if (SUBMIT_CALLABLE.matches(method)) {
+                unsupported |= method.getSelect() == null || !(args.get(0) instanceof J.Lambda) ||
+                               CheckedExceptions.thrownBy(((J.Lambda) args.get(0)).getBody());
+            } else if (SUBMIT_RUNNABLE.matches(method)) {
+                unsupported |= method.getSelect() == null;
+            }
+            return super.visitMethodInvocation(method, p);
+        }
+
+        private boolean isCallbackArgument() {
+            Object parent = getCursor().getParentTreeCursor().getValue();
+            return parent instanceof J.MethodInvocation && ADD_CALLBACK.matches((J.MethodInvocation) parent);
+        }
+
+        private boolean isFutureType(@Nullable TypeTree type) {
+            JavaType.FullyQualified fq = type == null ? null : TypeUtils.asFullyQualified(type.getType());
+            return fq != null && FUTURE_TYPES.contains(fq.getFullyQualifiedName());
+        }
+
+        /**
+         * @return whether the type is, or is parameterized with, a Guava future type
+         */
+        private static boolean mentionsFutureType(@Nullable JavaType type) {
+            if (type instanceof JavaType.Array) {
+                return mentionsFutureType(((JavaType.Array) type).getElemType());
+            } else if (type instanceof JavaType.Parameterized &&
+                       ((JavaType.Parameterized) type).getTypeParameters().stream().anyMatch(Compatibility::mentionsFutureType)) {
+                return true;
+            }
+            JavaType.FullyQualified fq = TypeUtils.asFullyQualified(type);
+            return fq != null && FUTURE_TYPES.contains(fq.getFullyQualifiedName());
+        }
+
+        /**
+         * Methods declared in the same source file are migrated along with it.
+         */
+        private boolean isUnsupported(JavaType.@Nullable Method method) {
+            if (method == null || SUPPORTED.matches(method) || declaredTypes.contains(method.getDeclaringType().getFullyQualifiedName())) {
+                return false;
+            }
+            JavaType.FullyQualified returnType = TypeUtils.asFullyQualified(method.getReturnType());
+            return FUTURE_TYPES.contains(method.getDeclaringType().getFullyQualifiedName()) ||
+                   returnType != null && FUTURE_TYPES.contains(returnType.getFullyQualifiedName());
+        }
+
+        /**
+         * Guava's own {@code Function} type is only known to be compatible when written as a lambda or method reference.
+         */
+        private static boolean isFunction(Expression function) {
+            return function instanceof J.Lambda || function instanceof J.MemberReference;
+        }
+
+        /**
+         * @return whether the callback is an anonymous class with nothing but {@code onSuccess} and {@code onFailure}
+         * whose bodies can be moved to a lambda taking their parameters
+         */
+        private boolean isConvertibleCallback(Expression callback) {
+            if (!(callback instanceof J.NewClass) || ((J.NewClass) callback).getBody() == null) {
+                return false;
+            }
+            List<Statement> statements = ((J.NewClass) callback).getBody().getStatements();
+            if (statements.size() != 2 || !statements.stream().allMatch(s -> s instanceof J.MethodDeclaration &&
+                    ("onSuccess".equals(((J.MethodDeclaration) s).getSimpleName()) || "onFailure".equals(((J.MethodDeclaration) s).getSimpleName())))) {
+                return false;
+            }
+            J.MethodDeclaration onSuccess = callbackMethod((J.NewClass) callback, "onSuccess");
+            J.MethodDeclaration onFailure = callbackMethod((J.NewClass) callback, "onFailure");
+            if (onSuccess.getBody() == null || onFailure.getBody() == null) {
+                return false;
+            }
+            String result = parameterName(onSuccess);
+            String failure = parameterName(onFailure);
+            // the parameters become lambda parameters, which must not shadow other variables, and the bodies must not
+            // refer to the callback itself
+            return !result.equals(failure) &&
+                   names.getOrDefault(result, 0) <= 1 && names.getOrDefault(failure, 0) <= 1 &&
+                   !refersTo(onSuccess.getBody(), "this", failure) && !refersTo(onFailure.getBody(), "this", result);
+        }
+
+        private static boolean refersTo(J tree, String... names) {
+            List<String> candidates = Arrays.asList(names);
+            return new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, AtomicBoolean found) {
+                    if (candidates.contains(identifier.getSimpleName())) {
+                        found.set(true);
+                    }
+                    return identifier;
+                }
+            }.reduce(tree, new AtomicBoolean()).get();
+        }
+    }
+}
@@ -20,19 +20,51 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaListsNewArrayList extends Recipe {
-    private static final MethodMatcher NEW_ARRAY_LIST = new MethodMatcher("com.google.common.collect.Lists newArrayList()");
-    private static final MethodMatcher NEW_ARRAY_LIST_ITERABLE = new MethodMatcher("com.google.common.collect.Lists newArrayList(java.lang.Iterable)");
-    private static final MethodMatcher NEW_ARRAY_LIST_CAPACITY = new MethodMatcher("com.google.common.collect.Lists newArrayListWithCapacity(int)");
+    private static final JavaTemplate NEW_ARRAY_LIST = JavaTemplate.builder("new ArrayList<>()")
+            .contextSensitive()
+            .imports("java.util.ArrayList")
+            .build();
+
+    private static final JavaTemplate NEW_ARRAY_LIST_ITERABLE = JavaTemplate.builder("new ArrayList<>(#{any(java.util.Collection)})")
+            .contextSensitive()
+            .imports("java.util.ArrayList")
+            .build();
+
+    private static final JavaTemplate NEW_ARRAY_LIST_CAPACITY = JavaTemplate.builder("new ArrayList<>(#{any(int)})")
+            .contextSensitive()
+            .imports("java.util.ArrayList")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Arrays.asList(
+            GuavaMethodRule.of("com.google.common.collect.Lists newArrayList()", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Lists");
+                v.maybeAddImport("java.util.ArrayList");
+                return NEW_ARRAY_LIST.apply(v.getCursor(), method.getCoordinates().replace());
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Lists newArrayList(java.lang.Iterable)", (method, v) -> {
+                if (method.getArguments().size() != 1 ||
+                    !TypeUtils.isAssignableTo("java.util.Collection", method.getArguments().get(0).getType())) {
+                    return null;
+                }
+                v.maybeRemoveImport("com.google.common.collect.Lists");
+                v.maybeAddImport("java.util.ArrayList");
+                return NEW_ARRAY_LIST_ITERABLE.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Lists newArrayListWithCapacity(int)", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Lists");
+                v.maybeAddImport("java.util.ArrayList");
+                return NEW_ARRAY_LIST_CAPACITY.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -51,45 +83,6 @@ public class NoGuavaListsNewArrayList extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(Preconditions.or(
-                new UsesMethod<>(NEW_ARRAY_LIST),
-                new UsesMethod<>(NEW_ARRAY_LIST_ITERABLE),
-                new UsesMethod<>(NEW_ARRAY_LIST_CAPACITY)), new JavaVisitor<ExecutionContext>() {
-            private final JavaTemplate newArrayList = JavaTemplate.builder("new ArrayList<>()")
-                    .contextSensitive()
-                    .imports("java.util.ArrayList")
-                    .build();
-
-            private final JavaTemplate newArrayListCollection = JavaTemplate.builder("new ArrayList<>(#{any(java.util.Collection)})")
-                    .contextSensitive()
-                    .imports("java.util.ArrayList")
-                    .build();
-
-            private final JavaTemplate newArrayListCapacity = JavaTemplate.builder("new ArrayList<>(#{any(int)})")
-                    .contextSensitive()
-                    .imports("java.util.ArrayList")
-                    .build();
-
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_ARRAY_LIST.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Lists");
-                    maybeAddImport("java.util.ArrayList");
-                    return newArrayList.apply(getCursor(), method.getCoordinates().replace());
-                } else if (NEW_ARRAY_LIST_ITERABLE.matches(method) && method.getArguments().size() == 1 &&
-                        TypeUtils.isAssignableTo("java.util.Collection", method.getArguments().get(0).getType())) {
-                    maybeRemoveImport("com.google.common.collect.Lists");
-                    maybeAddImport("java.util.ArrayList");
-                    return newArrayListCollection.apply(getCursor(), method.getCoordinates().replace(),
-                            method.getArguments().get(0));
-                } else if (NEW_ARRAY_LIST_CAPACITY.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Lists");
-                    maybeAddImport("java.util.ArrayList");
-                    return newArrayListCapacity.apply(getCursor(), method.getCoordinates().replace(),
-                            method.getArguments().get(0));
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
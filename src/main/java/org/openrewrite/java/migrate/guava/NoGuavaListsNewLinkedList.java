@@ -20,18 +20,41 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaListsNewLinkedList extends Recipe {
-    private static final MethodMatcher NEW_LINKED_LIST = new MethodMatcher("com.google.common.collect.Lists newLinkedList()");
-    private static final MethodMatcher NEW_LINKED_LIST_ITERABLE = new MethodMatcher("com.google.common.collect.Lists newLinkedList(java.lang.Iterable)");
+    private static final JavaTemplate NEW_LINKED_LIST = JavaTemplate.builder("new LinkedList<>()")
+            .contextSensitive()
+            .imports("java.util.LinkedList")
+            .build();
+
+    private static final JavaTemplate NEW_LINKED_LIST_ITERABLE = JavaTemplate.builder("new LinkedList<>(#{any(java.util.Collection)})")
+            .contextSensitive()
+            .imports("java.util.LinkedList")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Arrays.asList(
+            GuavaMethodRule.of("com.google.common.collect.Lists newLinkedList()", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Lists");
+                v.maybeAddImport("java.util.LinkedList");
+                return NEW_LINKED_LIST.apply(v.getCursor(), method.getCoordinates().replace());
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Lists newLinkedList(java.lang.Iterable)", (method, v) -> {
+                if (method.getArguments().size() != 1 ||
+                    !TypeUtils.isAssignableTo("java.util.Collection", method.getArguments().get(0).getType())) {
+                    return null;
+                }
+                v.maybeRemoveImport("com.google.common.collect.Lists");
+                v.maybeAddImport("java.util.LinkedList");
+                return NEW_LINKED_LIST_ITERABLE.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -50,31 +73,6 @@ public class NoGuavaListsNewLinkedList extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(Preconditions.or(
-                new UsesMethod<>(NEW_LINKED_LIST),
-                new UsesMethod<>(NEW_LINKED_LIST_ITERABLE)), new JavaVisitor<ExecutionContext>() {
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_LINKED_LIST.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Lists");
-                    maybeAddImport("java.util.LinkedList");
-                    return JavaTemplate.builder("new LinkedList<>()")
-                            .contextSensitive()
-                            .imports("java.util.LinkedList")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace());
-                } else if (NEW_LINKED_LIST_ITERABLE.matches(method) && method.getArguments().size() == 1 &&
-                           TypeUtils.isAssignableTo("java.util.Collection", method.getArguments().get(0).getType())) {
-                    maybeRemoveImport("com.google.common.collect.Lists");
-                    maybeAddImport("java.util.LinkedList");
-                    return JavaTemplate.builder("new LinkedList<>(#{any(java.util.Collection)})")
-                            .contextSensitive()
-                            .imports("java.util.LinkedList")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
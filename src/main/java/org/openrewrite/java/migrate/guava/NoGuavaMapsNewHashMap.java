@@ -20,17 +20,36 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaMapsNewHashMap extends Recipe {
-    private static final MethodMatcher NEW_HASH_MAP = new MethodMatcher("com.google.common.collect.Maps newHashMap()");
-    private static final MethodMatcher NEW_HASH_MAP_WITH_MAP = new MethodMatcher("com.google.common.collect.Maps newHashMap(java.util.Map)");
+    private static final JavaTemplate NEW_HASH_MAP = JavaTemplate.builder("new HashMap<>()")
+            .contextSensitive()
+            .imports("java.util.HashMap")
+            .build();
+
+    private static final JavaTemplate NEW_HASH_MAP_WITH_MAP = JavaTemplate.builder("new HashMap<>(#{any(java.util.Map)})")
+            .contextSensitive()
+            .imports("java.util.HashMap")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Arrays.asList(
+            GuavaMethodRule.of("com.google.common.collect.Maps newHashMap()", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Maps");
+                v.maybeAddImport("java.util.HashMap");
+                return NEW_HASH_MAP.apply(v.getCursor(), method.getCoordinates().replace());
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Maps newHashMap(java.util.Map)", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Maps");
+                v.maybeAddImport("java.util.HashMap");
+                return NEW_HASH_MAP_WITH_MAP.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -49,30 +68,6 @@ public class NoGuavaMapsNewHashMap extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(Preconditions.or(
-                new UsesMethod<>(NEW_HASH_MAP),
-                new UsesMethod<>(NEW_HASH_MAP_WITH_MAP)), new JavaVisitor<ExecutionContext>() {
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_HASH_MAP.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Maps");
-                    maybeAddImport("java.util.HashMap");
-                    return JavaTemplate.builder("new HashMap<>()")
-                            .contextSensitive()
-                            .imports("java.util.HashMap")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace());
-                } else if (NEW_HASH_MAP_WITH_MAP.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Maps");
-                    maybeAddImport("java.util.HashMap");
-                    return JavaTemplate.builder("new HashMap<>(#{any(java.util.Map)})")
-                            .contextSensitive()
-                            .imports("java.util.HashMap")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
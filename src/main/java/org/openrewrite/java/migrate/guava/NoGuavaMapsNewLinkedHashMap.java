@@ -20,17 +20,36 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaMapsNewLinkedHashMap extends Recipe {
-    private static final MethodMatcher NEW_LINKED_HASH_MAP = new MethodMatcher("com.google.common.collect.Maps newLinkedHashMap()");
-    private static final MethodMatcher NEW_LINKED_HASH_MAP_WITH_MAP = new MethodMatcher("com.google.common.collect.Maps newLinkedHashMap(java.util.Map)");
+    private static final JavaTemplate NEW_LINKED_HASH_MAP = JavaTemplate.builder("new LinkedHashMap<>()")
+            .contextSensitive()
+            .imports("java.util.LinkedHashMap")
+            .build();
+
+    private static final JavaTemplate NEW_LINKED_HASH_MAP_WITH_MAP = JavaTemplate.builder("new LinkedHashMap<>(#{any(java.util.Map)})")
+            .contextSensitive()
+            .imports("java.util.LinkedHashMap")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Arrays.asList(
+            GuavaMethodRule.of("com.google.common.collect.Maps newLinkedHashMap()", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Maps");
+                v.maybeAddImport("java.util.LinkedHashMap");
+                return NEW_LINKED_HASH_MAP.apply(v.getCursor(), method.getCoordinates().replace());
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Maps newLinkedHashMap(java.util.Map)", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Maps");
+                v.maybeAddImport("java.util.LinkedHashMap");
+                return NEW_LINKED_HASH_MAP_WITH_MAP.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -49,30 +68,6 @@ public class NoGuavaMapsNewLinkedHashMap extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(Preconditions.or(
-                new UsesMethod<>(NEW_LINKED_HASH_MAP),
-                new UsesMethod<>(NEW_LINKED_HASH_MAP_WITH_MAP)), new JavaVisitor<ExecutionContext>() {
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_LINKED_HASH_MAP.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Maps");
-                    maybeAddImport("java.util.LinkedHashMap");
-                    return JavaTemplate.builder("new LinkedHashMap<>()")
-                            .contextSensitive()
-                            .imports("java.util.LinkedHashMap")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace());
-                } else if (NEW_LINKED_HASH_MAP_WITH_MAP.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Maps");
-                    maybeAddImport("java.util.LinkedHashMap");
-                    return JavaTemplate.builder("new LinkedHashMap<>(#{any(java.util.Map)})")
-                            .contextSensitive()
-                            .imports("java.util.LinkedHashMap")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
@@ -20,18 +20,46 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaMapsNewTreeMap extends Recipe {
-    private static final MethodMatcher NEW_TREE_MAP = new MethodMatcher("com.google.common.collect.Maps newTreeMap()");
-    private static final MethodMatcher NEW_TREE_MAP_WITH_COMPARATOR = new MethodMatcher("com.google.common.collect.Maps newTreeMap(java.util.Comparator)");
-    private static final MethodMatcher NEW_TREE_MAP_WITH_MAP = new MethodMatcher("com.google.common.collect.Maps newTreeMap(java.util.SortedMap)");
+    private static final JavaTemplate NEW_TREE_MAP = JavaTemplate.builder("new TreeMap<>()")
+            .contextSensitive()
+            .imports("java.util.TreeMap")
+            .build();
+
+    private static final JavaTemplate NEW_TREE_MAP_WITH_COMPARATOR = JavaTemplate.builder("new TreeMap<>(#{any(java.util.Comparator)})")
+            .contextSensitive()
+            .imports("java.util.TreeMap")
+            .build();
+
+    private static final JavaTemplate NEW_TREE_MAP_WITH_MAP = JavaTemplate.builder("new TreeMap<>(#{any(java.util.Map)})")
+            .contextSensitive()
+            .imports("java.util.TreeMap")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Arrays.asList(
+            GuavaMethodRule.of("com.google.common.collect.Maps newTreeMap()", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Maps");
+                v.maybeAddImport("java.util.TreeMap");
+                return NEW_TREE_MAP.apply(v.getCursor(), method.getCoordinates().replace());
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Maps newTreeMap(java.util.Comparator)", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Maps");
+                v.maybeAddImport("java.util.TreeMap");
+                return NEW_TREE_MAP_WITH_COMPARATOR.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Maps newTreeMap(java.util.SortedMap)", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Maps");
+                v.maybeAddImport("java.util.TreeMap");
+                return NEW_TREE_MAP_WITH_MAP.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -50,39 +78,6 @@ public class NoGuavaMapsNewTreeMap extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(Preconditions.or(
-                new UsesMethod<>(NEW_TREE_MAP),
-                new UsesMethod<>(NEW_TREE_MAP_WITH_COMPARATOR),
-                new UsesMethod<>(NEW_TREE_MAP_WITH_MAP)), new JavaVisitor<ExecutionContext>() {
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_TREE_MAP.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Maps");
-                    maybeAddImport("java.util.TreeMap");
-                    return JavaTemplate.builder("new TreeMap<>()")
-                            .contextSensitive()
-                            .imports("java.util.TreeMap")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace());
-                } else if (NEW_TREE_MAP_WITH_COMPARATOR.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Maps");
-                    maybeAddImport("java.util.TreeMap");
-                    return JavaTemplate.builder("new TreeMap<>(#{any(java.util.Comparator)})")
-                            .contextSensitive()
-                            .imports("java.util.TreeMap")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
-                } else if (NEW_TREE_MAP_WITH_MAP.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Maps");
-                    maybeAddImport("java.util.TreeMap");
-                    return JavaTemplate.builder("new TreeMap<>(#{any(java.util.Map)})")
-                            .contextSensitive()
-                            .imports("java.util.TreeMap")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+public class NoGuavaMethodInvocations extends Recipe {
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(Stream.of(
+                    NoGuavaAtomicsNewReference.RULES,
+                    NoGuavaDirectExecutor.RULES,
+                    NoGuavaListsNewArrayList.RULES,
+                    NoGuavaListsNewCopyOnWriteArrayList.RULES,
+                    NoGuavaListsNewLinkedList.RULES,
+                    NoGuavaMapsNewTreeMap.RULES,
+                    NoGuavaPrimitiveAsList.RULES,
+                    NoGuavaSetsNewConcurrentHashSet.RULES,
+                    NoGuavaSetsNewHashSet.RULES,
+                    NoGuavaSetsNewLinkedHashSet.RULES)
+            .flatMap(List::stream)
+            .collect(toList()));
+
+    @Override
+    public String getDisplayName() {
+        return "Prefer Java standard library factory methods over Guava";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replaces Guava collection, atomic, executor and primitive array factory methods with their Java " +
+               "standard library equivalents. Combines the rewrites of `NoGuavaListsNewArrayList`, " +
+               "`NoGuavaSetsNewHashSet` and similar recipes, so that each source file is visited once.";
+    }
+
+    @Override
+    public Set<String> getTags() {
+        return Collections.singleton("guava");
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
+    }
+}
@@ -19,17 +19,29 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
+import org.openrewrite.java.migrate.JavaTemplateCache;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
 
 public class NoGuavaPrimitiveAsList extends Recipe {
 
-    private static final MethodMatcher METHOD_MATCHER = new MethodMatcher("com.google.common.primitives.* asList(..)");
+    static final List<GuavaMethodRule> RULES = Stream.of("Booleans", "Chars", "Doubles", "Floats", "Longs", "Ints", "Shorts", "Bytes")
+            .map(primitives -> "com.google.common.primitives." + primitives)
+            .map(primitives -> GuavaMethodRule.of(primitives + " asList(..)", (method, v) -> {
+                v.maybeRemoveImport(primitives);
+                v.maybeAddImport("java.util.Arrays");
+
+                String args = String.join(",", Collections.nCopies(method.getArguments().size(), "#{any()}"));
+                return JavaTemplateCache.contextFree("Arrays.asList(" + args + ')', "java.util.Arrays")
+                        .apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().toArray());
+            }))
+            .collect(toList());
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -43,32 +55,6 @@ public class NoGuavaPrimitiveAsList extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(
-                new UsesMethod<>("com.google.common.primitives.* asList(..)"),
-                new JavaIsoVisitor<ExecutionContext>() {
-                    @Override
-                    public J.MethodInvocation visitMethodInvocation(J.MethodInvocation elem, ExecutionContext ctx) {
-                        if (METHOD_MATCHER.matches(elem)) {
-                            maybeRemoveImport("com.google.common.primitives.Booleans");
-                            maybeRemoveImport("com.google.common.primitives.Chars");
-                            maybeRemoveImport("com.google.common.primitives.Doubles");
-                            maybeRemoveImport("com.google.common.primitives.Floats");
-                            maybeRemoveImport("com.google.common.primitives.Longs");
-                            maybeRemoveImport("com.google.common.primitives.Ints");
-                            maybeRemoveImport("com.google.common.primitives.Shorts");
-                            maybeRemoveImport("com.google.common.primitives.Bytes");
-                            maybeAddImport("java.util.Arrays");
-
-                            String args = String.join(",", Collections.nCopies(elem.getArguments().size(), "#{any()}"));
-                            return JavaTemplate
-                                    .builder("Arrays.asList(" + args + ')')
-                                    .imports("java.util.Arrays")
-                                    .build()
-                                    .apply(getCursor(), elem.getCoordinates().replace(), elem.getArguments().toArray());
-                        }
-                        return super.visitMethodInvocation(elem, ctx);
-                    }
-                }
-        );
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
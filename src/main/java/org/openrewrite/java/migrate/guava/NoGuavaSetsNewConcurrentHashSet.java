@@ -20,16 +20,26 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaSetsNewConcurrentHashSet extends Recipe {
-    private static final MethodMatcher NEW_HASH_SET = new MethodMatcher("com.google.common.collect.Sets newConcurrentHashSet()");
+    private static final JavaTemplate NEW_CONCURRENT_HASH_SET = JavaTemplate.builder("Collections.newSetFromMap(new ConcurrentHashMap<>())")
+            .contextSensitive()
+            .imports("java.util.Collections", "java.util.concurrent.ConcurrentHashMap")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Collections.singletonList(
+            GuavaMethodRule.of("com.google.common.collect.Sets newConcurrentHashSet()", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Sets");
+                v.maybeAddImport("java.util.Collections");
+                v.maybeAddImport("java.util.concurrent.ConcurrentHashMap");
+                return NEW_CONCURRENT_HASH_SET.apply(v.getCursor(), method.getCoordinates().replace());
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -48,22 +58,6 @@ public class NoGuavaSetsNewConcurrentHashSet extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(new UsesMethod<>(NEW_HASH_SET), new JavaVisitor<ExecutionContext>() {
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_HASH_SET.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Sets");
-                    maybeAddImport("java.util.Collections");
-                    maybeAddImport("java.util.concurrent.ConcurrentHashMap");
-                    return JavaTemplate.builder("Collections.newSetFromMap(new ConcurrentHashMap<>())")
-                            .contextSensitive()
-                            .imports("java.util.Collections")
-                            .imports("java.util.concurrent.ConcurrentHashMap")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace());
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
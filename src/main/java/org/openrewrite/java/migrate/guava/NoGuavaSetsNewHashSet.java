@@ -20,18 +20,43 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.migrate.JavaTemplateCache;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.TypeUtils;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class NoGuavaSetsNewHashSet extends Recipe {
-    private static final MethodMatcher NEW_HASH_SET = new MethodMatcher("com.google.common.collect.Sets newHashSet(..)");
+    private static final JavaTemplate NEW_HASH_SET = JavaTemplate.builder("new HashSet<>()")
+            .contextSensitive()
+            .imports("java.util.HashSet")
+            .build();
+
+    private static final JavaTemplate NEW_HASH_SET_ITERABLE = JavaTemplate.builder("new HashSet<>(#{any(java.util.Collection)})")
+            .contextSensitive()
+            .imports("java.util.HashSet")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Collections.singletonList(
+            GuavaMethodRule.of("com.google.common.collect.Sets newHashSet(..)", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Sets");
+                v.maybeAddImport("java.util.HashSet");
+                if (method.getArguments().isEmpty() || method.getArguments().get(0) instanceof J.Empty) {
+                    return NEW_HASH_SET.apply(v.getCursor(), method.getCoordinates().replace());
+                } else if (method.getArguments().size() == 1 && TypeUtils.isAssignableTo("java.util.Collection", method.getArguments().get(0).getType())) {
+                    return NEW_HASH_SET_ITERABLE.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+                }
+                v.maybeAddImport("java.util.Arrays");
+                JavaTemplate newHashSetVarargs = JavaTemplateCache.contextSensitive("new HashSet<>(Arrays.asList(" + method.getArguments().stream().map(a -> "#{any()}").collect(Collectors.joining(",")) + "))",
+                        "java.util.Arrays", "java.util.HashSet");
+                return newHashSetVarargs.apply(v.getCursor(), method.getCoordinates().replace(),
+                        method.getArguments().toArray());
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -50,37 +75,6 @@ public class NoGuavaSetsNewHashSet extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(new UsesMethod<>(NEW_HASH_SET), new JavaVisitor<ExecutionContext>() {
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_HASH_SET.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Sets");
-                    maybeAddImport("java.util.HashSet");
-                    if (method.getArguments().isEmpty() || method.getArguments().get(0) instanceof J.Empty) {
-                        return JavaTemplate.builder("new HashSet<>()")
-                                .contextSensitive()
-                                .imports("java.util.HashSet")
-                                .build()
-                                .apply(getCursor(), method.getCoordinates().replace());
-                    } else if (method.getArguments().size() == 1 && TypeUtils.isAssignableTo("java.util.Collection", method.getArguments().get(0).getType())) {
-                        return JavaTemplate.builder("new HashSet<>(#{any(java.util.Collection)})")
-                                .contextSensitive()
-                                .imports("java.util.HashSet")
-                                .build()
-                                .apply(getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
-                    } else {
-                        maybeAddImport("java.util.Arrays");
-                        JavaTemplate newHashSetVarargs = JavaTemplate.builder("new HashSet<>(Arrays.asList(" + method.getArguments().stream().map(a -> "#{any()}").collect(Collectors.joining(",")) + "))")
-                                .contextSensitive()
-                                .imports("java.util.Arrays")
-                                .imports("java.util.HashSet")
-                                .build();
-                        return newHashSetVarargs.apply(getCursor(), method.getCoordinates().replace(),
-                                method.getArguments().toArray());
-                    }
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
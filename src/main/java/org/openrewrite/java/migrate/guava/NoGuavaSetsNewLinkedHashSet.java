@@ -20,19 +20,51 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.JavaVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class NoGuavaSetsNewLinkedHashSet extends Recipe {
-    private static final MethodMatcher NEW_LINKED_HASH_SET = new MethodMatcher("com.google.common.collect.Sets newLinkedHashSet()");
-    private static final MethodMatcher NEW_LINKED_HASH_SET_ITERABLE = new MethodMatcher("com.google.common.collect.Sets newLinkedHashSet(java.lang.Iterable)");
-    private static final MethodMatcher NEW_LINKED_HASH_SET_CAPACITY = new MethodMatcher("com.google.common.collect.Sets newLinkedHashSetWithExpectedSize(int)");
+    private static final JavaTemplate NEW_LINKED_HASH_SET = JavaTemplate.builder("new LinkedHashSet<>()")
+            .contextSensitive()
+            .imports("java.util.LinkedHashSet")
+            .build();
+
+    private static final JavaTemplate NEW_LINKED_HASH_SET_ITERABLE = JavaTemplate.builder("new LinkedHashSet<>(#{any(java.util.Collection)})")
+            .contextSensitive()
+            .imports("java.util.LinkedHashSet")
+            .build();
+
+    private static final JavaTemplate NEW_LINKED_HASH_SET_CAPACITY = JavaTemplate.builder("new LinkedHashSet<>(#{any(int)})")
+            .contextSensitive()
+            .imports("java.util.LinkedHashSet")
+            .build();
+
+    static final List<GuavaMethodRule> RULES = Arrays.asList(
+            GuavaMethodRule.of("com.google.common.collect.Sets newLinkedHashSet()", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Sets");
+                v.maybeAddImport("java.util.LinkedHashSet");
+                return NEW_LINKED_HASH_SET.apply(v.getCursor(), method.getCoordinates().replace());
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Sets newLinkedHashSet(java.lang.Iterable)", (method, v) -> {
+                if (method.getArguments().size() != 1 ||
+                    !TypeUtils.isAssignableTo("java.util.Collection", method.getArguments().get(0).getType())) {
+                    return null;
+                }
+                v.maybeRemoveImport("com.google.common.collect.Sets");
+                v.maybeAddImport("java.util.LinkedHashSet");
+                return NEW_LINKED_HASH_SET_ITERABLE.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }),
+            GuavaMethodRule.of("com.google.common.collect.Sets newLinkedHashSetWithExpectedSize(int)", (method, v) -> {
+                v.maybeRemoveImport("com.google.common.collect.Sets");
+                v.maybeAddImport("java.util.LinkedHashSet");
+                return NEW_LINKED_HASH_SET_CAPACITY.apply(v.getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
+            }));
+
+    private static final GuavaMethodDispatch DISPATCH = new GuavaMethodDispatch(RULES);
 
     @Override
     public String getDisplayName() {
@@ -51,41 +83,6 @@ public class NoGuavaSetsNewLinkedHashSet extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(Preconditions.or(
-                new UsesMethod<>(NEW_LINKED_HASH_SET),
-                new UsesMethod<>(NEW_LINKED_HASH_SET_ITERABLE),
-                new UsesMethod<>(NEW_LINKED_HASH_SET_CAPACITY)), new JavaVisitor<ExecutionContext>() {
-
-            @Override
-            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                if (NEW_LINKED_HASH_SET.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Sets");
-                    maybeAddImport("java.util.LinkedHashSet");
-                    return JavaTemplate.builder("new LinkedHashSet<>()")
-                            .contextSensitive()
-                            .imports("java.util.LinkedHashSet")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace());
-                } else if (NEW_LINKED_HASH_SET_ITERABLE.matches(method) && method.getArguments().size() == 1 &&
-                           TypeUtils.isAssignableTo("java.util.Collection", method.getArguments().get(0).getType())) {
-                    maybeRemoveImport("com.google.common.collect.Sets");
-                    maybeAddImport("java.util.LinkedHashSet");
-                    return JavaTemplate.builder("new LinkedHashSet<>(#{any(java.util.Collection)})")
-                            .contextSensitive()
-                            .imports("java.util.LinkedHashSet")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
-                } else if (NEW_LINKED_HASH_SET_CAPACITY.matches(method)) {
-                    maybeRemoveImport("com.google.common.collect.Sets");
-                    maybeAddImport("java.util.LinkedHashSet");
-                    return JavaTemplate.builder("new LinkedHashSet<>(#{any(int)})")
-                            .contextSensitive()
-                            .imports("java.util.LinkedHashSet")
-                            .build()
-                            .apply(getCursor(), method.getCoordinates().replace(), method.getArguments().get(0));
-                }
-                return super.visitMethodInvocation(method, ctx);
-            }
-        });
+        return Preconditions.check(DISPATCH.precondition(), DISPATCH.visitor());
     }
 }
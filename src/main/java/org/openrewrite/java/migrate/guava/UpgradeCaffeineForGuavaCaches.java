@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.java.dependencies.UpgradeDependencyVersion;
+import org.openrewrite.java.tree.JavaSourceFile;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Upgrades Caffeine to 3.x, which requires Java 11, but only in repositories where {@link NoGuavaCacheBuilder}
+ * migrates a Guava cache, so that projects which already chose a Caffeine version and have no Guava caches keep it.
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class UpgradeCaffeineForGuavaCaches extends ScanningRecipe<UpgradeCaffeineForGuavaCaches.Accumulator> {
+    transient Recipe migration = new NoGuavaCacheBuilder();
+
+    transient UpgradeDependencyVersion upgrade = new UpgradeDependencyVersion(
+            "com.github.ben-manes.caffeine", "caffeine", "3.x", null, null, null);
+
+    @Override
+    public String getDisplayName() {
+        return "Upgrade Caffeine to 3.x for migrated Guava caches";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Upgrade the Caffeine dependency to 3.x, which requires Java 11, when `NoGuavaCacheBuilder` migrates a " +
+               "Guava cache of the repository to Caffeine. Repositories without Guava caches keep their Caffeine version.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator(upgrade.getInitialValue(ctx));
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        TreeVisitor<?, ExecutionContext> upgradeScanner = upgrade.getScanner(acc.upgrade);
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof JavaSourceFile && !acc.migratingCaches.get()) {
+                    // scanned before any recipe of the run edits the file, so this is the migration the run will make
+                    TreeVisitor<?, ExecutionContext> migrationVisitor = migration.getVisitor();
+                    if (migrationVisitor.isAcceptable((SourceFile) tree, ctx) && migrationVisitor.visit(tree, ctx) != tree) {
+                        acc.migratingCaches.set(true);
+                    }
+                }
+                if (tree instanceof SourceFile && upgradeScanner.isAcceptable((SourceFile) tree, ctx)) {
+                    upgradeScanner.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return acc.migratingCaches.get() ? upgrade.getVisitor(acc.upgrade) : TreeVisitor.noop();
+    }
+
+    public static class Accumulator {
+        private final UpgradeDependencyVersion.Accumulator upgrade;
+        private final AtomicBoolean migratingCaches = new AtomicBoolean();
+
+        Accumulator(UpgradeDependencyVersion.Accumulator upgrade) {
+            this.upgrade = upgrade;
+        }
+    }
+}
@@ -24,9 +24,10 @@ import org.openrewrite.gradle.marker.GradleProject;
 import org.openrewrite.gradle.search.FindGradleProject;
 import org.openrewrite.groovy.GroovyIsoVisitor;
 import org.openrewrite.groovy.tree.G;
-import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.marker.JavaProject;
 import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.maven.MavenIsoVisitor;
 import org.openrewrite.maven.tree.MavenResolutionResult;
 import org.openrewrite.maven.tree.Scope;
@@ -37,11 +38,14 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class AddJaxbRuntime extends ScanningRecipe<AtomicBoolean> {
+public class AddJaxbRuntime extends ScanningRecipe<AddJaxbRuntime.Accumulator> {
+    private static final String JAXB_PACKAGE = "javax.xml.bind";
+
     private static final String JACKSON_GROUP = "com.fasterxml.jackson.module";
     private static final String JACKSON_JAXB_ARTIFACT = "jackson-module-jaxb-annotations";
 
@@ -85,32 +89,64 @@ public class AddJaxbRuntime extends ScanningRecipe<AtomicBoolean> {
     }
 
     @Override
-    public AtomicBoolean getInitialValue(ExecutionContext ctx) {
-        return new AtomicBoolean(false);
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getScanner(AtomicBoolean acc) {
-        return new JavaIsoVisitor<ExecutionContext>() {
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
             @Override
-            public @Nullable J visit(@Nullable Tree tree, ExecutionContext ctx) {
-                if (acc.get()) {
-                    return (J) tree;
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!(tree instanceof JavaSourceFile)) {
+                    return tree;
                 }
-                J t = new UsesType<ExecutionContext>("javax.xml.bind..*", true).visit(tree, ctx);
-                if (t != tree) {
-                    acc.set(true);
+                JavaSourceFile cu = (JavaSourceFile) tree;
+                JavaProject project = cu.getMarkers().findFirst(JavaProject.class).orElse(null);
+                if (!acc.usesJaxb(project) && usesJaxb(cu)) {
+                    acc.record(project);
                 }
-                return (J) tree;
+                return tree;
             }
         };
     }
 
+    /**
+     * Answers from the imports and the type table, without traversing the source file.
+     */
+    private static boolean usesJaxb(JavaSourceFile cu) {
+        for (J.Import anImport : cu.getImports()) {
+            if (isJaxbPackage(anImport.getPackageName())) {
+                return true;
+            }
+        }
+        for (JavaType type : cu.getTypesInUse().getTypesInUse()) {
+            if (type instanceof JavaType.FullyQualified && isJaxbPackage(((JavaType.FullyQualified) type).getPackageName())) {
+                return true;
+            }
+        }
+        for (JavaType.Method method : cu.getTypesInUse().getUsedMethods()) {
+            if (isJaxbPackage(method.getDeclaringType().getPackageName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJaxbPackage(String packageName) {
+        return packageName.startsWith(JAXB_PACKAGE) &&
+               (packageName.length() == JAXB_PACKAGE.length() || packageName.charAt(JAXB_PACKAGE.length()) == '.');
+    }
+
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor(AtomicBoolean acc) {
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
         return new TreeVisitor<Tree, ExecutionContext>() {
             @Override
             public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree == null || !acc.usesJaxb(tree.getMarkers().findFirst(JavaProject.class).orElse(null))) {
+                    // Nothing in this module uses JAXB, so its build file is left alone
+                    return tree;
+                }
                 Tree t = gradleVisitor.visit(tree, ctx);
                 return mavenVisitor.visit(t, ctx);
             }
@@ -136,10 +172,6 @@ public class AddJaxbRuntime extends ScanningRecipe<AtomicBoolean> {
                                 GLASSFISH_JAXB_RUNTIME_GROUP, GLASSFISH_JAXB_RUNTIME_ARTIFACT, "2.3.x", null, null
                         ).getVisitor().visitNonNull(g, ctx);
                     }
-                    if(!acc.get()) {
-                        return g;
-                    }
-
                     Optional<GradleProject> maybeGp = g.getMarkers().findFirst(GradleProject.class);
                     if (!maybeGp.isPresent()) {
                         return g;
@@ -185,9 +217,6 @@ public class AddJaxbRuntime extends ScanningRecipe<AtomicBoolean> {
 
                 @SuppressWarnings("ConstantConditions")
                 private Xml.Document maybeAddRuntimeDependency(Xml.Document d, ExecutionContext ctx) {
-                    if(!acc.get()) {
-                        return d;
-                    }
                     MavenResolutionResult mavenModel = getResolutionResult();
                     if (!mavenModel.findDependencies(JACKSON_GROUP, JACKSON_JAXB_ARTIFACT, Scope.Runtime).isEmpty()
                         || mavenModel.findDependencies(JAKARTA_API_GROUP, JAKARTA_API_ARTIFACT, Scope.Runtime).isEmpty()) {
@@ -228,4 +257,32 @@ public class AddJaxbRuntime extends ScanningRecipe<AtomicBoolean> {
         ).getVisitor().visitNonNull(d, ctx);
         return d;
     }
+
+    /**
+     * Records which modules use JAXB, so build files are only updated for those modules.
+     */
+    public static class Accumulator {
+        private final Set<JavaProject> projectsUsingJaxb = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Set when JAXB is used by a source file that is not associated with any module, in which case every
+         * build file is a candidate, as before modules were tracked.
+         */
+        private final AtomicBoolean unattributedUse = new AtomicBoolean();
+
+        public void record(@Nullable JavaProject project) {
+            if (project == null) {
+                unattributedUse.set(true);
+            } else {
+                projectsUsingJaxb.add(project);
+            }
+        }
+
+        public boolean usesJaxb(@Nullable JavaProject project) {
+            if (unattributedUse.get()) {
+                return true;
+            }
+            return project == null ? !projectsUsingJaxb.isEmpty() : projectsUsingJaxb.contains(project);
+        }
+    }
 }
@@ -24,8 +24,8 @@ import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AddScopeToInjectedClass extends ScanningRecipe<Set<String>> {
     private static final String JAVAX_INJECT_INJECT = "javax.inject.Inject";
@@ -43,7 +43,7 @@ public class AddScopeToInjectedClass extends ScanningRecipe<Set<String>> {
 
     @Override
     public Set<String> getInitialValue(ExecutionContext ctx) {
-        return new HashSet<>();
+        return ConcurrentHashMap.newKeySet();
     }
 
     @Override
@@ -81,14 +81,14 @@ public class AddScopeToInjectedClass extends ScanningRecipe<Set<String>> {
         return new JavaIsoVisitor<ExecutionContext>() {
             @Override
             public J.CompilationUnit visitCompilationUnit(J.CompilationUnit compilationUnit, ExecutionContext ctx) {
-                J.CompilationUnit cu = super.visitCompilationUnit(compilationUnit, ctx);
-                for (J.ClassDeclaration aClass : cu.getClasses()) {
+                for (J.ClassDeclaration aClass : compilationUnit.getClasses()) {
                     if (aClass.getType() != null && injectedTypes.contains(aClass.getType().getFullyQualifiedName())) {
+                        // Annotating is the only change, so the compilation unit is traversed once, by this visitor
                         return (J.CompilationUnit) new AnnotateTypesVisitor(JAVAX_ENTERPRISE_CONTEXT_DEPENDENT)
-                                .visit(cu, injectedTypes, getCursor().getParent());
+                                .visitNonNull(compilationUnit, injectedTypes, getCursor().getParentOrThrow());
                     }
                 }
-                return cu;
+                return compilationUnit;
             }
         };
     }
@@ -20,6 +20,7 @@ import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.TypeUtils;
 
 import java.util.Comparator;
@@ -46,7 +47,8 @@ public class AnnotateTypesVisitor extends JavaIsoVisitor<Set<String>> {
     @Override
     public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Set<String> injectedTypes) {
         J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, injectedTypes);
-        if (injectedTypes.contains(TypeUtils.asFullyQualified(cd.getType()).getFullyQualifiedName())
+        JavaType.FullyQualified type = TypeUtils.asFullyQualified(cd.getType());
+        if (type != null && injectedTypes.contains(type.getFullyQualifiedName())
             && cd.getLeadingAnnotations().stream().noneMatch(annotationMatcher::matches)) {
             maybeAddImport(annotationToBeAdded);
             return template.apply(getCursor(), cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
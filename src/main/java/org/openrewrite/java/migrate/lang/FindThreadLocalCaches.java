@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.lang;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.migrate.table.ThreadLocalCaches;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.SearchResult;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class FindThreadLocalCaches extends Recipe {
+    transient ThreadLocalCaches caches = new ThreadLocalCaches(this);
+
+    @Override
+    public String getDisplayName() {
+        return "Find objects cached per thread in `ThreadLocal`";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Find `ThreadLocal.withInitial(..)` calls and `ThreadLocal` subclasses, and list the type of object they " +
+               "cache. Caching objects per thread pays off with a small pool of long lived platform threads, but with " +
+               "virtual threads every task gets a new thread, so the cache never hits and holds one object per live thread.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>("java.lang.ThreadLocal", true), new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration c = super.visitClassDeclaration(classDecl, ctx);
+                if (c.getExtends() != null && TypeUtils.isAssignableTo("java.lang.ThreadLocal", c.getExtends().getType())) {
+                    JavaType cachedType = ThreadLocalCache.cachedType(c.getExtends().getType());
+                    report(c.getSimpleName(), cachedType, ctx);
+                    return c.withExtends(SearchResult.found(c.getExtends(), message(cachedType)));
+                }
+                return c;
+            }
+
+            @Override
+            public J.NewClass visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
+                J.NewClass n = super.visitNewClass(newClass, ctx);
+                if (n.getBody() != null && n.getClazz() != null && TypeUtils.isAssignableTo("java.lang.ThreadLocal", n.getClazz().getType())) {
+                    JavaType cachedType = ThreadLocalCache.cachedType(n.getClazz().getType());
+                    report(declaration(), cachedType, ctx);
+                    return SearchResult.found(n, message(cachedType));
+                }
+                return n;
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
+                if (ThreadLocalCache.WITH_INITIAL.matches(method)) {
+                    JavaType cachedType = ThreadLocalCache.cachedType(method.getType());
+                    report(declaration(), cachedType, ctx);
+                    return SearchResult.found(m, message(cachedType));
+                }
+                return m;
+            }
+
+            private String declaration() {
+                J.VariableDeclarations.NamedVariable variable = getCursor().firstEnclosing(J.VariableDeclarations.NamedVariable.class);
+                return variable == null ? "" : variable.getSimpleName();
+            }
+
+            private String message(@Nullable JavaType cachedType) {
+                return "Caches " + ThreadLocalCache.name(cachedType) + " per thread";
+            }
+
+            private void report(String declaration, @Nullable JavaType cachedType, ExecutionContext ctx) {
+                caches.insertRow(ctx, new ThreadLocalCaches.Row(
+                        getCursor().firstEnclosingOrThrow(JavaSourceFile.class).getSourcePath().toString(),
+                        declaration,
+                        ThreadLocalCache.name(cachedType),
+                        ThreadLocalCache.alternative(cachedType)));
+            }
+        });
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.lang;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.JavaTemplateCache;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+import static org.openrewrite.Tree.randomId;
+
+public class ReplaceThreadLocalCaches extends Recipe {
+    private static final String SIMPLE_DATE_FORMAT = "java.text.SimpleDateFormat";
+    private static final String DATE_TIME_FORMATTER = "java.time.format.DateTimeFormatter";
+    private static final String OBJECT_MAPPER = "com.fasterxml.jackson.databind.ObjectMapper";
+
+    private static final MethodMatcher DATE_FORMAT_FORMAT = new MethodMatcher("java.text.DateFormat format(java.util.Date)");
+    private static final MethodMatcherIndex<String> OBJECT_MAPPER_THREAD_SAFE = MethodMatcherIndex.of(false,
+            OBJECT_MAPPER + " read*(..)",
+            OBJECT_MAPPER + " write*(..)",
+            OBJECT_MAPPER + " convertValue(..)",
+            OBJECT_MAPPER + " treeToValue(..)",
+            OBJECT_MAPPER + " valueToTree(..)");
+
+    /**
+     * The pattern letters that format the same with {@code SimpleDateFormat} and {@code DateTimeFormatter}, with
+     * the longest run of each that {@code DateTimeFormatter} accepts.
+     */
+    private static final Map<Character, Integer> PORTABLE_PATTERN_LETTERS = new HashMap<>();
+
+    static {
+        PORTABLE_PATTERN_LETTERS.put('y', 4);
+        PORTABLE_PATTERN_LETTERS.put('M', 4);
+        PORTABLE_PATTERN_LETTERS.put('E', 4);
+        PORTABLE_PATTERN_LETTERS.put('d', 2);
+        PORTABLE_PATTERN_LETTERS.put('H', 2);
+        PORTABLE_PATTERN_LETTERS.put('h', 2);
+        PORTABLE_PATTERN_LETTERS.put('m', 2);
+        PORTABLE_PATTERN_LETTERS.put('s', 2);
+        PORTABLE_PATTERN_LETTERS.put('a', 1);
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Replace `ThreadLocal` caches of `SimpleDateFormat` and `ObjectMapper` with shared instances";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replace private `ThreadLocal` fields that cache an object which has a thread-safe alternative with a " +
+               "single shared instance. A `SimpleDateFormat` that is only used to format dates becomes a " +
+               "`DateTimeFormatter` in the default time zone, and an `ObjectMapper` that is only used to read and write " +
+               "values is shared as is. With virtual threads such caches never hit, as each task runs on a new thread.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesMethod<>(ThreadLocalCache.WITH_INITIAL), new JavaVisitor<ExecutionContext>() {
+            private Map<String, J.NewClass> replaced = new HashMap<>();
+
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                replaced = replaceable(cu);
+                return replaced.isEmpty() ? cu : super.visitCompilationUnit(cu, ctx);
+            }
+
+            @Override
+            public J visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                J.VariableDeclarations vd = (J.VariableDeclarations) super.visitVariableDeclarations(multiVariable, ctx);
+                J.VariableDeclarations.NamedVariable variable = vd.getVariables().get(0);
+                J.NewClass cached = replaced.get(key(variable.getVariableType()));
+                if (cached == null || variable.getInitializer() == null || vd.getTypeExpression() == null) {
+                    return vd;
+                }
+
+                Expression initializer;
+                JavaType.FullyQualified type;
+                if (TypeUtils.isOfClassType(cached.getType(), SIMPLE_DATE_FORMAT)) {
+                    boolean withLocale = cached.getArguments().size() == 2;
+                    initializer = JavaTemplateCache.contextFree("DateTimeFormatter.ofPattern(#{any(String)}" +
+                                                                (withLocale ? ", #{any(java.util.Locale)}" : "") +
+                                                                ").withZone(ZoneId.systemDefault())",
+                                    DATE_TIME_FORMATTER, "java.time.ZoneId")
+                            .apply(new Cursor(new Cursor(getCursor(), variable), variable.getInitializer()),
+                                    variable.getInitializer().getCoordinates().replace(), cached.getArguments().toArray());
+                    type = JavaType.ShallowClass.build(DATE_TIME_FORMATTER);
+                    maybeAddImport(DATE_TIME_FORMATTER);
+                    maybeAddImport("java.time.ZoneId");
+                    maybeRemoveImport(SIMPLE_DATE_FORMAT);
+                } else {
+                    initializer = cached.withPrefix(variable.getInitializer().getPrefix());
+                    type = TypeUtils.asFullyQualified(cached.getType());
+                    if (type == null) {
+                        return vd;
+                    }
+                }
+
+                JavaType.FullyQualified newType = type;
+                Expression newInitializer = initializer;
+                return vd
+                        .withTypeExpression(new J.Identifier(randomId(), vd.getTypeExpression().getPrefix(), Markers.EMPTY,
+                                emptyList(), newType.getClassName(), newType, null))
+                        .withVariables(ListUtils.map(vd.getVariables(), v -> {
+                            JavaType.Variable variableType = v.getVariableType() == null ? null : v.getVariableType().withType(newType);
+                            return v.withInitializer(newInitializer)
+                                    .withName(v.getName().withType(newType).withFieldType(variableType))
+                                    .withVariableType(variableType);
+                        }));
+            }
+
+            @Override
+            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J j = super.visitMethodInvocation(method, ctx);
+                if (ThreadLocalCache.GET.matches(method) && method.getSelect() instanceof J.Identifier) {
+                    J.NewClass cached = replaced.get(key(((J.Identifier) method.getSelect()).getFieldType()));
+                    if (cached != null && TypeUtils.isOfClassType(cached.getType(), OBJECT_MAPPER)) {
+                        return retype((J.Identifier) method.getSelect(), cached.getType()).withPrefix(method.getPrefix());
+                    }
+                } else if (DATE_FORMAT_FORMAT.matches(method) && method.getSelect() instanceof J.MethodInvocation &&
+                           ((J.MethodInvocation) method.getSelect()).getSelect() instanceof J.Identifier &&
+                           j instanceof J.MethodInvocation) {
+                    J.Identifier threadLocal = (J.Identifier) ((J.MethodInvocation) method.getSelect()).getSelect();
+                    if (replaced.containsKey(key(threadLocal.getFieldType()))) {
+                        return JavaTemplateCache.contextFree("#{any(java.time.format.DateTimeFormatter)}.format(#{any(java.util.Date)}.toInstant())")
+                                .apply(getCursor(), method.getCoordinates().replace(),
+                                        retype(threadLocal, JavaType.ShallowClass.build(DATE_TIME_FORMATTER)),
+                                        ((J.MethodInvocation) j).getArguments().get(0));
+                    }
+                }
+                return j;
+            }
+
+            private J.Identifier retype(J.Identifier identifier, @Nullable JavaType type) {
+                JavaType.Variable fieldType = identifier.getFieldType();
+                return identifier.withType(type).withFieldType(fieldType == null ? null : fieldType.withType(type));
+            }
+        });
+    }
+
+    /**
+     * Find the private {@code ThreadLocal} fields of a compilation unit that can be replaced by a shared instance,
+     * which are the ones whose value is only ever used through {@code get()} with a thread-safe method.
+     *
+     * @return the object constructed by the thread local's initial value supplier, by field
+     */
+    private static Map<String, J.NewClass> replaceable(J.CompilationUnit cu) {
+        Map<String, J.NewClass> candidates = new HashMap<>();
+        Set<String> usedOtherwise = new HashSet<>();
+        new JavaIsoVisitor<Integer>() {
+            @Override
+            public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, Integer p) {
+                J.NewClass cached = replaceableInitialValue(multiVariable);
+                if (cached != null) {
+                    candidates.put(key(multiVariable.getVariables().get(0).getVariableType()), cached);
+                }
+                return super.visitVariableDeclarations(multiVariable, p);
+            }
+
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, Integer p) {
+                String key = key(identifier.getFieldType());
+                if (key != null && !(getCursor().getParentTreeCursor().getValue() instanceof J.VariableDeclarations.NamedVariable) &&
+                    !isThreadSafeUse(identifier)) {
+                    usedOtherwise.add(key);
+                }
+                return identifier;
+            }
+
+            private boolean isThreadSafeUse(J.Identifier identifier) {
+                Cursor get = getCursor().getParentTreeCursor();
+                if (!(get.getValue() instanceof J.MethodInvocation) || ((J.MethodInvocation) get.getValue()).getSelect() != identifier ||
+                    !ThreadLocalCache.GET.matches((J.MethodInvocation) get.getValue())) {
+                    return false;
+                }
+                Object use = get.getParentTreeCursor().getValue();
+                return use instanceof J.MethodInvocation && ((J.MethodInvocation) use).getSelect() == get.getValue() &&
+                       (isFormatOfDate((J.MethodInvocation) use) || OBJECT_MAPPER_THREAD_SAFE.matches((J.MethodInvocation) use));
+            }
+
+            private boolean isFormatOfDate(J.MethodInvocation method) {
+                // `toInstant()` throws for the `java.sql.Date` and `java.sql.Time` subclasses
+                return DATE_FORMAT_FORMAT.matches(method) &&
+                       TypeUtils.isOfClassType(method.getArguments().get(0).getType(), "java.util.Date");
+            }
+        }.visit(cu, 0);
+        candidates.keySet().removeAll(usedOtherwise);
+        return candidates;
+    }
+
+    private static J.@Nullable NewClass replaceableInitialValue(J.VariableDeclarations vd) {
+        if (vd.getVariables().size() != 1 || !vd.hasModifier(J.Modifier.Type.Private) || !vd.hasModifier(J.Modifier.Type.Final)) {
+            return null;
+        }
+        Expression initializer = vd.getVariables().get(0).getInitializer();
+        if (!(initializer instanceof J.MethodInvocation) || !ThreadLocalCache.WITH_INITIAL.matches(initializer)) {
+            return null;
+        }
+        J.NewClass cached = ThreadLocalCache.constructed(((J.MethodInvocation) initializer).getArguments().get(0));
+        if (cached == null) {
+            return null;
+        }
+        if (TypeUtils.isOfClassType(cached.getType(), OBJECT_MAPPER)) {
+            return cached.getArguments().stream().allMatch(J.Empty.class::isInstance) ? cached : null;
+        }
+        if (TypeUtils.isOfClassType(cached.getType(), SIMPLE_DATE_FORMAT) && !cached.getArguments().isEmpty() &&
+            cached.getArguments().get(0) instanceof J.Literal && ((J.Literal) cached.getArguments().get(0)).getValue() instanceof String &&
+            isPortablePattern((String) ((J.Literal) cached.getArguments().get(0)).getValue()) &&
+            (cached.getArguments().size() == 1 ||
+             cached.getArguments().size() == 2 && TypeUtils.isOfClassType(cached.getArguments().get(1).getType(), "java.util.Locale"))) {
+            return cached;
+        }
+        return null;
+    }
+
+    /**
+     * Quoted text is not portable, and neither are the characters {@code DateTimeFormatter} reserves for optional
+     * sections and future use, which {@code SimpleDateFormat} prints as is.
+     */
+    private static boolean isPortablePattern(String pattern) {
+        for (int i = 0; i < pattern.length(); ) {
+            char c = pattern.charAt(i);
+            int run = 1;
+            while (i + run < pattern.length() && pattern.charAt(i + run) == c) {
+                run++;
+            }
+            if (c == '\'' || c == '[' || c == ']' || c == '{' || c == '}' || c == '#' ||
+                Character.isLetter(c) && !(c == 'S' && run == 3) && run > PORTABLE_PATTERN_LETTERS.getOrDefault(c, 0)) {
+                return false;
+            }
+            i += run;
+        }
+        return true;
+    }
+
+    private static @Nullable String key(JavaType.@Nullable Variable variable) {
+        JavaType.FullyQualified owner = variable == null ? null : TypeUtils.asFullyQualified(variable.getOwner());
+        return owner == null ? null : owner.getFullyQualifiedName() + "#" + variable.getName();
+    }
+}
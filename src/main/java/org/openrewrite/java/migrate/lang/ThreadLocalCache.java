@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.lang;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class ThreadLocalCache {
+    static final MethodMatcher WITH_INITIAL = new MethodMatcher("java.lang.ThreadLocal withInitial(..)");
+    static final MethodMatcher GET = new MethodMatcher("java.lang.ThreadLocal get()");
+
+    private static final Map<String, String> ALTERNATIVES = new HashMap<>();
+
+    static {
+        ALTERNATIVES.put("java.text.SimpleDateFormat", "A shared java.time.format.DateTimeFormatter");
+        ALTERNATIVES.put("java.text.DateFormat", "A shared java.time.format.DateTimeFormatter");
+        ALTERNATIVES.put("java.text.DecimalFormat", "A DecimalFormat created per use, or String.format");
+        ALTERNATIVES.put("java.text.NumberFormat", "A NumberFormat created per use, or String.format");
+        ALTERNATIVES.put("java.security.MessageDigest", "A MessageDigest created per use");
+        ALTERNATIVES.put("java.lang.StringBuilder", "A StringBuilder created per use");
+        ALTERNATIVES.put("java.util.Random", "java.util.concurrent.ThreadLocalRandom.current()");
+        ALTERNATIVES.put("com.fasterxml.jackson.databind.ObjectMapper", "A shared ObjectMapper, ObjectReader or ObjectWriter");
+    }
+
+    private ThreadLocalCache() {
+    }
+
+    /**
+     * @param type the type of a {@code ThreadLocal} or one of its subclasses
+     * @return the type of value held by the thread local, if known
+     */
+    static @Nullable JavaType cachedType(@Nullable JavaType type) {
+        JavaType.FullyQualified fq = TypeUtils.asFullyQualified(type);
+        while (fq != null) {
+            if (fq instanceof JavaType.Parameterized && TypeUtils.isOfClassType(fq, "java.lang.ThreadLocal")) {
+                List<JavaType> typeParameters = fq.getTypeParameters();
+                return typeParameters.isEmpty() ? null : typeParameters.get(0);
+            }
+            fq = fq.getSupertype();
+        }
+        return null;
+    }
+
+    static String name(@Nullable JavaType type) {
+        if (type instanceof JavaType.FullyQualified) {
+            return ((JavaType.FullyQualified) type).getFullyQualifiedName();
+        }
+        return type == null ? "unknown" : type.toString();
+    }
+
+    static String alternative(@Nullable JavaType type) {
+        return type instanceof JavaType.FullyQualified ?
+                ALTERNATIVES.getOrDefault(((JavaType.FullyQualified) type).getFullyQualifiedName(), "") : "";
+    }
+
+    /**
+     * @param supplier the argument of {@code ThreadLocal.withInitial(..)}
+     * @return the object constructed by a supplier that is a constructor call, such as {@code () -> new Foo(..)}
+     */
+    static J.@Nullable NewClass constructed(Expression supplier) {
+        if (!(supplier instanceof J.Lambda) || !((J.Lambda) supplier).getParameters().getParameters().stream().allMatch(J.Empty.class::isInstance)) {
+            return null;
+        }
+        J body = ((J.Lambda) supplier).getBody();
+        if (body instanceof J.Block && ((J.Block) body).getStatements().size() == 1 &&
+            ((J.Block) body).getStatements().get(0) instanceof J.Return) {
+            body = ((J.Return) ((J.Block) body).getStatements().get(0)).getExpression();
+        }
+        return body instanceof J.NewClass && ((J.NewClass) body).getBody() == null ? (J.NewClass) body : null;
+    }
+}
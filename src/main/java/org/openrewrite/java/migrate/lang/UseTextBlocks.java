@@ -31,14 +31,12 @@ import org.openrewrite.java.tree.TypeUtils;
 import org.openrewrite.marker.Markers;
 import org.openrewrite.staticanalysis.kotlin.KotlinFileChecker;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.openrewrite.Tree.randomId;
 
@@ -83,6 +81,14 @@ public class UseTextBlocks extends Recipe {
                 new HasJavaVersion("17", true).getVisitor()
         );
         return Preconditions.check(preconditions, new JavaVisitor<ExecutionContext>() {
+            private @Nullable TabsAndIndentsStyle tabsAndIndentsStyle;
+
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                tabsAndIndentsStyle = tabsAndIndents(cu);
+                return super.visitCompilationUnit(cu, ctx);
+            }
+
             @Override
             public J visitBinary(J.Binary binary, ExecutionContext ctx) {
                 List<J.Literal> stringLiterals = new ArrayList<>();
@@ -90,124 +96,72 @@ public class UseTextBlocks extends Recipe {
                 StringBuilder contentSb = new StringBuilder();
                 StringBuilder concatenationSb = new StringBuilder();
 
-                boolean allLiterals = allLiterals(binary);
-                if (!allLiterals) {
-                    return binary; // Not super.visitBinary(binary, ctx) because we don't want to visit the children
-                }
-
+                // Every operand of a chain that is not converted as a whole is a sub-chain of the same literals, that
+                // would fail the same checks, so none of the return paths below visit the children.
                 boolean flattenable = flatAdditiveStringLiterals(binary, stringLiterals, contentSb, concatenationSb);
                 if (!flattenable) {
-                    return super.visitBinary(binary, ctx);
+                    return binary;
                 }
 
                 boolean hasNewLineInConcatenation = containsNewLineInContent(concatenationSb.toString());
                 if (!hasNewLineInConcatenation) {
-                    return super.visitBinary(binary, ctx);
+                    return binary;
                 }
 
                 String content = contentSb.toString();
 
                 if (!convertStringsWithoutNewlines && !containsNewLineInContent(content)) {
-                    return super.visitBinary(binary, ctx);
+                    return binary;
                 }
 
                 return toTextBlock(binary, content, stringLiterals, concatenationSb.toString());
             }
 
-
             private J.Literal toTextBlock(J.Binary binary, String content, List<J.Literal> stringLiterals, String concatenation) {
-                final String passPhrase;
-                try {
-                    passPhrase = generatePassword(content);
-                } catch (NoSuchAlgorithmException e) {
-                    throw new RuntimeException(e);
+                if (tabsAndIndentsStyle == null) {
+                    tabsAndIndentsStyle = tabsAndIndents(getCursor().firstEnclosingOrThrow(SourceFile.class));
                 }
-
-                StringBuilder sb = new StringBuilder();
-                StringBuilder originalContent = new StringBuilder();
-                stringLiterals = stringLiterals.stream().filter(s -> !s.getValue().toString().isEmpty()).collect(Collectors.toList());
-                for (int i = 0; i < stringLiterals.size(); i++) {
-                    String s = stringLiterals.get(i).getValue().toString();
-                    sb.append(s);
-                    originalContent.append(s);
-                    if (i != stringLiterals.size() - 1) {
-                        String nextLine = stringLiterals.get(i + 1).getValue().toString();
-                        char nextChar = nextLine.charAt(0);
-                        if (!s.endsWith("\n") && nextChar != '\n') {
-                            sb.append(passPhrase);
-                        }
-                    }
-                }
-
-                content = sb.toString();
-
-                TabsAndIndentsStyle tabsAndIndentsStyle = Optional.ofNullable(getCursor().firstEnclosingOrThrow(SourceFile.class)
-                        .getStyle(TabsAndIndentsStyle.class)).orElse(IntelliJ.tabsAndIndents());
-                boolean useTab = tabsAndIndentsStyle.getUseTabCharacter();
-                int tabSize = tabsAndIndentsStyle.getTabSize();
-
-                String indentation = getIndents(concatenation, useTab, tabSize);
-
-                boolean isEndsWithNewLine = content.endsWith("\n");
-
-                // references:
-                //  - https://docs.oracle.com/en/java/javase/14/docs/specs/text-blocks-jls.html
-                //  - https://javaalmanac.io/features/textblocks/
-
-                // escape backslashes
-                content = content.replace("\\", "\\\\");
-                // escape triple quotes
-                content = content.replace("\"\"\"", "\"\"\\\"");
-                // preserve trailing spaces
-                content = content.replace(" \n", "\\s\n");
-                // handle preceding indentation
-                content = content.replace("\n", "\n" + indentation);
-                // handle line continuations
-                content = content.replace(passPhrase, "\\\n" + indentation);
-
-                // add first line
-                content = "\n" + indentation + content;
-
-                // add last line to ensure the closing delimiter is in a new line to manage indentation & remove the
-                // need to escape ending quote in the content
-                if (!isEndsWithNewLine) {
-                    content = content + "\\\n" + indentation;
-                }
-
-                return new J.Literal(randomId(), binary.getPrefix(), Markers.EMPTY, originalContent.toString(),
-                        String.format("\"\"\"%s\"\"\"", content), null, JavaType.Primitive.String);
+                String indentation = getIndents(concatenation, tabsAndIndentsStyle.getUseTabCharacter(), tabsAndIndentsStyle.getTabSize());
+                return new J.Literal(randomId(), binary.getPrefix(), Markers.EMPTY, content,
+                        "\"\"\"" + textBlockContent(stringLiterals, indentation) + "\"\"\"", null, JavaType.Primitive.String);
             }
         });
     }
 
-    private static boolean allLiterals(Expression exp) {
-        return isRegularStringLiteral(exp) || exp instanceof J.Binary
-                                              && ((J.Binary) exp).getOperator() == J.Binary.Type.Addition
-                                              && allLiterals(((J.Binary) exp).getLeft()) && allLiterals(((J.Binary) exp).getRight());
-    }
-
+    /**
+     * Collects the literals of a chain of string literal additions in source order. The chain is walked with an
+     * explicit stack rather than recursively, so that generated code with thousands of operands neither overflows
+     * the stack nor is walked more than once.
+     *
+     * @return false if any operand of the chain is not a string literal or any operator is not an addition
+     */
     private static boolean flatAdditiveStringLiterals(Expression expression,
                                                       List<J.Literal> stringLiterals,
                                                       StringBuilder contentSb,
                                                       StringBuilder concatenationSb) {
-        if (expression instanceof J.Binary) {
-            J.Binary b = (J.Binary) expression;
-            if (b.getOperator() != J.Binary.Type.Addition) {
+        Deque<Expression> stack = new ArrayDeque<>();
+        stack.push(expression);
+        while (!stack.isEmpty()) {
+            Expression e = stack.pop();
+            if (e instanceof J.Binary) {
+                J.Binary b = (J.Binary) e;
+                if (b.getOperator() != J.Binary.Type.Addition) {
+                    return false;
+                }
+                concatenationSb.append(b.getPrefix().getWhitespace()).append("-");
+                concatenationSb.append(b.getPadding().getOperator().getBefore().getWhitespace()).append("-");
+                stack.push(b.getRight());
+                stack.push(b.getLeft());
+            } else if (isRegularStringLiteral(e)) {
+                J.Literal l = (J.Literal) e;
+                stringLiterals.add(l);
+                contentSb.append(l.getValue().toString());
+                concatenationSb.append(l.getPrefix().getWhitespace()).append("-");
+            } else {
                 return false;
             }
-            concatenationSb.append(b.getPrefix().getWhitespace()).append("-");
-            concatenationSb.append(b.getPadding().getOperator().getBefore().getWhitespace()).append("-");
-            return flatAdditiveStringLiterals(b.getLeft(), stringLiterals, contentSb, concatenationSb)
-                   && flatAdditiveStringLiterals(b.getRight(), stringLiterals, contentSb, concatenationSb);
-        } else if (isRegularStringLiteral(expression)) {
-            J.Literal l = (J.Literal) expression;
-            stringLiterals.add(l);
-            contentSb.append(l.getValue().toString());
-            concatenationSb.append(l.getPrefix().getWhitespace()).append("-");
-            return true;
         }
-
-        return false;
+        return true;
     }
 
     private static boolean isRegularStringLiteral(Expression expr) {
@@ -294,21 +248,74 @@ public class UseTextBlocks extends Recipe {
         return shortestPair;
     }
 
-    private static String generatePassword(String originalStr) throws NoSuchAlgorithmException {
-        final String SALT = "kun";
-        String password = "";
-        String saltedStr = originalStr + SALT;
-
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-        byte[] hashBytes = md.digest(saltedStr.getBytes());
-
-        password = Base64.getEncoder().encodeToString(hashBytes);
+    private static TabsAndIndentsStyle tabsAndIndents(SourceFile sourceFile) {
+        return Optional.ofNullable(sourceFile.getStyle(TabsAndIndentsStyle.class)).orElse(IntelliJ.tabsAndIndents());
+    }
 
-        while (originalStr.contains(password)) {
-            hashBytes = md.digest(password.getBytes());
-            password = Base64.getEncoder().encodeToString(hashBytes);
+    /**
+     * Builds the source of a text block, excluding its delimiters, in a single scan over the literals. Backslashes
+     * and every third consecutive quote are escaped, a trailing space before a newline is preserved with {@code \s},
+     * every line is indented, and a line continuation is inserted between literals that are not split on a newline.
+     * <p>
+     * References:
+     * <ul>
+     *     <li><a href="https://docs.oracle.com/en/java/javase/14/docs/specs/text-blocks-jls.html">Text blocks JLS</a></li>
+     *     <li><a href="https://javaalmanac.io/features/textblocks/">Java Almanac: text blocks</a></li>
+     * </ul>
+     */
+    private static String textBlockContent(List<J.Literal> stringLiterals, String indentation) {
+        StringBuilder sb = new StringBuilder();
+        // add first line
+        sb.append('\n').append(indentation);
+
+        boolean first = true;
+        char last = 0;
+        int quotes = 0;
+        for (J.Literal literal : stringLiterals) {
+            String s = String.valueOf(literal.getValue());
+            if (s.isEmpty()) {
+                continue;
+            }
+            if (!first && last != '\n' && s.charAt(0) != '\n') {
+                // line continuation
+                sb.append("\\\n").append(indentation);
+                quotes = 0;
+            }
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"') {
+                    if (++quotes == 3) {
+                        sb.append("\\\"");
+                        quotes = 0;
+                    } else {
+                        sb.append('"');
+                    }
+                    last = c;
+                    continue;
+                }
+                quotes = 0;
+                if (c == '\\') {
+                    sb.append("\\\\");
+                } else if (c == '\n') {
+                    if (last == ' ') {
+                        // preserve trailing spaces
+                        sb.setLength(sb.length() - 1);
+                        sb.append("\\s");
+                    }
+                    sb.append('\n').append(indentation);
+                } else {
+                    sb.append(c);
+                }
+                last = c;
+            }
+            first = false;
         }
 
-        return password;
+        // add last line to ensure the closing delimiter is in a new line to manage indentation & remove the
+        // need to escape ending quote in the content
+        if (last != '\n') {
+            sb.append("\\\n").append(indentation);
+        }
+        return sb.toString();
     }
 }
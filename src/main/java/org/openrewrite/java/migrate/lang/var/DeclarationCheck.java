@@ -44,6 +44,24 @@ final class DeclarationCheck {
         return isInsideMethod(cursor) || isInsideInitializer(cursor, 0);
     }
 
+    /**
+     * Determine if var is applicable with regard to location and declaration type, for visitors that track
+     * whether they are inside a method or initializer block themselves instead of searching the cursor for it.
+     *
+     * @param cursor                    location of the visitor
+     * @param vd                        variable definition at question
+     * @param insideMethodOrInitializer whether the visitor is currently inside a method or initializer block
+     * @return true if var is applicable in general
+     */
+    public static boolean isVarApplicable(Cursor cursor, J.VariableDeclarations vd, boolean insideMethodOrInitializer) {
+        if (!insideMethodOrInitializer || !isSingleVariableDefinition(vd) || initializedByTernary(vd)) {
+            return false;
+        }
+
+        // parameters hang directly off their method declaration, so there is no need to search for it
+        return !isField(vd, cursor) && !(cursor.getParentTreeCursor().getValue() instanceof J.MethodDeclaration);
+    }
+
     /**
      * Determine if a variable definition defines a single variable that is directly initialized with value different from null, which not make use of var.
      *
@@ -64,6 +64,21 @@ public class UseVarForGenericsConstructors extends Recipe {
                 return vd;
             }
 
+            J.VariableDeclarations result = useVar(vd);
+            // mark imports for removal if unused
+            if (result != vd && vd.getType() instanceof JavaType.FullyQualified) {
+                maybeRemoveImport( (JavaType.FullyQualified) vd.getType() );
+            }
+            return result;
+        }
+
+        /**
+         * Apply the recipe specific checks and the transformation to a declaration already known to be applicable.
+         *
+         * @param vd variable declaration at the visitors cursor
+         * @return the transformed declaration, or {@code vd} itself if it is not handled by this visitor
+         */
+        J.VariableDeclarations useVar(J.VariableDeclarations vd) {
             // recipe specific
             boolean isPrimitive = DeclarationCheck.isPrimitive(vd);
             boolean usesNoGenerics = !DeclarationCheck.useGenerics(vd);
@@ -91,11 +106,6 @@ public class UseVarForGenericsConstructors extends Recipe {
                 return vd;
             }
 
-            // mark imports for removal if unused
-            if (vd.getType() instanceof JavaType.FullyQualified) {
-                maybeRemoveImport( (JavaType.FullyQualified) vd.getType() );
-            }
-
             return transformToVar(vd, leftTypes, rightTypes);
         }
 
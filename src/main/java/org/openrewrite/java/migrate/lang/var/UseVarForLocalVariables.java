@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.lang.var;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesJavaVersion;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class UseVarForLocalVariables extends Recipe {
+
+    @Override
+    public String getDisplayName() {
+        //language=markdown
+        return "Use `var` for local variables";
+    }
+
+    @Override
+    public String getDescription() {
+        //language=markdown
+        return "Apply local variable type inference `var` to primitive, reference-typed and generic local variables in a single pass. " +
+               "Each declaration is classified once and handed to the same rewrite `UseVarForPrimitive`, `UseVarForObject`, " +
+               "`UseVarForGenericsConstructors` or `UseVarForGenericMethodInvocations` would apply to it.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(
+                new UsesJavaVersion<>(10),
+                new UseVarForLocalVariablesVisitor());
+    }
+
+    static final class UseVarForLocalVariablesVisitor extends JavaIsoVisitor<ExecutionContext> {
+        private final UseVarForPrimitive.VarForPrimitivesVisitor primitives = new UseVarForPrimitive.VarForPrimitivesVisitor();
+        private final UseVarForObject.UseVarForObjectVisitor objects = new UseVarForObject.UseVarForObjectVisitor();
+        private final UseVarForGenericsConstructors.UseVarForGenericsConstructorsVisitor constructors = new UseVarForGenericsConstructors.UseVarForGenericsConstructorsVisitor();
+        private final UseVarForGenericMethodInvocations.UseVarForGenericsVisitor methodInvocations = new UseVarForGenericMethodInvocations.UseVarForGenericsVisitor();
+
+        /**
+         * Whether the nearest enclosing class member is a method or an initializer block, in which case declarations
+         * are local variables. Set when entering such a member and reset when entering a (nested) class declaration.
+         */
+        private boolean localScope;
+
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            boolean enclosingScope = localScope;
+            localScope = false;
+            try {
+                return super.visitClassDeclaration(classDecl, ctx);
+            } finally {
+                localScope = enclosingScope;
+            }
+        }
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+            boolean enclosingScope = localScope;
+            localScope = true;
+            try {
+                return super.visitMethodDeclaration(method, ctx);
+            } finally {
+                localScope = enclosingScope;
+            }
+        }
+
+        @Override
+        public J.Block visitBlock(J.Block block, ExecutionContext ctx) {
+            boolean enclosingScope = localScope;
+            localScope = localScope || isInitializer();
+            try {
+                return super.visitBlock(block, ctx);
+            } finally {
+                localScope = enclosingScope;
+            }
+        }
+
+        private boolean isInitializer() {
+            // initializer blocks are blocks inside the class definition block
+            Cursor parent = getCursor().getParentTreeCursor();
+            return parent.getValue() instanceof J.Block &&
+                   parent.getParentTreeCursor().getValue() instanceof J.ClassDeclaration;
+        }
+
+        @Override
+        public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations vd, ExecutionContext ctx) {
+            vd = super.visitVariableDeclarations(vd, ctx);
+
+            if (!DeclarationCheck.isVarApplicable(getCursor(), vd, localScope)) {
+                return vd;
+            }
+
+            J.VariableDeclarations result = useVar(vd);
+            // mark imports for removal if unused
+            if (result != vd && vd.getType() instanceof JavaType.FullyQualified) {
+                maybeRemoveImport((JavaType.FullyQualified) vd.getType());
+            }
+            return result;
+        }
+
+        private J.VariableDeclarations useVar(J.VariableDeclarations vd) {
+            if (DeclarationCheck.isPrimitive(vd)) {
+                primitives.setCursor(getCursor());
+                return primitives.useVar(vd);
+            }
+            if (!DeclarationCheck.useGenerics(vd)) {
+                objects.setCursor(getCursor());
+                return objects.useVar(vd);
+            }
+
+            Expression initializer = vd.getVariables().get(0).getInitializer();
+            if (initializer != null && initializer.unwrap() instanceof J.NewClass) {
+                constructors.setCursor(getCursor());
+                return constructors.useVar(vd);
+            }
+            if (initializer != null && initializer.unwrap() instanceof J.MethodInvocation) {
+                methodInvocations.setCursor(getCursor());
+                return methodInvocations.useVar(vd);
+            }
+            return vd;
+        }
+    }
+}
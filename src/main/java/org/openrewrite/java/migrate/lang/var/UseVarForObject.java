@@ -72,6 +72,21 @@ public class UseVarForObject extends Recipe {
                 return vd;
             }
 
+            J.VariableDeclarations result = useVar(vd);
+            // mark imports for removal if unused
+            if (result != vd && vd.getType() instanceof JavaType.FullyQualified) {
+                maybeRemoveImport( (JavaType.FullyQualified) vd.getType() );
+            }
+            return result;
+        }
+
+        /**
+         * Apply the recipe specific checks and the transformation to a declaration already known to be applicable.
+         *
+         * @param vd variable declaration at the visitors cursor
+         * @return the transformed declaration, or {@code vd} itself if it is not handled by this visitor
+         */
+        J.VariableDeclarations useVar(J.VariableDeclarations vd) {
             boolean isPrimitive = DeclarationCheck.isPrimitive(vd);
             boolean usesGenerics = DeclarationCheck.useGenerics(vd);
             boolean usesTernary = DeclarationCheck.initializedByTernary(vd);
@@ -79,11 +94,6 @@ public class UseVarForObject extends Recipe {
                 return vd;
             }
 
-            // mark imports for removal if unused
-            if (vd.getType() instanceof JavaType.FullyQualified) {
-                maybeRemoveImport( (JavaType.FullyQualified) vd.getType() );
-            }
-
             return transformToVar(vd);
         }
 
@@ -75,6 +75,16 @@ public class UseVarForPrimitive extends Recipe {
                 return vd;
             }
 
+            return useVar(vd);
+        }
+
+        /**
+         * Apply the recipe specific checks and the transformation to a declaration already known to be applicable.
+         *
+         * @param vd variable declaration at the visitors cursor
+         * @return the transformed declaration, or {@code vd} itself if it is not handled by this visitor
+         */
+        J.VariableDeclarations useVar(J.VariableDeclarations vd) {
             // recipe specific
             boolean isNoPrimitive = !DeclarationCheck.isPrimitive(vd);
             boolean isByteVariable = DeclarationCheck.declarationHasType(vd, BYTE_TYPE);
@@ -28,6 +28,7 @@ import org.openrewrite.java.RemoveAnnotationVisitor;
 import org.openrewrite.java.search.UsesJavaVersion;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.SearchResult;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -39,10 +40,11 @@ import static java.util.stream.Collectors.toList;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class LombokValueToRecord extends ScanningRecipe<Map<String, Set<String>>> {
+public class LombokValueToRecord extends ScanningRecipe<LombokValueToRecord.Accumulator> {
 
     private static final AnnotationMatcher LOMBOK_VALUE_MATCHER = new AnnotationMatcher("@lombok.Value()");
     private static final AnnotationMatcher LOMBOK_BUILDER_MATCHER = new AnnotationMatcher("@lombok.Builder()");
+    private static final String STANDARD_GETTER_PREFIX = "get";
 
     @Option(displayName = "Add a `toString()` implementation matching Lombok",
             description = "When set the `toString` format from Lombok is used in the migrated record.",
@@ -66,12 +68,12 @@ public class LombokValueToRecord extends ScanningRecipe<Map<String, Set<String>>
     }
 
     @Override
-    public Map<String, Set<String>> getInitialValue(ExecutionContext ctx) {
-        return new ConcurrentHashMap<>();
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getScanner(Map<String, Set<String>> acc) {
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
         TreeVisitor<?, ExecutionContext> check = Preconditions.and(
                 new UsesJavaVersion<>(17),
                 new UsesType<>("lombok.Value", false)
@@ -80,14 +82,98 @@ public class LombokValueToRecord extends ScanningRecipe<Map<String, Set<String>>
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor(Map<String, Set<String>> recordTypesToMembers) {
-        return new LombokValueToRecord.LombokValueToRecordVisitor(useExactToString, recordTypesToMembers);
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        if (acc.recordTypeToAccessors.isEmpty()) {
+            return TreeVisitor.noop();
+        }
+        return Preconditions.check(new DeclaresOrUsesRecordType(acc),
+                new LombokValueToRecord.LombokValueToRecordVisitor(useExactToString, acc));
+    }
+
+    /**
+     * The types converted to records, with the accessor that replaces each of their Lombok getters.
+     */
+    public static class Accumulator {
+        private final Map<String, Map<String, String>> recordTypeToAccessors = new ConcurrentHashMap<>();
+
+        void addRecordType(String fullyQualifiedName, Set<String> memberVariableNames) {
+            Map<String, String> getterToAccessor = new HashMap<>();
+            for (String member : memberVariableNames) {
+                if (!member.isEmpty()) {
+                    getterToAccessor.put(STANDARD_GETTER_PREFIX + Character.toUpperCase(member.charAt(0)) + member.substring(1), member);
+                }
+            }
+            recordTypeToAccessors.putIfAbsent(fullyQualifiedName, getterToAccessor);
+        }
+
+        boolean isRecordType(String fullyQualifiedName) {
+            return recordTypeToAccessors.containsKey(fullyQualifiedName);
+        }
+
+        @Nullable
+        String accessorFor(String fullyQualifiedName, String getterName) {
+            Map<String, String> getterToAccessor = recordTypeToAccessors.get(fullyQualifiedName);
+            return getterToAccessor == null ? null : getterToAccessor.get(getterName);
+        }
     }
 
+    /**
+     * Only lets through source files whose type table references, or which declare, a type converted to a record,
+     * so that the edit visitor does not traverse the rest of the repository.
+     */
+    @RequiredArgsConstructor
+    private static class DeclaresOrUsesRecordType extends TreeVisitor<Tree, ExecutionContext> {
+        private final Accumulator acc;
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+            if (!(tree instanceof JavaSourceFile)) {
+                return tree;
+            }
+            JavaSourceFile cu = (JavaSourceFile) tree;
+            for (JavaType type : cu.getTypesInUse().getTypesInUse()) {
+                if (type instanceof JavaType.FullyQualified && acc.isRecordType(((JavaType.FullyQualified) type).getFullyQualifiedName())) {
+                    return SearchResult.found(cu);
+                }
+            }
+            // A getter called on the result of another call, as in `repo.find().getX()`, leaves no trace of the
+            // record type among the types in use, only as the declaring type of the getter or, when the getter
+            // generated by Lombok has no type attribution, as the return type of the call
+            for (JavaType.Method method : cu.getTypesInUse().getUsedMethods()) {
+                if (acc.isRecordType(method.getDeclaringType().getFullyQualifiedName()) ||
+                    isRecordType(method.getReturnType())) {
+                    return SearchResult.found(cu);
+                }
+            }
+            for (J.ClassDeclaration classDeclaration : cu.getClasses()) {
+                if (declaresRecordType(classDeclaration)) {
+                    return SearchResult.found(cu);
+                }
+            }
+            return cu;
+        }
+
+        private boolean isRecordType(@Nullable JavaType type) {
+            JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(type);
+            return fullyQualified != null && acc.isRecordType(fullyQualified.getFullyQualifiedName());
+        }
+
+        private boolean declaresRecordType(J.ClassDeclaration classDeclaration) {
+            if (classDeclaration.getType() != null && acc.isRecordType(classDeclaration.getType().getFullyQualifiedName())) {
+                return true;
+            }
+            for (Statement statement : classDeclaration.getBody().getStatements()) {
+                if (statement instanceof J.ClassDeclaration && declaresRecordType((J.ClassDeclaration) statement)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 
     @RequiredArgsConstructor
     private static class ScannerVisitor extends JavaIsoVisitor<ExecutionContext> {
-        private final Map<String, Set<String>> acc;
+        private final Accumulator acc;
 
         @Override
         public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
@@ -107,7 +193,7 @@ public class LombokValueToRecord extends ScanningRecipe<Map<String, Set<String>>
                 return cd;
             }
 
-            acc.putIfAbsent(
+            acc.addRecordType(
                     cd.getType().getFullyQualifiedName(),
                     memberVariableNames);
 
@@ -166,7 +252,7 @@ public class LombokValueToRecord extends ScanningRecipe<Map<String, Set<String>>
         private static boolean isConflictingInterface(JavaType.FullyQualified implemented, Set<String> memberVariableNames) {
             boolean hasConflictingMethod = implemented.getMethods().stream()
                     .map(JavaType.Method::getName)
-                    .map(LombokValueToRecordVisitor::getterMethodNameToFluentMethodName)
+                    .map(ScannerVisitor::getterMethodNameToFluentMethodName)
                     .anyMatch(memberVariableNames::contains);
             if (hasConflictingMethod) {
                 return true;
@@ -178,6 +264,20 @@ public class LombokValueToRecord extends ScanningRecipe<Map<String, Set<String>>
             return false;
         }
 
+        private static String getterMethodNameToFluentMethodName(String methodName) {
+            StringBuilder fluentMethodName = new StringBuilder(
+                    methodName.replace(STANDARD_GETTER_PREFIX, ""));
+
+            if (fluentMethodName.length() == 0) {
+                return "";
+            }
+
+            char firstMemberChar = fluentMethodName.charAt(0);
+            fluentMethodName.setCharAt(0, Character.toLowerCase(firstMemberChar));
+
+            return fluentMethodName.toString();
+        }
+
         private boolean hasGenericTypeParameter(J.ClassDeclaration classDeclaration) {
             List<J.TypeParameter> typeParameters = classDeclaration.getTypeParameters();
             return typeParameters != null && !typeParameters.isEmpty();
@@ -229,68 +329,46 @@ public class LombokValueToRecord extends ScanningRecipe<Map<String, Set<String>>
 
         private static final String TO_STRING_MEMBER_LINE_PATTERN = "\"%s=\" + %s +";
         private static final String TO_STRING_MEMBER_DELIMITER = "\", \" +\n";
-        private static final String STANDARD_GETTER_PREFIX = "get";
 
         private final @Nullable Boolean useExactToString;
-        private final Map<String, Set<String>> recordTypeToMembers;
+        private final Accumulator recordTypes;
 
-        public LombokValueToRecordVisitor(@Nullable Boolean useExactToString, Map<String, Set<String>> recordTypeToMembers) {
+        public LombokValueToRecordVisitor(@Nullable Boolean useExactToString, Accumulator recordTypes) {
             this.useExactToString = useExactToString;
-            this.recordTypeToMembers = recordTypeToMembers;
+            this.recordTypes = recordTypes;
         }
 
         @Override
         public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
             J.MethodInvocation methodInvocation = super.visitMethodInvocation(method, ctx);
 
-            if (!isMethodInvocationOnRecordTypeClassMember(methodInvocation)) {
+            String accessor = recordAccessorFor(methodInvocation);
+            if (accessor == null) {
                 return methodInvocation;
             }
 
-            J.Identifier methodName = methodInvocation.getName();
             return methodInvocation
-                    .withName(methodName
-                            .withSimpleName(getterMethodNameToFluentMethodName(methodName.getSimpleName()))
-                    );
+                    .withName(methodInvocation.getName().withSimpleName(accessor));
         }
 
-        private boolean isMethodInvocationOnRecordTypeClassMember(J.MethodInvocation methodInvocation) {
+        private @Nullable String recordAccessorFor(J.MethodInvocation methodInvocation) {
             Expression expression = methodInvocation.getSelect();
             if (!isClassExpression(expression)) {
-                return false;
+                return null;
             }
 
             JavaType.Class classType = (JavaType.Class) expression.getType();
             if (classType == null) {
-                return false;
+                return null;
             }
 
-            String methodName = methodInvocation.getName().getSimpleName();
-            String classFqn = classType.getFullyQualifiedName();
-
-            return recordTypeToMembers.containsKey(classFqn)
-                   && methodName.startsWith(STANDARD_GETTER_PREFIX)
-                   && recordTypeToMembers.get(classFqn).contains(getterMethodNameToFluentMethodName(methodName));
+            return recordTypes.accessorFor(classType.getFullyQualifiedName(), methodInvocation.getName().getSimpleName());
         }
 
         private static boolean isClassExpression(@Nullable Expression expression) {
             return expression != null && (expression.getType() instanceof JavaType.Class);
         }
 
-        private static String getterMethodNameToFluentMethodName(String methodName) {
-            StringBuilder fluentMethodName = new StringBuilder(
-                    methodName.replace(STANDARD_GETTER_PREFIX, ""));
-
-            if (fluentMethodName.length() == 0) {
-                return "";
-            }
-
-            char firstMemberChar = fluentMethodName.charAt(0);
-            fluentMethodName.setCharAt(0, Character.toLowerCase(firstMemberChar));
-
-            return fluentMethodName.toString();
-        }
-
         private static List<Statement> mapToConstructorArguments(List<J.VariableDeclarations> memberVariables) {
             return memberVariables
                     .stream()
@@ -331,7 +409,7 @@ public class LombokValueToRecord extends ScanningRecipe<Map<String, Set<String>>
             J.ClassDeclaration classDeclaration = super.visitClassDeclaration(cd, ctx);
             JavaType.FullyQualified classType = classDeclaration.getType();
 
-            if (classType == null || !recordTypeToMembers.containsKey(classType.getFullyQualifiedName())) {
+            if (classType == null || !recordTypes.isRecordType(classType.getFullyQualifiedName())) {
                 return classDeclaration;
             }
 
@@ -15,6 +15,8 @@
  */
 package org.openrewrite.java.migrate.search;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.micrometer.core.instrument.util.StringUtils;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
@@ -23,20 +25,30 @@ import org.openrewrite.*;
 import org.openrewrite.java.marker.JavaProject;
 import org.openrewrite.java.marker.JavaSourceSet;
 import org.openrewrite.java.marker.JavaVersion;
+import org.openrewrite.java.migrate.table.JavaVersionCounts;
+import org.openrewrite.java.migrate.table.JavaVersionPerFile;
 import org.openrewrite.java.migrate.table.JavaVersionPerSourceSet;
 import org.openrewrite.java.migrate.table.JavaVersionRow;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.JavaSourceFile;
 import org.openrewrite.marker.SearchResult;
 
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Collections.emptyList;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class AboutJavaVersion extends Recipe {
+public class AboutJavaVersion extends ScanningRecipe<AboutJavaVersion.Accumulator> {
     transient JavaVersionPerSourceSet javaVersionPerSourceSet = new JavaVersionPerSourceSet(this);
-    transient Set<ProjectSourceSet> seenSourceSets = new HashSet<>();
+    transient JavaVersionPerFile javaVersionPerFile = new JavaVersionPerFile(this);
+    transient JavaVersionCounts javaVersionCounts = new JavaVersionCounts(this);
 
     @Option(required = false,
             description = "Only mark the Java version when this type is in use.",
@@ -44,6 +56,24 @@ public class AboutJavaVersion extends Recipe {
     @Nullable
     String whenUsesType;
 
+    @Option(displayName = "Report each file",
+            description = "Also add a row per source file to the per-file data table. Off by default, as the " +
+                          "per-source set and aggregated counts tables are much smaller on large repositories.",
+            required = false)
+    @Nullable
+    Boolean perFile;
+
+    public AboutJavaVersion(@Nullable String whenUsesType) {
+        this(whenUsesType, null);
+    }
+
+    @JsonCreator
+    public AboutJavaVersion(@Nullable @JsonProperty("whenUsesType") String whenUsesType,
+                            @Nullable @JsonProperty("perFile") Boolean perFile) {
+        this.whenUsesType = whenUsesType;
+        this.perFile = perFile;
+    }
+
     @Override
     public String getDisplayName() {
         return "Find which Java version is in use";
@@ -56,43 +86,108 @@ public class AboutJavaVersion extends Recipe {
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
 
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return whenUsesType(new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public Tree visit(@Nullable Tree cu, ExecutionContext ctx) {
+                if (!(cu instanceof JavaSourceFile)) {
+                    return cu;
+                }
+                JavaVersion version = cu.getMarkers().findFirst(JavaVersion.class).orElse(null);
+                if (version == null || !acc.scannedFiles.add(cu.getId())) {
+                    // Already counted in an earlier cycle
+                    return cu;
+                }
+                JavaProject project = cu.getMarkers().findFirst(JavaProject.class)
+                        .orElse(null);
+                String projectName = project == null ? "" : project.getProjectName();
+                String sourceSet = cu.getMarkers().findFirst(JavaSourceSet.class).map(JavaSourceSet::getName)
+                        .orElse("");
+                if (acc.seenSourceSets.add(new ProjectSourceSet(project, sourceSet))) {
+                    javaVersionPerSourceSet.insertRow(ctx, new JavaVersionRow(
+                            projectName,
+                            sourceSet,
+                            version.getCreatedBy(),
+                            version.getVmVendor(),
+                            version.getSourceCompatibility(),
+                            Integer.toString(version.getMajorReleaseVersion()),
+                            version.getTargetCompatibility()
+                    ));
+                }
+                if (Boolean.TRUE.equals(perFile)) {
+                    javaVersionPerFile.insertRow(ctx, new JavaVersionPerFile.Row(
+                            projectName,
+                            sourceSet,
+                            version.getCreatedBy(),
+                            version.getVmVendor(),
+                            version.getSourceCompatibility(),
+                            Integer.toString(version.getMajorReleaseVersion()),
+                            version.getTargetCompatibility(),
+                            ((JavaSourceFile) cu).getSourcePath().toString()
+                    ));
+                }
+                acc.filesPerLevel.computeIfAbsent(new Level(
+                                Integer.toString(version.getMajorVersion()),
+                                Integer.toString(version.getMajorReleaseVersion())),
+                        k -> new LongAdder()).increment();
+                return cu;
+            }
+        });
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        if (!acc.countsEmitted.compareAndSet(false, true)) {
+            return emptyList();
+        }
+        for (Map.Entry<Level, LongAdder> count : acc.filesPerLevel.entrySet()) {
+            javaVersionCounts.insertRow(ctx, new JavaVersionCounts.Row(
+                    count.getKey().getSourceCompatibility(),
+                    count.getKey().getTargetCompatibility(),
+                    count.getValue().sum()
+            ));
+        }
+        return emptyList();
+    }
 
-        TreeVisitor<?, ExecutionContext> visitor = new TreeVisitor<Tree, ExecutionContext>() {
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return whenUsesType(new TreeVisitor<Tree, ExecutionContext>() {
             @Override
             public Tree visit(@Nullable Tree cu, ExecutionContext ctx) {
                 if (!(cu instanceof JavaSourceFile)) {
                     return cu;
                 }
                 return cu.getMarkers().findFirst(JavaVersion.class)
-                        .map(version -> {
-                            JavaProject project = cu.getMarkers().findFirst(JavaProject.class)
-                                    .orElse(null);
-                            String sourceSet = cu.getMarkers().findFirst(JavaSourceSet.class).map(JavaSourceSet::getName)
-                                    .orElse("");
-                            if (seenSourceSets.add(new ProjectSourceSet(project, sourceSet))) {
-                                javaVersionPerSourceSet.insertRow(ctx, new JavaVersionRow(
-                                        project == null ? "" : project.getProjectName(),
-                                        sourceSet,
-                                        version.getCreatedBy(),
-                                        version.getVmVendor(),
-                                        version.getSourceCompatibility(),
-                                        Integer.toString(version.getMajorReleaseVersion()),
-                                        version.getTargetCompatibility()
-                                ));
-                            }
-                            return SearchResult.found(cu, "Java version: " + version.getMajorVersion());
-                        })
+                        .map(version -> SearchResult.found(cu, "Java version: " + version.getMajorVersion()))
                         .orElse(cu);
             }
-        };
+        });
+    }
+
+    private TreeVisitor<?, ExecutionContext> whenUsesType(TreeVisitor<?, ExecutionContext> visitor) {
         if (StringUtils.isNotBlank(whenUsesType)) {
-            visitor = Preconditions.check(new UsesType<>(whenUsesType, false), visitor);
+            return Preconditions.check(new UsesType<>(whenUsesType, false), visitor);
         }
         return visitor;
     }
 
+    /**
+     * Tracks the source sets already reported, so that each gets one row, and the number of files per source and
+     * target compatibility level, which is written once all source files have been scanned.
+     */
+    public static class Accumulator {
+        private final Set<UUID> scannedFiles = ConcurrentHashMap.newKeySet();
+        private final Set<ProjectSourceSet> seenSourceSets = ConcurrentHashMap.newKeySet();
+        private final Map<Level, LongAdder> filesPerLevel = new ConcurrentHashMap<>();
+        private final AtomicBoolean countsEmitted = new AtomicBoolean();
+    }
+
     @Value
     static class ProjectSourceSet {
         @Nullable
@@ -100,4 +195,10 @@ public class AboutJavaVersion extends Recipe {
 
         String javaSourceSet;
     }
+
+    @Value
+    static class Level {
+        String sourceCompatibility;
+        String targetCompatibility;
+    }
 }
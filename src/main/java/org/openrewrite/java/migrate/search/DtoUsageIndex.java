@@ -0,0 +1,263 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.search;
+
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.Statement;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.openrewrite.internal.StringUtils.uncapitalize;
+
+/**
+ * An index of the methods called on DTOs, built in a single traversal of each source file while scanning, and
+ * shared by every recipe in the same run that asks about the same DTO type pattern. Uses are kept by source file id
+ * until {@link org.openrewrite.java.migrate.DontOverfetchDto} has visited the file in its edit phase, and neither the
+ * source files nor the index outlive the run.
+ * <p>
+ * Uses are grouped by the method declaration they are made from, and can also be looked up by the method
+ * invocation itself. {@link FindDtoOverfetching} and {@link FindDataUsedOnDto} are not scanning recipes, so that on
+ * their own they still visit each source file once: they consult the index for a file another recipe of the run
+ * indexed in its current version, and otherwise find each use in place with {@link #use(J.MethodInvocation, Cursor)}.
+ */
+public class DtoUsageIndex {
+    /**
+     * Indexes by DTO type pattern, keyed by the first cycle of the run they belong to. The key is only weakly held, so
+     * the indexes of a finished run can be collected even while the context lives on.
+     */
+    private static final String INDEXES = DtoUsageIndex.class.getName();
+
+    private final MethodMatcher dtoMethods;
+    private final MethodMatcher dtoGetters;
+
+    private final Map<UUID, Indexed> files = new ConcurrentHashMap<>();
+
+    private DtoUsageIndex(String dtoType) {
+        this.dtoMethods = new MethodMatcher(dtoType + " *(..)");
+        this.dtoGetters = new MethodMatcher(dtoType + " get*()");
+    }
+
+    /**
+     * @param dtoType A type pattern, such as {@code com.example.dto.*}.
+     * @return The index for this type pattern, created on first use in this run.
+     */
+    public static DtoUsageIndex forRun(String dtoType, ExecutionContext ctx) {
+        Map<Object, Map<String, DtoUsageIndex>> runs = ctx.getMessage(INDEXES);
+        if (runs == null) {
+            runs = Collections.synchronizedMap(new WeakHashMap<>());
+            ctx.putMessage(INDEXES, runs);
+        }
+        // Scanning recipes are initialized in the first cycle, so every recipe of a run finds the same indexes
+        return runs.computeIfAbsent(ctx.getCycleDetails(), run -> new ConcurrentHashMap<>())
+                .computeIfAbsent(dtoType, DtoUsageIndex::new);
+    }
+
+    /**
+     * A scanner that indexes each source file once. Source files are indexed again only when they were changed since
+     * they were last indexed, for instance by an earlier cycle, or their uses were released.
+     */
+    public TreeVisitor<?, ExecutionContext> indexer() {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!(tree instanceof JavaSourceFile)) {
+                    return tree;
+                }
+                if (!isIndexed((SourceFile) tree)) {
+                    index((SourceFile) tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * @return The uses in this version of the source file, or {@code null} if it makes none or was not indexed in
+     * this version.
+     */
+    public @Nullable FileIndex get(SourceFile sourceFile) {
+        Indexed indexed = files.get(sourceFile.getId());
+        return indexed == null || indexed.sourceFile.get() != sourceFile ? null : indexed.uses;
+    }
+
+    /**
+     * @return The uses in this source file, or {@code null} if it makes none, indexing it first unless it was
+     * already indexed in this version, for instance when an earlier recipe changed it after it was scanned.
+     */
+    public @Nullable FileIndex index(SourceFile sourceFile, ExecutionContext ctx) {
+        if (isIndexed(sourceFile)) {
+            return get(sourceFile);
+        }
+        FileIndex fileIndex = new FileIndex();
+        new Indexer(fileIndex).visit(sourceFile, ctx);
+        files.put(sourceFile.getId(), new Indexed(new WeakReference<>(sourceFile), fileIndex.isEmpty() ? null : fileIndex));
+        return fileIndex.isEmpty() ? null : fileIndex;
+    }
+
+    /**
+     * Drops the uses of a source file once the last recipe that needs them has visited it, so the index does not
+     * keep the uses of every source file until the run ends.
+     */
+    public void release(SourceFile sourceFile) {
+        files.remove(sourceFile.getId());
+    }
+
+    boolean isIndexed(SourceFile sourceFile) {
+        Indexed indexed = files.get(sourceFile.getId());
+        return indexed != null && indexed.sourceFile.get() == sourceFile;
+    }
+
+    /**
+     * @return The use made by this method invocation, or {@code null} if it is not called on a DTO, for visitors
+     * that find uses in place instead of consulting the index.
+     */
+    public @Nullable DtoUse use(J.MethodInvocation method, Cursor cursor) {
+        if (!dtoMethods.matches(method)) {
+            return null;
+        }
+        J.MethodDeclaration methodDeclaration = cursor.firstEnclosing(J.MethodDeclaration.class);
+        String variableName = method.getSelect() instanceof J.Identifier ?
+                ((J.Identifier) method.getSelect()).getSimpleName() : null;
+        String name = method.getSimpleName();
+        return new DtoUse(
+                methodDeclaration == null ? null : methodDeclaration.getSimpleName(),
+                variableName,
+                variableName != null && methodDeclaration != null && isParameter(methodDeclaration, variableName),
+                dtoGetters.matches(method),
+                uncapitalize(name.startsWith("get") ? name.substring(3) : name)
+        );
+    }
+
+    private static boolean isParameter(J.MethodDeclaration methodDeclaration, String variableName) {
+        for (Statement parameter : methodDeclaration.getParameters()) {
+            if (parameter instanceof J.VariableDeclarations) {
+                for (J.VariableDeclarations.NamedVariable variable : ((J.VariableDeclarations) parameter).getVariables()) {
+                    if (variable.getSimpleName().equals(variableName)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remembers which version of a source file was indexed, without keeping it alive, so that a source file changed
+     * by an earlier cycle is indexed again.
+     */
+    @Value
+    private static class Indexed {
+        WeakReference<SourceFile> sourceFile;
+
+        @Nullable
+        FileIndex uses;
+    }
+
+    public static class FileIndex {
+        private final Map<UUID, List<DtoUse>> usesByMethodDeclaration = new HashMap<>();
+        private final Map<UUID, DtoUse> usesByMethodInvocation = new LinkedHashMap<>();
+
+        /**
+         * @return The uses made directly from the body of this method, excluding those made from methods nested in
+         * it, in the order they appear.
+         */
+        public List<DtoUse> usesIn(J.MethodDeclaration method) {
+            return usesByMethodDeclaration.getOrDefault(method.getId(), Collections.emptyList());
+        }
+
+        public @Nullable DtoUse useAt(J.MethodInvocation method) {
+            return usesByMethodInvocation.get(method.getId());
+        }
+
+        /**
+         * @return Every use in this source file, in the order they appear.
+         */
+        public Collection<DtoUse> uses() {
+            return usesByMethodInvocation.values();
+        }
+
+        boolean isEmpty() {
+            return usesByMethodInvocation.isEmpty();
+        }
+    }
+
+    @Value
+    public static class DtoUse {
+        /**
+         * The name of the enclosing method declaration, or {@code null} if the use is outside any method.
+         */
+        @Nullable
+        String methodName;
+
+        /**
+         * The name of the variable the method is called on, or {@code null} if it is called on another expression.
+         */
+        @Nullable
+        String variableName;
+
+        /**
+         * True if the variable is a parameter of the enclosing method.
+         */
+        boolean parameter;
+
+        /**
+         * True if the method is a getter, taking no arguments.
+         */
+        boolean getter;
+
+        /**
+         * The name of the method, without its {@code get} prefix and uncapitalized, e.g. {@code name} for
+         * {@code getName()}.
+         */
+        String dataElement;
+    }
+
+    private class Indexer extends JavaIsoVisitor<ExecutionContext> {
+        private final FileIndex fileIndex;
+
+        Indexer(FileIndex fileIndex) {
+            this.fileIndex = fileIndex;
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+            J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
+            DtoUse use = use(method, getCursor());
+            if (use == null) {
+                return m;
+            }
+
+            fileIndex.usesByMethodInvocation.put(method.getId(), use);
+            J.MethodDeclaration methodDeclaration = getCursor().firstEnclosing(J.MethodDeclaration.class);
+            if (methodDeclaration != null) {
+                fileIndex.usesByMethodDeclaration.computeIfAbsent(methodDeclaration.getId(), k -> new ArrayList<>()).add(use);
+            }
+            return m;
+        }
+    }
+}
@@ -15,27 +15,50 @@
  */
 package org.openrewrite.java.migrate.search;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.table.DtoDataUseCounts;
 import org.openrewrite.java.migrate.table.DtoDataUses;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.marker.SearchResult;
 
-import static org.openrewrite.internal.StringUtils.uncapitalize;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
 public class FindDataUsedOnDto extends Recipe {
     transient DtoDataUses dtoDataUses = new DtoDataUses(this);
+    transient DtoDataUseCounts dtoDataUseCounts = new DtoDataUseCounts(this);
 
     @Option(displayName = "DTO type",
             description = "The fully qualified name of the DTO.",
             example = "com.example.dto.*")
     String dtoType;
 
+    @Option(displayName = "Count uses",
+            description = "Instead of one row per use, add one row per source file, method and data element with " +
+                          "the number of uses.",
+            required = false)
+    @Nullable
+    Boolean countUses;
+
+    public FindDataUsedOnDto(String dtoType) {
+        this(dtoType, null);
+    }
+
+    @JsonCreator
+    public FindDataUsedOnDto(@JsonProperty("dtoType") String dtoType,
+                             @JsonProperty("countUses") @Nullable Boolean countUses) {
+        this.dtoType = dtoType;
+        this.countUses = countUses;
+    }
+
     @Override
     public String getDisplayName() {
         return "Find data used on DTOs";
@@ -49,21 +72,70 @@ public class FindDataUsedOnDto extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        MethodMatcher dtoFields = new MethodMatcher(dtoType + " get*()");
+        boolean count = Boolean.TRUE.equals(countUses);
         return new JavaIsoVisitor<ExecutionContext>() {
+            private @Nullable DtoUsageIndex index;
+            private DtoUsageIndex.@Nullable FileIndex fileIndex;
+            private String sourcePath = "";
+            private final Map<MethodDataElement, Integer> counts = new LinkedHashMap<>();
+
             @Override
-            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-                J.MethodDeclaration methodDeclaration = getCursor().firstEnclosing(J.MethodDeclaration.class);
-                if (methodDeclaration != null && dtoFields.matches(method)) {
-                    dtoDataUses.insertRow(ctx, new DtoDataUses.Row(
-                            getCursor().firstEnclosingOrThrow(SourceFile.class).getSourcePath().toString(),
-                            methodDeclaration.getSimpleName(),
-                            uncapitalize(method.getSimpleName().replaceAll("^get", ""))
+            public @Nullable J visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!(tree instanceof SourceFile)) {
+                    return super.visit(tree, ctx);
+                }
+                index = DtoUsageIndex.forRun(dtoType, ctx);
+                fileIndex = index.get((SourceFile) tree);
+                if (fileIndex == null && index.isIndexed((SourceFile) tree)) {
+                    return (J) tree;
+                }
+                sourcePath = ((SourceFile) tree).getSourcePath().toString();
+                J j = super.visit(tree, ctx);
+                insertCounts(ctx);
+                return j;
+            }
+
+            /**
+             * Counts are kept for a single source file and flushed once it has been visited, so memory is bounded
+             * by the largest file rather than the repository.
+             */
+            private void insertCounts(ExecutionContext ctx) {
+                for (Map.Entry<MethodDataElement, Integer> useCount : counts.entrySet()) {
+                    dtoDataUseCounts.insertRow(ctx, new DtoDataUseCounts.Row(
+                            sourcePath,
+                            useCount.getKey().getMethodName(),
+                            useCount.getKey().getDataElement(),
+                            useCount.getValue()
                     ));
+                }
+                counts.clear();
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                // found while visiting unless another recipe of the run indexed the file
+                DtoUsageIndex.DtoUse use = fileIndex != null ? fileIndex.useAt(method) :
+                        index == null ? null : index.use(method, getCursor());
+                if (use != null && use.isGetter() && use.getMethodName() != null) {
+                    if (count) {
+                        counts.merge(new MethodDataElement(use.getMethodName(), use.getDataElement()), 1, Integer::sum);
+                    } else {
+                        dtoDataUses.insertRow(ctx, new DtoDataUses.Row(
+                                sourcePath,
+                                use.getMethodName(),
+                                use.getDataElement()
+                        ));
+                    }
                     return SearchResult.found(method);
                 }
                 return super.visitMethodInvocation(method, ctx);
             }
         };
     }
+
+    @Value
+    static class MethodDataElement {
+        String methodName;
+        String dataElement;
+    }
 }
@@ -17,19 +17,15 @@ package org.openrewrite.java.migrate.search;
 
 import lombok.EqualsAndHashCode;
 import lombok.Value;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.MethodMatcher;
 import org.openrewrite.java.tree.J;
-import org.openrewrite.java.tree.Statement;
 import org.openrewrite.marker.SearchResult;
 
-import java.util.Iterator;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.*;
 
-import static java.util.Collections.emptySet;
-import static org.openrewrite.internal.StringUtils.uncapitalize;
+import static java.util.Collections.emptyList;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
@@ -51,12 +47,34 @@ public class FindDtoOverfetching extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        MethodMatcher dtoFields = new MethodMatcher(dtoType + " get*()");
         return new JavaIsoVisitor<ExecutionContext>() {
+            private @Nullable DtoUsageIndex index;
+            private DtoUsageIndex.@Nullable FileIndex fileIndex;
+
+            @Override
+            public @Nullable J visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile) {
+                    index = DtoUsageIndex.forRun(dtoType, ctx);
+                    fileIndex = index.get((SourceFile) tree);
+                    if (fileIndex == null && index.isIndexed((SourceFile) tree)) {
+                        return (J) tree;
+                    }
+                }
+                return super.visit(tree, ctx);
+            }
+
             @Override
             public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
                 J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
-                Set<String> allUses = getCursor().getMessage("dtoDataUses", emptySet());
+                List<DtoUsageIndex.DtoUse> uses = fileIndex == null ?
+                        getCursor().getMessage("dtoUses", emptyList()) :
+                        fileIndex.usesIn(method);
+                Set<String> allUses = new TreeSet<>();
+                for (DtoUsageIndex.DtoUse use : uses) {
+                    if (use.isGetter() && use.isParameter()) {
+                        allUses.add(use.getDataElement());
+                    }
+                }
                 if (allUses.size() == 1) {
                     return SearchResult.found(m, String.join(", ", allUses));
                 }
@@ -66,26 +84,14 @@ public class FindDtoOverfetching extends Recipe {
             @Override
             public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
                 J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
-                if (method.getSelect() instanceof J.Identifier && dtoFields.matches(method)) {
+                // not indexed by another recipe of the run, so the uses are found while visiting
+                DtoUsageIndex.DtoUse use = fileIndex != null || index == null ? null : index.use(method, getCursor());
+                if (use != null) {
                     Iterator<Cursor> methodDeclarations = getCursor()
                             .getPathAsCursors(c -> c.getValue() instanceof J.MethodDeclaration);
                     if (methodDeclarations.hasNext()) {
-                        Cursor methodCursor = methodDeclarations.next();
-                        J.MethodDeclaration methodDeclaration = methodCursor.getValue();
-
-                        outer:
-                        for (Statement parameter : methodDeclaration.getParameters()) {
-                            if (parameter instanceof J.VariableDeclarations) {
-                                J.VariableDeclarations variableDeclarations = (J.VariableDeclarations) parameter;
-                                for (J.VariableDeclarations.NamedVariable variable : variableDeclarations.getVariables()) {
-                                    if (variable.getName().getSimpleName().equals(((J.Identifier) method.getSelect()).getSimpleName())) {
-                                        methodCursor.computeMessageIfAbsent("dtoDataUses", k -> new TreeSet<>())
-                                                .add(uncapitalize(method.getSimpleName().replaceAll("^get", "")));
-                                        break outer;
-                                    }
-                                }
-                            }
-                        }
+                        methodDeclarations.next().<List<DtoUsageIndex.DtoUse>>computeMessageIfAbsent("dtoUses", k -> new ArrayList<>())
+                                .add(use);
                     }
                 }
                 return m;
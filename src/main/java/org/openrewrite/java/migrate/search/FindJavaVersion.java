@@ -15,25 +15,47 @@
  */
 package org.openrewrite.java.migrate.search;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
-import org.openrewrite.ExecutionContext;
-import org.openrewrite.Recipe;
-import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaVisitor;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.java.marker.JavaProject;
 import org.openrewrite.java.marker.JavaVersion;
+import org.openrewrite.java.migrate.table.JavaVersionHistogram;
 import org.openrewrite.java.migrate.table.JavaVersionTable;
 import org.openrewrite.java.tree.J;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Collections.emptyList;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class FindJavaVersion extends Recipe {
+public class FindJavaVersion extends ScanningRecipe<FindJavaVersion.Accumulator> {
 
     transient JavaVersionTable table = new JavaVersionTable(this);
-    transient Set<JavaVersion> seen = new HashSet<>();
+    transient JavaVersionHistogram histogram = new JavaVersionHistogram(this);
+
+    @Option(displayName = "Histogram",
+            description = "Instead of one row per distinct Java version, count the source files per source version, " +
+                          "target version and module, and emit those counts at the end of the run.",
+            required = false)
+    @Nullable
+    Boolean countFiles;
+
+    public FindJavaVersion() {
+        this(null);
+    }
+
+    @JsonCreator
+    public FindJavaVersion(@Nullable @JsonProperty("countFiles") Boolean countFiles) {
+        this.countFiles = countFiles;
+    }
 
     @Override
     public String getDisplayName() {
@@ -46,16 +68,70 @@ public class FindJavaVersion extends Recipe {
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new JavaVisitor<ExecutionContext>() {
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
             @Override
-            public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
-                cu.getMarkers().findFirst(JavaVersion.class)
-                        .filter(seen::add)
-                        .map(jv -> new JavaVersionTable.Row(jv.getSourceCompatibility(), jv.getTargetCompatibility()))
-                        .ifPresent(row -> table.insertRow(ctx, row));
-                return cu;
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!(tree instanceof J.CompilationUnit)) {
+                    return tree;
+                }
+                JavaVersion jv = tree.getMarkers().findFirst(JavaVersion.class).orElse(null);
+                if (jv == null) {
+                    return tree;
+                }
+                if (Boolean.TRUE.equals(countFiles)) {
+                    if (acc.scannedFiles.add(tree.getId())) {
+                        String projectName = tree.getMarkers().findFirst(JavaProject.class)
+                                .map(JavaProject::getProjectName)
+                                .orElse("");
+                        acc.histogram.computeIfAbsent(new JavaVersionTable.Row(jv.getSourceCompatibility(), jv.getTargetCompatibility()),
+                                        k -> new ConcurrentHashMap<>())
+                                .computeIfAbsent(projectName, k -> new LongAdder())
+                                .increment();
+                    }
+                } else {
+                    JavaVersionTable.Row row = new JavaVersionTable.Row(jv.getSourceCompatibility(), jv.getTargetCompatibility());
+                    if (acc.seen.add(row)) {
+                        table.insertRow(ctx, row);
+                    }
+                }
+                return tree;
             }
         };
     }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        if (!acc.histogramEmitted.compareAndSet(false, true)) {
+            return emptyList();
+        }
+        for (Map.Entry<JavaVersionTable.Row, Map<String, LongAdder>> versions : acc.histogram.entrySet()) {
+            for (Map.Entry<String, LongAdder> module : versions.getValue().entrySet()) {
+                histogram.insertRow(ctx, new JavaVersionHistogram.Row(
+                        versions.getKey().getSourceVersion(),
+                        versions.getKey().getTargetVersion(),
+                        module.getKey(),
+                        module.getValue().sum()
+                ));
+            }
+        }
+        return emptyList();
+    }
+
+    /**
+     * Either the distinct versions already written to the version table, or, when counting files, the number of
+     * files per version and project. Files are counted once however many cycles scan them, and the histogram is
+     * written once, after the first scan.
+     */
+    public static class Accumulator {
+        private final Set<JavaVersionTable.Row> seen = ConcurrentHashMap.newKeySet();
+        private final Set<UUID> scannedFiles = ConcurrentHashMap.newKeySet();
+        private final Map<JavaVersionTable.Row, Map<String, LongAdder>> histogram = new ConcurrentHashMap<>();
+        private final AtomicBoolean histogramEmitted = new AtomicBoolean();
+    }
 }
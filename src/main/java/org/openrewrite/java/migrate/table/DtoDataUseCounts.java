@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.table;
+
+import lombok.Value;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+public class DtoDataUseCounts extends DataTable<DtoDataUseCounts.Row> {
+
+    public DtoDataUseCounts(Recipe recipe) {
+        super(recipe,
+                "Counted uses of the data elements of a DTO",
+                "The number of times each data element of a DTO is used by the method declaration using it.");
+    }
+
+    @Value
+    public static class Row {
+        String sourcePath;
+        String methodName;
+        String field;
+        int uses;
+    }
+}
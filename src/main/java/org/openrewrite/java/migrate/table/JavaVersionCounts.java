@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+public class JavaVersionCounts extends DataTable<JavaVersionCounts.Row> {
+
+    public JavaVersionCounts(Recipe recipe) {
+        super(recipe,
+                "Java version counts",
+                "The number of source files compiled at each source and target compatibility level.");
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Source compatibility",
+                description = "The major version of the source compatibility.")
+        String sourceCompatibility;
+
+        @Column(displayName = "Target compatibility",
+                description = "The major version of the target compatibility or `--release` version.")
+        String targetCompatibility;
+
+        @Column(displayName = "Files",
+                description = "The number of source files compiled at these levels.")
+        long files;
+    }
+}
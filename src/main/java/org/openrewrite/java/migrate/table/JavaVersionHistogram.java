@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+public class JavaVersionHistogram extends DataTable<JavaVersionHistogram.Row> {
+
+    public JavaVersionHistogram(Recipe recipe) {
+        super(recipe, "Java version histogram",
+                "Counts the source files compiled with each source and target version of Java, per module.");
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Source compatibility",
+                description = "The version of Java used to compile the source code")
+        String sourceVersion;
+
+        @Column(displayName = "Target compatibility",
+                description = "The version of Java the bytecode is compiled to run on")
+        String targetVersion;
+
+        @Column(displayName = "Project name",
+                description = "The module name (useful especially for multi-module repositories).")
+        String projectName;
+
+        @Column(displayName = "Files",
+                description = "The number of source files compiled with these versions in this module.")
+        long files;
+    }
+}
@@ -15,10 +15,12 @@
  */
 package org.openrewrite.java.migrate.table;
 
+import lombok.Value;
+import org.openrewrite.Column;
 import org.openrewrite.DataTable;
 import org.openrewrite.Recipe;
 
-public class JavaVersionPerFile extends DataTable<JavaVersionRow> {
+public class JavaVersionPerFile extends DataTable<JavaVersionPerFile.Row> {
 
     public JavaVersionPerFile(Recipe recipe) {
         super(
@@ -27,4 +29,42 @@ public class JavaVersionPerFile extends DataTable<JavaVersionRow> {
                 "A per-file view of Java version in use."
         );
     }
+
+    /**
+     * The columns of {@link JavaVersionRow}, in the same order, followed by the source path.
+     */
+    @Value
+    public static class Row {
+        @Column(displayName = "Project name",
+                description = "The module name (useful especially for multi-module repositories).")
+        String projectName;
+
+        @Column(displayName = "Source set name",
+                description = "The source set, e.g. `main` or `test`.")
+        String sourceSetName;
+
+        @Column(displayName = "Created by",
+                description = "The JDK release that was used to compile the source file.")
+        String createdBy;
+
+        @Column(displayName = "VM vendor",
+                description = "The vendor of the JVM that was used to compile the source file.")
+        String vmVendor;
+
+        @Column(displayName = "Source compatibility",
+                description = "The source compatibility of the source file.")
+        String sourceCompatibility;
+
+        @Column(displayName = "Major version source compatibility",
+                description = "The major version.")
+        String majorVersionSourceCompatibility;
+
+        @Column(displayName = "Target compatibility",
+                description = "The target compatibility or `--release` version of the source file.")
+        String targetCompatibility;
+
+        @Column(displayName = "Source path",
+                description = "The path of the source file.")
+        String sourcePath;
+    }
 }
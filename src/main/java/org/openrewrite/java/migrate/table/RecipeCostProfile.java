@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+public class RecipeCostProfile extends DataTable<RecipeCostProfile.Row> {
+
+    public RecipeCostProfile(Recipe recipe) {
+        super(
+                recipe,
+                "Recipe cost profile",
+                "The time and memory each recipe of a profiled composite spent per cycle, and how many files it visited and changed."
+        );
+        // rows are added for every cycle, and those of a cycle only once the next one started
+        this.maxCycle = Integer.MAX_VALUE;
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Cycle",
+                description = "The recipe run cycle the costs were measured in.")
+        int cycle;
+
+        @Column(displayName = "Recipe",
+                description = "The fully qualified name of the recipe.")
+        String recipe;
+
+        @Column(displayName = "Parent recipe",
+                description = "The fully qualified name of the composite recipe that includes this recipe.")
+        String parentRecipe;
+
+        @Column(displayName = "Files visited",
+                description = "The number of source files the recipe's visitor was applicable to.")
+        long filesVisited;
+
+        @Column(displayName = "Files changed",
+                description = "The number of source files the recipe's visitor changed.")
+        long filesChanged;
+
+        @Column(displayName = "Wall time (ms)",
+                description = "The wall time spent in the recipe's scanner and visitor, excluding its sub-recipes.")
+        long wallTimeMillis;
+
+        @Column(displayName = "Allocated bytes",
+                description = "The bytes allocated by the recipe's scanner and visitor, as reported by the `ThreadMXBean`. " +
+                              "Zero when the JVM does not support thread allocation accounting.")
+        long allocatedBytes;
+    }
+}
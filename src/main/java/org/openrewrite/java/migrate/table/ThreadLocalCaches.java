@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+public class ThreadLocalCaches extends DataTable<ThreadLocalCaches.Row> {
+
+    public ThreadLocalCaches(Recipe recipe) {
+        super(
+                recipe,
+                "Objects cached per thread",
+                "`ThreadLocal` values and subclasses, and the type of object they cache for each thread."
+        );
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Source path",
+                description = "The path of the source file.")
+        String sourcePath;
+
+        @Column(displayName = "Declaration",
+                description = "The variable holding the `ThreadLocal`, or the name of the `ThreadLocal` subclass.")
+        String declaration;
+
+        @Column(displayName = "Cached type",
+                description = "The fully qualified type of the object cached per thread.")
+        String cachedType;
+
+        @Column(displayName = "Alternative",
+                description = "A known thread-safe or cheaper alternative to caching the type per thread, if any.")
+        String alternative;
+    }
+}
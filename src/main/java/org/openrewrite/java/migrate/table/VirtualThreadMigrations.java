@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+public class VirtualThreadMigrations extends DataTable<VirtualThreadMigrations.Row> {
+
+    public VirtualThreadMigrations(Recipe recipe) {
+        super(
+                recipe,
+                "Virtual thread migrations",
+                "Thread pools and thread starts considered for migration to virtual threads, and why they were or were not migrated."
+        );
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Source path",
+                description = "The path of the source file.")
+        String sourcePath;
+
+        @Column(displayName = "Code",
+                description = "The code creating the thread pool or starting the thread.")
+        String code;
+
+        @Column(displayName = "Migrated",
+                description = "Whether the code was changed to use virtual threads.")
+        boolean migrated;
+
+        @Column(displayName = "Reason",
+                description = "Why the code was or was not migrated.")
+        String reason;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+public class VirtualThreadPinning extends DataTable<VirtualThreadPinning.Row> {
+
+    public VirtualThreadPinning(Recipe recipe) {
+        super(
+                recipe,
+                "Blocking calls that pin virtual threads",
+                "Blocking calls made while holding a monitor, which pin a virtual thread to its carrier thread."
+        );
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Source path",
+                description = "The path of the source file.")
+        String sourcePath;
+
+        @Column(displayName = "Synchronized region",
+                description = "The `synchronized` block or method the call is made in.")
+        String region;
+
+        @Column(displayName = "Blocking call",
+                description = "The blocking call.")
+        String call;
+
+        @Column(displayName = "Kind",
+                description = "The kind of blocking call, such as `I/O`, `JDBC` or `Object.wait`.")
+        String kind;
+    }
+}
@@ -21,8 +21,8 @@ import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
 import org.openrewrite.java.search.UsesJavaVersion;
-import org.openrewrite.java.search.UsesMethod;
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
@@ -35,9 +35,10 @@ import java.util.List;
 public class ListFirstAndLast extends Recipe {
 
     // While more SequencedCollections have `*First` and `*Last` methods, only list has `get`, `add`, and `remove` methods that take an index
-    private static final MethodMatcher ADD_MATCHER = new MethodMatcher("java.util.List add(int, ..)", true); // , * fails
-    private static final MethodMatcher GET_MATCHER = new MethodMatcher("java.util.List get(int)", true);
-    private static final MethodMatcher REMOVE_MATCHER = new MethodMatcher("java.util.List remove(int)", true);
+    private static final MethodMatcherIndex<String> OPERATIONS = new MethodMatcherIndex<String>()
+            .add("java.util.List add(int, ..)", true, "add") // , * fails
+            .add("java.util.List get(int)", true, "get")
+            .add("java.util.List remove(int)", true, "remove");
     private static final MethodMatcher SIZE_MATCHER = new MethodMatcher("java.util.List size()", true);
 
     @Override
@@ -55,11 +56,7 @@ public class ListFirstAndLast extends Recipe {
         return Preconditions.check(
                 Preconditions.and(
                         new UsesJavaVersion<>(21),
-                        Preconditions.or(
-                                new UsesMethod<>(ADD_MATCHER),
-                                new UsesMethod<>(GET_MATCHER),
-                                new UsesMethod<>(REMOVE_MATCHER)
-                        )
+                        OPERATIONS.uses()
                 ),
                 new FirstLastVisitor());
     }
@@ -69,14 +66,8 @@ public class ListFirstAndLast extends Recipe {
         public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
             J.MethodInvocation mi = super.visitMethodInvocation(method, ctx);
 
-            final String operation;
-            if (ADD_MATCHER.matches(mi)) {
-                operation = "add";
-            } else if (GET_MATCHER.matches(mi)) {
-                operation = "get";
-            } else if (REMOVE_MATCHER.matches(mi)) {
-                operation = "remove";
-            } else {
+            String operation = OPERATIONS.get(mi);
+            if (operation == null) {
                 return mi;
             }
 
@@ -19,9 +19,9 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.JavaVisitor;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.JavaTemplateCache;
 import org.openrewrite.java.search.UsesJavaVersion;
 import org.openrewrite.java.search.UsesMethod;
 import org.openrewrite.java.tree.Expression;
@@ -61,12 +61,9 @@ public class MigrateCollectionsUnmodifiableList extends Recipe {
                             maybeAddImport("java.util.List");
                             StringJoiner setOf = new StringJoiner(", ", "List.of(", ")");
                             List<Expression> args = arraysInvocation.getArguments();
-                            args.forEach(o -> setOf.add("#{any()}"));
+                            args.forEach(o -> setOf.add(JavaTemplateCache.typedParameter(o)));
 
-                            return JavaTemplate.builder(setOf.toString())
-                                    .contextSensitive()
-                                    .imports("java.util.List")
-                                    .build()
+                            return JavaTemplateCache.contextFree(setOf.toString(), "java.util.List")
                                     .apply(updateCursor(m), m.getCoordinates().replace(), args.toArray());
                         }
                     }
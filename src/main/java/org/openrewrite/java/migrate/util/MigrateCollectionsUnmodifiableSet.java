@@ -19,9 +19,9 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.JavaVisitor;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.JavaTemplateCache;
 import org.openrewrite.java.search.UsesJavaVersion;
 import org.openrewrite.java.search.UsesMethod;
 import org.openrewrite.java.tree.Expression;
@@ -62,12 +62,9 @@ public class MigrateCollectionsUnmodifiableSet extends Recipe {
                                 maybeAddImport("java.util.Set");
                                 StringJoiner setOf = new StringJoiner(", ", "Set.of(", ")");
                                 List<Expression> args = ((J.MethodInvocation) newSet.getArguments().get(0)).getArguments();
-                                args.forEach(o -> setOf.add("#{any()}"));
+                                args.forEach(o -> setOf.add(JavaTemplateCache.typedParameter(o)));
 
-                                return JavaTemplate.builder(setOf.toString())
-                                        .contextSensitive()
-                                        .imports("java.util.Set")
-                                        .build()
+                                return JavaTemplateCache.contextFree(setOf.toString(), "java.util.Set")
                                         .apply(updateCursor(m), m.getCoordinates().replace(), args.toArray());
                             }
                         }
@@ -23,9 +23,9 @@ import org.openrewrite.*;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.MethodMatcherIndex;
 import org.openrewrite.java.search.UsesJavaVersion;
 import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 
 import java.time.Duration;
@@ -41,6 +41,13 @@ public class ReplaceStreamCollectWithToList extends Recipe {
     private static final MethodMatcher COLLECT_TO_UNMODIFIABLE_LIST = new MethodMatcher("java.util.stream.Collectors toUnmodifiableList()");
     private static final MethodMatcher COLLECT_TO_LIST = new MethodMatcher("java.util.stream.Collectors toList()");
 
+    /**
+     * The list collectors that can be replaced, mapped to whether the list they collect to is mutable.
+     */
+    private static final MethodMatcherIndex<Boolean> LIST_COLLECTORS = new MethodMatcherIndex<Boolean>()
+            .add("java.util.stream.Collectors toUnmodifiableList()", false)
+            .add("java.util.stream.Collectors toList()", true);
+
     @Option(displayName = "Convert mutable `Collectors.toList()` to immutable",
             description = "Also replace `Stream.collect(Collectors.toList())` with `Stream.toList()`. " +
                           "*BEWARE*: Attempts to modify the returned list, result in an `UnsupportedOperationException`!",
@@ -95,9 +102,8 @@ public class ReplaceStreamCollectWithToList extends Recipe {
             if (!STREAM_COLLECT.matches(method)) {
                 return result;
             }
-            Expression command = method.getArguments().get(0);
-            if (COLLECT_TO_UNMODIFIABLE_LIST.matches(command)
-                || convertToList && COLLECT_TO_LIST.matches(command)) {
+            Boolean mutable = LIST_COLLECTORS.get(method.getArguments().get(0));
+            if (mutable != null && (!mutable || convertToList)) {
                 maybeRemoveImport("java.util.stream.Collectors");
                 J.MethodInvocation toList = template.apply(updateCursor(result), result.getCoordinates().replace(), result.getSelect());
                 return toList.getPadding().withSelect(result.getPadding().getSelect());
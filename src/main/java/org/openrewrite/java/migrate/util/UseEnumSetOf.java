@@ -18,8 +18,8 @@ package org.openrewrite.java.migrate.util;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.JavaTemplateCache;
 import org.openrewrite.java.search.UsesJavaVersion;
 import org.openrewrite.java.search.UsesMethod;
 import org.openrewrite.java.tree.Expression;
@@ -72,12 +72,9 @@ public class UseEnumSetOf extends Recipe {
                             }
 
                             StringJoiner setOf = new StringJoiner(", ", "EnumSet.of(", ")");
-                            args.forEach(o -> setOf.add("#{any()}"));
+                            args.forEach(o -> setOf.add(JavaTemplateCache.typedParameter(o)));
 
-                            return JavaTemplate.builder(setOf.toString())
-                                    .contextSensitive()
-                                    .imports("java.util.EnumSet")
-                                    .build()
+                            return JavaTemplateCache.contextFree(setOf.toString(), "java.util.EnumSet")
                                     .apply(updateCursor(m), m.getCoordinates().replace(), args.toArray());
                         }
                     }
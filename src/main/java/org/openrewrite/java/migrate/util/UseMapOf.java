@@ -19,9 +19,9 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.JavaVisitor;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.migrate.JavaTemplateCache;
 import org.openrewrite.java.search.UsesJavaVersion;
 import org.openrewrite.java.search.UsesMethod;
 import org.openrewrite.java.tree.Expression;
@@ -63,8 +63,8 @@ public class UseMapOf extends Recipe {
                                 if (stat instanceof J.MethodInvocation && MAP_PUT.matches((Expression) stat)) {
                                     J.MethodInvocation put = (J.MethodInvocation) stat;
                                     args.addAll(put.getArguments());
-                                    mapOf.add("#{}");
-                                    mapOf.add("#{}");
+                                    mapOf.add(JavaTemplateCache.typedParameter(put.getArguments().get(0)));
+                                    mapOf.add(JavaTemplateCache.typedParameter(put.getArguments().get(1)));
                                 } else {
                                     return n;
                                 }
@@ -72,10 +72,7 @@ public class UseMapOf extends Recipe {
 
                             maybeRemoveImport("java.util.HashMap");
                             maybeAddImport("java.util.Map");
-                            return JavaTemplate.builder(mapOf.toString())
-                                    .contextSensitive()
-                                    .imports("java.util.Map")
-                                    .build()
+                            return JavaTemplateCache.contextFree(mapOf.toString(), "java.util.Map")
                                     .apply(updateCursor(n), n.getCoordinates().replace(), args.toArray());
                         }
                     }
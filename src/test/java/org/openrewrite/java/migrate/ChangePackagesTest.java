@@ -0,0 +1,267 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class ChangePackagesTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new ChangePackages(List.of(
+              "javax.servlet=jakarta.servlet",
+              "javax.annotation=jakarta.annotation",
+              "javax.annotation.processing=javax.annotation.processing",
+              "javax.xml.bind=jakarta.xml.bind"),
+            null))
+          .parser(JavaParser.fromJavaVersion().dependsOn(
+            //language=java
+            """
+              package javax.servlet;
+              public interface Filter {}
+              """,
+            """
+              package javax.servlet;
+              public abstract class GenericServlet implements Filter {
+                  public Filter self() { return this; }
+              }
+              """,
+            """
+              package javax.servlet.http;
+              public class HttpServlet extends javax.servlet.GenericServlet {}
+              """,
+            """
+              package javax.annotation;
+              public @interface PostConstruct {}
+              """,
+            """
+              package javax.xml.bind.annotation;
+              public @interface XmlRootElement {}
+              """
+          ));
+    }
+
+    @DocumentExample
+    @Test
+    void severalPackagesInOnePass() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import javax.annotation.PostConstruct;
+              import javax.servlet.http.HttpServlet;
+              import javax.xml.bind.annotation.XmlRootElement;
+
+              @XmlRootElement
+              public class A extends HttpServlet implements javax.servlet.Filter {
+                  @PostConstruct
+                  void init() {
+                  }
+              }
+              """,
+            """
+              import jakarta.annotation.PostConstruct;
+              import jakarta.servlet.http.HttpServlet;
+              import jakarta.xml.bind.annotation.XmlRootElement;
+
+              @XmlRootElement
+              public class A extends HttpServlet implements jakarta.servlet.Filter {
+                  @PostConstruct
+                  void init() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void mostSpecificMappingWins() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import javax.annotation.PostConstruct;
+              import javax.annotation.processing.Processor;
+
+              class A {
+                  Processor processor;
+              }
+              """,
+            """
+              import jakarta.annotation.PostConstruct;
+              import javax.annotation.processing.Processor;
+
+              class A {
+                  Processor processor;
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void starImport() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import javax.servlet.http.*;
+
+              class A {
+                  HttpServlet servlet;
+              }
+              """,
+            """
+              import jakarta.servlet.http.*;
+
+              class A {
+                  HttpServlet servlet;
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void packageDeclarationMovesSourceFile() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              package javax.servlet.custom;
+
+              public class A {
+              }
+              """,
+            """
+              package jakarta.servlet.custom;
+
+              public class A {
+              }
+              """,
+            spec -> spec.path("src/main/java/javax/servlet/custom/A.java")
+              .afterRecipe(cu -> assertThat(cu.getSourcePath().toString().replace('\\', '/'))
+                .isEqualTo("src/main/java/jakarta/servlet/custom/A.java"))
+          )
+        );
+    }
+
+    @Test
+    void stringLiteralsOnlyWhenRequested() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class A {
+                  String filter = "javax.servlet.Filter";
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void stringLiterals() {
+        rewriteRun(
+          spec -> spec.recipe(new ChangePackages(List.of("javax.servlet=jakarta.servlet"), true)),
+          //language=java
+          java(
+            """
+              class A {
+                  Class<?> filter() throws Exception {
+                      return Class.forName("javax.servlet.Filter");
+                  }
+                  String message = "javax.servlet is on the classpath";
+              }
+              """,
+            """
+              class A {
+                  Class<?> filter() throws Exception {
+                      return Class.forName("jakarta.servlet.Filter");
+                  }
+                  String message = "javax.servlet is on the classpath";
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void unrelatedPackagesUntouched() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import javax.annotation.processing.Processor;
+              import java.util.List;
+
+              class A {
+                  List<Processor> processors;
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void typeHierarchyAndMembersMove() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import javax.servlet.http.HttpServlet;
+
+              class A extends HttpServlet {
+              }
+              """,
+            """
+              import jakarta.servlet.http.HttpServlet;
+
+              class A extends HttpServlet {
+              }
+              """,
+            spec -> spec.afterRecipe(cu -> {
+                JavaType.Class httpServlet = (JavaType.Class) cu.getClasses().get(0).getType().getSupertype();
+                assertThat(httpServlet.getFullyQualifiedName()).isEqualTo("jakarta.servlet.http.HttpServlet");
+                JavaType.FullyQualified genericServlet = httpServlet.getSupertype();
+                assertThat(genericServlet.getFullyQualifiedName()).isEqualTo("jakarta.servlet.GenericServlet");
+                assertThat(genericServlet.getInterfaces())
+                  .extracting(JavaType.FullyQualified::getFullyQualifiedName)
+                  .containsExactly("jakarta.servlet.Filter");
+                JavaType.Method self = genericServlet.getMethods().stream()
+                  .filter(m -> "self".equals(m.getName()))
+                  .findFirst()
+                  .orElseThrow();
+                assertThat(self.getDeclaringType()).isSameAs(genericServlet);
+                assertThat(TypeUtils.asFullyQualified(self.getReturnType()).getFullyQualifiedName())
+                  .isEqualTo("jakarta.servlet.Filter");
+            })
+          )
+        );
+    }
+}
@@ -19,6 +19,8 @@ import org.junit.jupiter.api.Test;
 import org.openrewrite.test.RewriteTest;
 import org.openrewrite.test.TypeValidation;
 
+import java.util.List;
+
 import static org.openrewrite.java.Assertions.java;
 
 class DontOverfetchDtoTest implements RewriteTest {
@@ -70,4 +72,66 @@ class DontOverfetchDtoTest implements RewriteTest {
           )
         );
     }
+
+    @SuppressWarnings("LombokGetterMayBeUsed")
+    @Test
+    void severalDataElementsInOneRun() {
+        rewriteRun(
+          spec -> spec.recipe(new DontOverfetchDto("animals.*", null, List.of("name", "breed")))
+            .typeValidationOptions(TypeValidation.none()),
+          //language=java
+          java(
+            """
+              package animals;
+              public class Dog {
+                  String name;
+                  String breed;
+                  public String getName() {
+                      return name;
+                  }
+                  public String getBreed() {
+                      return breed;
+                  }
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              import animals.Dog;
+
+              class Test {
+                  boolean named(Dog dog) {
+                      return dog.getName() != null;
+                  }
+
+                  boolean bred(Dog dog) {
+                      return dog.getBreed() != null;
+                  }
+
+                  boolean both(Dog dog) {
+                      return dog.getName() != null && dog.getBreed() != null;
+                  }
+              }
+              """,
+            """
+              import animals.Dog;
+
+              class Test {
+                  boolean named(java.lang.String name) {
+                      return name != null;
+                  }
+
+                  boolean bred(java.lang.String breed) {
+                      return breed != null;
+                  }
+
+                  boolean both(Dog dog) {
+                      return dog.getName() != null && dog.getBreed() != null;
+                  }
+              }
+              """
+          )
+        );
+    }
 }
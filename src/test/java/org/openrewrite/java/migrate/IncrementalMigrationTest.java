@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.test.RewriteTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.java.Assertions.javaVersion;
+import static org.openrewrite.test.SourceSpecs.text;
+
+class IncrementalMigrationTest implements RewriteTest {
+
+    @TempDir
+    Path tempDir;
+
+    private void runUseVar(Path cacheFile) {
+        rewriteRun(
+          spec -> spec.recipe(new IncrementalMigration("org.openrewrite.java.migrate.lang.UseVar", cacheFile.toString()))
+            .allSources(s -> s.markers(javaVersion(10))),
+          //language=java
+          java(
+            """
+              class A {
+                  void m() {
+                      Object o = new Object();
+                  }
+              }
+              """,
+            """
+              class A {
+                  void m() {
+                      var o = new Object();
+                  }
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              class B {
+                  Object field = new Object();
+              }
+              """
+          )
+        );
+    }
+
+    @DocumentExample
+    @Test
+    void recordsFilesWithoutChanges() throws IOException {
+        Path cacheFile = tempDir.resolve("cache/use-var.cache");
+        runUseVar(cacheFile);
+
+        // B as is, and A as it was left by the first cycle
+        List<String> lines = Files.readAllLines(cacheFile);
+        assertThat(lines).hasSize(3).doesNotHaveDuplicates();
+
+        // a second run skips B, and A once the first cycle changed it to the content recorded in the first run,
+        // and records the same entries
+        runUseVar(cacheFile);
+        assertThat(Files.readAllLines(cacheFile)).containsExactlyInAnyOrderElementsOf(lines);
+    }
+
+    @Test
+    void discardsCacheOfOtherRecipes() throws IOException {
+        Path cacheFile = tempDir.resolve("use-var.cache");
+        Files.write(cacheFile, Arrays.asList("fingerprint-of-another-recipe", "stale-entry"));
+
+        runUseVar(cacheFile);
+
+        assertThat(Files.readAllLines(cacheFile))
+          .hasSize(3)
+          .doesNotContain("fingerprint-of-another-recipe", "stale-entry");
+    }
+
+    @Test
+    void skipsFilesWithoutChanges() {
+        Path cacheFile = tempDir.resolve("count-visits.cache");
+        Runnable run = () -> rewriteRun(
+          spec -> spec.recipe(new IncrementalMigration(CountVisits.class.getName(), cacheFile.toString())),
+          //language=java
+          java(
+            """
+              class A {
+              }
+              """
+          ),
+          text(
+            """
+              hello
+              """,
+            spec -> spec.path("hello.txt")
+          )
+        );
+
+        CountVisits.VISITED.clear();
+        run.run();
+        assertThat(CountVisits.VISITED).containsExactlyInAnyOrder("A.java", "hello.txt");
+
+        // only Java source files are skipped
+        CountVisits.VISITED.clear();
+        run.run();
+        assertThat(CountVisits.VISITED).containsExactly("hello.txt");
+    }
+
+    /**
+     * Records the paths of the source files it visits, looked up by name like any other recipe.
+     */
+    public static class CountVisits extends Recipe {
+        static final Set<String> VISITED = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String getDisplayName() {
+            return "Count visits";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Records the paths of the source files it visits.";
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new TreeVisitor<Tree, ExecutionContext>() {
+                @Override
+                public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    if (tree instanceof SourceFile) {
+                        VISITED.add(((SourceFile) tree).getSourcePath().toString());
+                    }
+                    return tree;
+                }
+            };
+        }
+    }
+}
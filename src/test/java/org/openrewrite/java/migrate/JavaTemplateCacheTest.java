@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.java.JavaTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaTemplateCacheTest {
+
+    @Test
+    void sameShapeSharesTemplate() {
+        assertThat(JavaTemplateCache.contextSensitive("List.of(#{any()}, #{any()})", "java.util.List"))
+          .isSameAs(JavaTemplateCache.contextSensitive("List.of(#{any()}, #{any()})", "java.util.List"))
+          .isNotSameAs(JavaTemplateCache.contextSensitive("List.of(#{any()})", "java.util.List"))
+          .isNotSameAs(JavaTemplateCache.contextFree("List.of(#{any()}, #{any()})", "java.util.List"))
+          .isNotSameAs(JavaTemplateCache.contextSensitive("List.of(#{any()}, #{any()})"));
+    }
+
+    @Test
+    void leastRecentlyUsedShapeIsEvicted() {
+        JavaTemplate evicted = JavaTemplateCache.contextFree("evicted(#{any(int)})");
+        JavaTemplate kept = JavaTemplateCache.contextFree("kept(#{any(int)})");
+        for (int i = 0; i < JavaTemplateCache.MAX_TEMPLATES; i++) {
+            JavaTemplateCache.contextFree("filler" + i + "(#{any(int)})");
+            // Using a shape keeps it in the cache, however many others are added after it
+            assertThat(JavaTemplateCache.contextFree("kept(#{any(int)})")).isSameAs(kept);
+        }
+        assertThat(JavaTemplateCache.contextFree("evicted(#{any(int)})")).isNotSameAs(evicted);
+    }
+
+    @Test
+    void concurrentRequestsForOneShapeShareTemplate() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<JavaTemplate>> templates = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                templates.add(executor.submit(() -> {
+                    start.await();
+                    return JavaTemplateCache.contextFree("Set.of(#{any()}, #{any()}, #{any()})", "java.util.Set");
+                }));
+            }
+            start.countDown();
+            JavaTemplate first = templates.get(0).get();
+            for (Future<JavaTemplate> template : templates) {
+                assertThat(template.get()).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodMatcherIndexTest {
+
+    private final MethodMatcherIndex<String> index = new MethodMatcherIndex<String>()
+      .add("java.util.List add(int, ..)", true, "add at index")
+      .add("java.util.List add(..)", true, "add")
+      .add("java.util.List get(int)", true, "get")
+      .add("java.util.Collections *(..)", "collections")
+      .add("java.util.Collections emptyList()", "never reached");
+
+    @Test
+    void matchesByNameArityAndOrder() {
+        List<J.MethodInvocation> invocations = invocations(
+          //language=java
+          """
+            import java.util.*;
+
+            class Test {
+                void test(ArrayList<String> list) {
+                    list.add(0, "a");
+                    list.add("b");
+                    list.get(0);
+                    list.size();
+                    Collections.emptyList();
+                }
+            }
+            """
+        );
+
+        List<String> values = new ArrayList<>();
+        for (J.MethodInvocation invocation : invocations) {
+            values.add(index.get(invocation));
+        }
+        assertThat(values).containsExactly("add at index", "add", "get", null, "collections");
+    }
+
+    @Test
+    void usesAnyMethod() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        List<SourceFile> sourceFiles = JavaParser.fromJavaVersion().build()
+          .parse(ctx,
+            //language=java
+            """
+              import java.util.List;
+
+              class Get {
+                  String test(List<String> list) {
+                      return list.get(0);
+                  }
+              }
+              """,
+            //language=java
+            """
+              import java.util.List;
+
+              class Size {
+                  int test(List<String> list) {
+                      return list.size();
+                  }
+              }
+              """
+          )
+          .collect(Collectors.toList());
+
+        TreeVisitor<?, ExecutionContext> uses = index.uses();
+        assertThat(uses.visit(sourceFiles.get(0), ctx)).isNotSameAs(sourceFiles.get(0));
+        assertThat(uses.visit(sourceFiles.get(1), ctx)).isSameAs(sourceFiles.get(1));
+    }
+
+    private static List<J.MethodInvocation> invocations(String source) {
+        List<J.MethodInvocation> invocations = new ArrayList<>();
+        JavaParser.fromJavaVersion().build()
+          .parse(new InMemoryExecutionContext(), source)
+          .forEach(cu -> new JavaIsoVisitor<List<J.MethodInvocation>>() {
+              @Override
+              public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, List<J.MethodInvocation> found) {
+                  found.add(method);
+                  return super.visitMethodInvocation(method, found);
+              }
+          }.visit(cu, invocations));
+        return invocations;
+    }
+}
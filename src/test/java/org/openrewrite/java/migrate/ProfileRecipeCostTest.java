@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.migrate.table.RecipeCostProfile;
+import org.openrewrite.text.PlainText;
+import org.openrewrite.text.PlainTextVisitor;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.java.Assertions.javaVersion;
+import static org.openrewrite.test.SourceSpecs.text;
+
+class ProfileRecipeCostTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new ProfileRecipeCost("org.openrewrite.java.migrate.lang.UseVar"))
+          .allSources(s -> s.markers(javaVersion(10)));
+    }
+
+    @DocumentExample
+    @Test
+    void profilesEachSubRecipe() {
+        rewriteRun(
+          spec -> spec.dataTable(RecipeCostProfile.Row.class, rows -> {
+              assertThat(rows)
+                .filteredOn(row -> row.getCycle() == 1)
+                .extracting(RecipeCostProfile.Row::getRecipe, RecipeCostProfile.Row::getParentRecipe)
+                .containsExactly(
+                  tuple("org.openrewrite.java.migrate.lang.UseVar",
+                    "org.openrewrite.java.migrate.ProfileRecipeCost"),
+                  tuple("org.openrewrite.java.migrate.lang.var.UseVarForLocalVariables",
+                    "org.openrewrite.java.migrate.lang.UseVar"));
+              assertThat(rows)
+                .filteredOn(row -> row.getCycle() == 1 && row.getRecipe().endsWith("UseVarForLocalVariables"))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.getFilesVisited()).isEqualTo(2);
+                    assertThat(row.getFilesChanged()).isEqualTo(1);
+                });
+          }),
+          //language=java
+          java(
+            """
+              class A {
+                  void m() {
+                      Object o = new Object();
+                  }
+              }
+              """,
+            """
+              class A {
+                  void m() {
+                      var o = new Object();
+                  }
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              class B {
+                  Object field = new Object();
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void profilesEachRunWithTheSameContext() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        rewriteRun(
+          spec -> spec.executionContext(ctx),
+          //language=java
+          java(
+            """
+              class A {
+                  Object field = new Object();
+              }
+              """
+          )
+        );
+        // The second run visits two files, so its rows cannot be mistaken for those of the first run
+        rewriteRun(
+          spec -> spec.executionContext(ctx)
+            .dataTable(RecipeCostProfile.Row.class, rows -> assertThat(rows)
+              .filteredOn(row -> row.getCycle() == 1 && row.getRecipe().endsWith("UseVarForLocalVariables"))
+              .extracting(RecipeCostProfile.Row::getFilesVisited)
+              .contains(2L)),
+          //language=java
+          java(
+            """
+              class A {
+                  Object field = new Object();
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              class B {
+                  Object field = new Object();
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void profilesEveryCycle() {
+        rewriteRun(
+          spec -> spec.recipe(new ProfileRecipeCost(ExclaimTwice.class.getName()))
+            .cycles(2)
+            .expectedCyclesThatMakeChanges(2)
+            .dataTable(RecipeCostProfile.Row.class, rows -> assertThat(rows)
+              .filteredOn(row -> row.getRecipe().equals(ExclaimTwice.class.getName()))
+              .extracting(RecipeCostProfile.Row::getCycle, RecipeCostProfile.Row::getFilesChanged)
+              .contains(tuple(1, 1L), tuple(2, 1L))),
+          text(
+            "hello",
+            "hello!!"
+          )
+        );
+    }
+
+    /**
+     * Adds one exclamation mark per cycle, up to two, so that it makes changes in two cycles.
+     */
+    public static class ExclaimTwice extends Recipe {
+        @Override
+        public String getDisplayName() {
+            return "Exclaim twice";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Adds an exclamation mark to plain text files per cycle, up to two.";
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new PlainTextVisitor<ExecutionContext>() {
+                @Override
+                public PlainText visitText(PlainText text, ExecutionContext ctx) {
+                    return text.getText().endsWith("!!") ? text : text.withText(text.getText() + "!");
+                }
+            };
+        }
+    }
+}
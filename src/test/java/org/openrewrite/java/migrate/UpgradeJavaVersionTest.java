@@ -18,18 +18,25 @@ package org.openrewrite.java.migrate;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.openrewrite.DocumentExample;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.config.CompositeRecipe;
 import org.openrewrite.java.marker.JavaVersion;
 import org.openrewrite.java.migrate.search.AboutJavaVersion;
+import org.openrewrite.maven.MavenIsoVisitor;
 import org.openrewrite.test.RewriteTest;
+import org.openrewrite.xml.tree.Xml;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.gradle.Assertions.buildGradle;
 import static org.openrewrite.java.Assertions.java;
 import static org.openrewrite.java.Assertions.version;
 import static org.openrewrite.maven.Assertions.pomXml;
+import static org.openrewrite.test.RewriteTest.toRecipe;
 
 class UpgradeJavaVersionTest implements RewriteTest {
     @Nested
@@ -128,6 +135,107 @@ class UpgradeJavaVersionTest implements RewriteTest {
               )
             );
         }
+
+        @Test
+        void chainedUpgradesOnlyRewriteBuildForHighestVersion() {
+            List<String> betweenUpgrades = new ArrayList<>();
+            rewriteRun(
+              spec -> spec.recipes(
+                new UpgradeJavaVersion(11),
+                toRecipe(() -> new MavenIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public Xml.Document visitDocument(Xml.Document document, ExecutionContext ctx) {
+                        // the pom is only in between the upgrades in the first cycle
+                        if (ctx.getCycle() == 1) {
+                            betweenUpgrades.add(document.printAll());
+                        }
+                        return document;
+                    }
+                }),
+                new UpgradeJavaVersion(21)
+              ).afterRecipe(run -> assertThat(betweenUpgrades)
+                .isNotEmpty()
+                .noneMatch(pom -> pom.contains("<maven.compiler.release>"))),
+              pomXml(
+                //language=xml
+                """
+                  <project>
+                    <groupId>com.mycompany.app</groupId>
+                    <artifactId>my-app</artifactId>
+                    <version>1</version>
+                  </project>
+                  """,
+                //language=xml
+                """
+                  <project>
+                    <groupId>com.mycompany.app</groupId>
+                    <artifactId>my-app</artifactId>
+                    <version>1</version>
+                    <properties>
+                      <maven.compiler.release>21</maven.compiler.release>
+                    </properties>
+                  </project>
+                  """,
+                spec -> spec.markers(new JavaVersion(UUID.randomUUID(), "", "", "1.8.0+x", ""))
+              )
+            );
+        }
+
+        @Test
+        void planDoesNotOutliveTheRun() {
+            ExecutionContext ctx = new InMemoryExecutionContext();
+            rewriteRun(
+              spec -> spec.recipe(new UpgradeJavaVersion(21)).executionContext(ctx),
+              pomXml(
+                //language=xml
+                """
+                  <project>
+                    <groupId>com.mycompany.app</groupId>
+                    <artifactId>first</artifactId>
+                    <version>1</version>
+                  </project>
+                  """,
+                //language=xml
+                """
+                  <project>
+                    <groupId>com.mycompany.app</groupId>
+                    <artifactId>first</artifactId>
+                    <version>1</version>
+                    <properties>
+                      <maven.compiler.release>21</maven.compiler.release>
+                    </properties>
+                  </project>
+                  """,
+                spec -> spec.markers(new JavaVersion(UUID.randomUUID(), "", "", "1.8.0+x", ""))
+              )
+            );
+            // Reusing the context for a lower upgrade must not skip the build rewrite planned by the first run
+            rewriteRun(
+              spec -> spec.recipe(new UpgradeJavaVersion(11)).executionContext(ctx),
+              pomXml(
+                //language=xml
+                """
+                  <project>
+                    <groupId>com.mycompany.app</groupId>
+                    <artifactId>second</artifactId>
+                    <version>1</version>
+                  </project>
+                  """,
+                //language=xml
+                """
+                  <project>
+                    <groupId>com.mycompany.app</groupId>
+                    <artifactId>second</artifactId>
+                    <version>1</version>
+                    <properties>
+                      <maven.compiler.release>11</maven.compiler.release>
+                    </properties>
+                  </project>
+                  """,
+                spec -> spec.markers(new JavaVersion(UUID.randomUUID(), "", "", "1.8.0+x", ""))
+              )
+            );
+        }
     }
 
     @SuppressWarnings("GroovyAssignabilityCheck")
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.migrate.table.VirtualThreadPinning;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class FindVirtualThreadPinningTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new FindVirtualThreadPinning());
+    }
+
+    @DocumentExample
+    @Test
+    void blockingCallInSynchronizedBlock() {
+        rewriteRun(
+          spec -> spec.dataTable(VirtualThreadPinning.Row.class, rows -> assertThat(rows)
+            .singleElement()
+            .satisfies(row -> {
+                assertThat(row.getRegion()).isEqualTo("synchronized (lock)");
+                assertThat(row.getCall()).isEqualTo("in.read()");
+            })),
+          //language=java
+          java(
+            """
+              import java.io.InputStream;
+
+              class Reader {
+                  private final Object lock = new Object();
+
+                  int read(InputStream in) throws Exception {
+                      synchronized (lock) {
+                          return in.read();
+                      }
+                  }
+              }
+              """,
+            """
+              import java.io.InputStream;
+
+              class Reader {
+                  private final Object lock = new Object();
+
+                  int read(InputStream in) throws Exception {
+                      synchronized (lock) {
+                          return /*~~(Pins the carrier thread of a virtual thread)~~>*/in.read();
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void blockingCallInSynchronizedMethod() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Sleeper {
+                  synchronized void nap() throws InterruptedException {
+                      Thread.sleep(100);
+                  }
+              }
+              """,
+            """
+              class Sleeper {
+                  synchronized void nap() throws InterruptedException {
+                      /*~~(Pins the carrier thread of a virtual thread)~~>*/Thread.sleep(100);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void blockingCallOutsideSynchronized() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Sleeper {
+                  void nap() throws InterruptedException {
+                      Thread.sleep(100);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void inMemoryStreamInSynchronizedMethod() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.io.ByteArrayOutputStream;
+              import java.io.IOException;
+
+              class Buffer {
+                  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+                  synchronized void append(byte[] b) throws IOException {
+                      bytes.write(b);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void lambdaInSynchronizedBlock() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.util.concurrent.Callable;
+
+              class Sleeper {
+                  Callable<Object> nap() {
+                      synchronized (this) {
+                          return () -> {
+                              Thread.sleep(100);
+                              return null;
+                          };
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.migrate.table.VirtualThreadMigrations;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.java.Assertions.javaVersion;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+class MigrateToVirtualThreadsTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new MigrateToVirtualThreads(null))
+          .allSources(src -> src.markers(javaVersion(21)));
+    }
+
+    @DocumentExample
+    @Test
+    void fixedPoolForBlockingTasks() {
+        rewriteRun(
+          spec -> spec.recipe(new MigrateToVirtualThreads(true)).dataTable(VirtualThreadMigrations.Row.class, rows -> assertThat(rows)
+            .singleElement()
+            .satisfies(row -> {
+                assertThat(row.getCode()).isEqualTo("Executors.newFixedThreadPool(200)");
+                assertThat(row.isMigrated()).isTrue();
+            })),
+          //language=java
+          java(
+            """
+              import java.io.InputStream;
+              import java.net.Socket;
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class Server {
+                  private final ExecutorService pool = Executors.newFixedThreadPool(200);
+
+                  void accept(Socket socket) {
+                      pool.submit(() -> handle(socket));
+                  }
+
+                  private void handle(Socket socket) {
+                      try (InputStream in = socket.getInputStream()) {
+                          in.read();
+                      } catch (Exception ignored) {
+                      }
+                  }
+              }
+              """,
+            """
+              import java.io.InputStream;
+              import java.net.Socket;
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class Server {
+                  private final ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+
+                  void accept(Socket socket) {
+                      pool.submit(() -> handle(socket));
+                  }
+
+                  private void handle(Socket socket) {
+                      try (InputStream in = socket.getInputStream()) {
+                          in.read();
+                      } catch (Exception ignored) {
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void cachedPool() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class A {
+                  void run() throws Exception {
+                      ExecutorService executor = Executors.newCachedThreadPool();
+                      executor.submit(() -> {
+                          Thread.sleep(100);
+                          return null;
+                      });
+                      executor.shutdown();
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class A {
+                  void run() throws Exception {
+                      ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                      executor.submit(() -> {
+                          Thread.sleep(100);
+                          return null;
+                      });
+                      executor.shutdown();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepPoolSharedWithCpuBoundWork() {
+        rewriteRun(
+          spec -> spec.dataTable(VirtualThreadMigrations.Row.class, rows -> assertThat(rows)
+            .singleElement()
+            .satisfies(row -> {
+                assertThat(row.isMigrated()).isFalse();
+                assertThat(row.getReason()).contains("no blocking calls");
+            })),
+          //language=java
+          java(
+            """
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class A {
+                  void run() {
+                      ExecutorService executor = Executors.newCachedThreadPool();
+                      executor.submit(() -> fibonacci(40));
+                  }
+
+                  long fibonacci(int n) {
+                      return n < 2 ? n : fibonacci(n - 1) + fibonacci(n - 2);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepPoolPassedToOtherCode() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.util.concurrent.CompletableFuture;
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class A {
+                  void run() {
+                      ExecutorService executor = Executors.newFixedThreadPool(4);
+                      CompletableFuture.runAsync(() -> {}, executor);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepNonPrivateField() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class A {
+                  protected final ExecutorService executor = Executors.newCachedThreadPool();
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void reportFixedPoolByDefault() {
+        rewriteRun(
+          spec -> spec.dataTable(VirtualThreadMigrations.Row.class, rows -> assertThat(rows)
+            .singleElement()
+            .satisfies(row -> {
+                assertThat(row.isMigrated()).isFalse();
+                assertThat(row.getReason()).contains("bounds how many");
+            })),
+          //language=java
+          java(
+            """
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class A {
+                  void run() throws Exception {
+                      ExecutorService executor = Executors.newFixedThreadPool(10);
+                      executor.submit(() -> {
+                          Thread.sleep(100);
+                          return null;
+                      });
+                      executor.shutdown();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void threadStart() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class A {
+                  void run() {
+                      new Thread(() -> pause()).start();
+                      new Thread(this::pause, "worker").start();
+                  }
+
+                  void pause() {
+                      try {
+                          Thread.sleep(100);
+                      } catch (InterruptedException ignored) {
+                      }
+                  }
+              }
+              """,
+            """
+              class A {
+                  void run() {
+                      Thread.ofVirtual().start(() -> pause());
+                      Thread.ofVirtual().name("worker").start(this::pause);
+                  }
+
+                  void pause() {
+                      try {
+                          Thread.sleep(100);
+                      } catch (InterruptedException ignored) {
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepThreadForTaskThatCannotBeAnalyzed() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class A {
+                  void run(Runnable task) {
+                      new Thread(task).start();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepThreadForCpuBoundTask() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class A {
+                  void run(int[] values) {
+                      new Thread(() -> java.util.Arrays.sort(values)).start();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepThreadForInMemoryStreams() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.io.ByteArrayOutputStream;
+              import java.io.StringWriter;
+
+              class A {
+                  void run(byte[] bytes, StringWriter out) {
+                      new Thread(() -> {
+                          ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                          buffer.write(bytes, 0, bytes.length);
+                          out.write("done");
+                      }).start();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepThreadStartedFromMain() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class A {
+                  public static void main(String[] args) {
+                      new Thread(() -> {
+                          try {
+                              Thread.sleep(100);
+                          } catch (InterruptedException ignored) {
+                          }
+                      }).start();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepThreadSubclass() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class A {
+                  void run() {
+                      new Thread() {
+                          @Override
+                          public void run() {
+                          }
+                      }.start();
+                  }
+              }
+              """
+          )
+        );
+    }
+}
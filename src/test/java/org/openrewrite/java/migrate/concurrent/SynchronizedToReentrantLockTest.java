@@ -0,0 +1,367 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class SynchronizedToReentrantLockTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new SynchronizedToReentrantLock());
+    }
+
+    @DocumentExample
+    @Test
+    void privateFinalLockField() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.io.InputStream;
+
+              class Reader {
+                  private final Object lock = new Object();
+                  private int last;
+
+                  int read(InputStream in) throws Exception {
+                      synchronized (lock) {
+                          last = in.read();
+                          return last;
+                      }
+                  }
+              }
+              """,
+            """
+              import java.io.InputStream;
+              import java.util.concurrent.locks.ReentrantLock;
+
+              class Reader {
+                  private final ReentrantLock lock = new ReentrantLock();
+                  private int last;
+
+                  int read(InputStream in) throws Exception {
+                      lock.lock();
+                      try {
+                          last = in.read();
+                          return last;
+                      } finally {
+                          lock.unlock();
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void synchronizedOnThis() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              final class Sleeper {
+                  private int naps;
+
+                  void nap() throws InterruptedException {
+                      synchronized (this) {
+                          Thread.sleep(100);
+                          naps++;
+                      }
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.locks.ReentrantLock;
+
+              final class Sleeper {
+                  private final ReentrantLock lock = new ReentrantLock();
+                  private int naps;
+
+                  void nap() throws InterruptedException {
+                      lock.lock();
+                      try {
+                          Thread.sleep(100);
+                          naps++;
+                      } finally {
+                          lock.unlock();
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void avoidInheritedFieldName() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Base {
+                  protected int lock;
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              final class Sleeper extends Base {
+                  private int naps;
+
+                  void nap() throws InterruptedException {
+                      synchronized (this) {
+                          Thread.sleep(lock);
+                          naps++;
+                      }
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.locks.ReentrantLock;
+
+              final class Sleeper extends Base {
+                  private final ReentrantLock lock2 = new ReentrantLock();
+                  private int naps;
+
+                  void nap() throws InterruptedException {
+                      lock2.lock();
+                      try {
+                          Thread.sleep(lock);
+                          naps++;
+                      } finally {
+                          lock2.unlock();
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void avoidNameOfVariableInScope() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              final class Sleeper {
+                  private int naps;
+
+                  void nap(long lock) throws InterruptedException {
+                      synchronized (this) {
+                          Thread.sleep(lock);
+                          naps++;
+                      }
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.locks.ReentrantLock;
+
+              final class Sleeper {
+                  private final ReentrantLock lock2 = new ReentrantLock();
+                  private int naps;
+
+                  void nap(long lock) throws InterruptedException {
+                      lock2.lock();
+                      try {
+                          Thread.sleep(lock);
+                          naps++;
+                      } finally {
+                          lock2.unlock();
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepThisOfClassThatIsNotFinal() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Sleeper {
+                  void nap() throws InterruptedException {
+                      synchronized (this) {
+                          Thread.sleep(100);
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void waitThroughMethodOfSameClass() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.io.InputStream;
+
+              final class Reader {
+                  private boolean ready;
+
+                  int read(InputStream in) throws Exception {
+                      synchronized (this) {
+                          awaitReady();
+                          return in.read();
+                      }
+                  }
+
+                  private void awaitReady() throws InterruptedException {
+                      while (!ready) {
+                          wait();
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void noBlockingCall() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Counter {
+                  private final Object lock = new Object();
+                  private int count;
+
+                  void increment() {
+                      synchronized (lock) {
+                          count++;
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void waitOnSameLockElsewhere() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.io.InputStream;
+
+              class Reader {
+                  private final Object lock = new Object();
+                  private boolean ready;
+
+                  int read(InputStream in) throws Exception {
+                      synchronized (lock) {
+                          return in.read();
+                      }
+                  }
+
+                  void awaitReady() throws InterruptedException {
+                      synchronized (lock) {
+                          while (!ready) {
+                              lock.wait();
+                          }
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void synchronizedMethodsShareTheMonitor() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              final class Sleeper {
+                  private int naps;
+
+                  void nap() throws InterruptedException {
+                      synchronized (this) {
+                          Thread.sleep(100);
+                      }
+                  }
+
+                  synchronized int naps() {
+                      return naps;
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void lockFieldUsedOtherwise() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Sleeper {
+                  private final Object lock = new Object();
+
+                  void nap() throws InterruptedException {
+                      synchronized (lock) {
+                          Thread.sleep(100);
+                      }
+                  }
+
+                  Object lock() {
+                      return lock;
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void publicLockField() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Sleeper {
+                  public final Object lock = new Object();
+
+                  void nap() throws InterruptedException {
+                      synchronized (lock) {
+                          Thread.sleep(100);
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+}
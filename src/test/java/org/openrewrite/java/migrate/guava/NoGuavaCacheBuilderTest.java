@@ -0,0 +1,290 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class NoGuavaCacheBuilderTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new NoGuavaCacheBuilder())
+          .parser(JavaParser.fromJavaVersion().classpath("guava"));
+    }
+
+    @DocumentExample
+    @Test
+    void loadingCache() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.cache.CacheBuilder;
+              import com.google.common.cache.CacheLoader;
+              import com.google.common.cache.LoadingCache;
+
+              import java.util.concurrent.TimeUnit;
+
+              class Users {
+                  private final LoadingCache<String, String> names = CacheBuilder.newBuilder()
+                          .maximumSize(1000)
+                          .expireAfterWrite(10, TimeUnit.MINUTES)
+                          .concurrencyLevel(8)
+                          .recordStats()
+                          .build(CacheLoader.from(id -> lookup(id)));
+
+                  String name(String id) {
+                      return names.getUnchecked(id);
+                  }
+
+                  long size() {
+                      return names.size();
+                  }
+
+                  private String lookup(String id) {
+                      return id;
+                  }
+              }
+              """,
+            """
+              import com.github.benmanes.caffeine.cache.Caffeine;
+              import com.github.benmanes.caffeine.cache.LoadingCache;
+
+              import java.util.concurrent.TimeUnit;
+
+              class Users {
+                  private final LoadingCache<String, String> names = Caffeine.newBuilder()
+                          .maximumSize(1000)
+                          .expireAfterWrite(10, TimeUnit.MINUTES)
+                          .recordStats()
+                          .build(id -> lookup(id));
+
+                  String name(String id) {
+                      return names.get(id);
+                  }
+
+                  long size() {
+                      return names.estimatedSize();
+                  }
+
+                  private String lookup(String id) {
+                      return id;
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void anonymousCacheLoader() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.cache.CacheBuilder;
+              import com.google.common.cache.CacheLoader;
+              import com.google.common.cache.LoadingCache;
+
+              class Users {
+                  private final LoadingCache<String, Integer> lengths = CacheBuilder.newBuilder()
+                          .weakKeys()
+                          .softValues()
+                          .build(new CacheLoader<String, Integer>() {
+                              @Override
+                              public Integer load(String key) {
+                                  return key.length();
+                              }
+                          });
+              }
+              """,
+            """
+              import com.github.benmanes.caffeine.cache.CacheLoader;
+              import com.github.benmanes.caffeine.cache.Caffeine;
+              import com.github.benmanes.caffeine.cache.LoadingCache;
+
+              class Users {
+                  private final LoadingCache<String, Integer> lengths = Caffeine.newBuilder()
+                          .weakKeys()
+                          .softValues()
+                          .build(new CacheLoader<String, Integer>() {
+                              @Override
+                              public Integer load(String key) {
+                                  return key.length();
+                              }
+                          });
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void removalListenerAndCallable() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.cache.Cache;
+              import com.google.common.cache.CacheBuilder;
+
+              import java.util.concurrent.ExecutionException;
+              import java.util.concurrent.TimeUnit;
+
+              class Sessions {
+                  private final Cache<String, Integer> sessions = CacheBuilder.newBuilder()
+                          .expireAfterAccess(30, TimeUnit.MINUTES)
+                          .removalListener(n -> System.out.println(n.getKey() + " removed: " + n.getCause()))
+                          .build();
+
+                  Integer session(String id) throws ExecutionException {
+                      return sessions.get(id, () -> id.length());
+                  }
+              }
+              """,
+            """
+              import com.github.benmanes.caffeine.cache.Cache;
+              import com.github.benmanes.caffeine.cache.Caffeine;
+
+              import java.util.concurrent.ExecutionException;
+              import java.util.concurrent.TimeUnit;
+
+              class Sessions {
+                  private final Cache<String, Integer> sessions = Caffeine.newBuilder()
+                          .expireAfterAccess(30, TimeUnit.MINUTES)
+                          .removalListener((key, value, cause) -> System.out.println(key + " removed: " + cause))
+                          .build();
+
+                  Integer session(String id) throws ExecutionException {
+                      return sessions.get(id, k -> id.length());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void executionExceptionCaught() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.cache.Cache;
+              import com.google.common.cache.CacheBuilder;
+
+              import java.util.concurrent.ExecutionException;
+
+              class Sessions {
+                  private final Cache<String, Integer> sessions = CacheBuilder.newBuilder().build();
+
+                  Integer session(String id) {
+                      try {
+                          return sessions.get(id, () -> id.length());
+                      } catch (ExecutionException e) {
+                          return null;
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void callableThrowsCheckedException() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.cache.Cache;
+              import com.google.common.cache.CacheBuilder;
+
+              import java.nio.file.Files;
+              import java.nio.file.Path;
+              import java.util.concurrent.ExecutionException;
+
+              class Contents {
+                  private final Cache<Path, byte[]> contents = CacheBuilder.newBuilder().build();
+
+                  byte[] read(Path path) throws ExecutionException {
+                      return contents.get(path, () -> Files.readAllBytes(path));
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void unsupportedBuilderMethod() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.base.Ticker;
+              import com.google.common.cache.Cache;
+              import com.google.common.cache.CacheBuilder;
+
+              class Clocked {
+                  private final Cache<String, String> cache = CacheBuilder.newBuilder()
+                          .ticker(Ticker.systemTicker())
+                          .build();
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void cacheExposedToOtherClasses() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.cache.CacheBuilder;
+              import com.google.common.cache.LoadingCache;
+              import com.google.common.cache.CacheLoader;
+
+              class Users {
+                  private final LoadingCache<String, String> names = CacheBuilder.newBuilder()
+                          .build(CacheLoader.from(id -> id.toUpperCase()));
+
+                  LoadingCache<String, String> names() {
+                      return names;
+                  }
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              class Greeter {
+                  String greet(Users users, String id) {
+                      return "Hello " + users.names().getUnchecked(id);
+                  }
+              }
+              """
+          )
+        );
+    }
+}
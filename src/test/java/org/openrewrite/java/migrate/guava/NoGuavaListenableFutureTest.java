@@ -0,0 +1,333 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class NoGuavaListenableFutureTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new NoGuavaListenableFuture())
+          .parser(JavaParser.fromJavaVersion().classpath("guava", "failureaccess"));
+    }
+
+    @DocumentExample
+    @Test
+    void transformWithExecutor() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.Futures;
+              import com.google.common.util.concurrent.ListenableFuture;
+
+              import java.util.concurrent.Executor;
+
+              class Lengths {
+                  ListenableFuture<Integer> length(ListenableFuture<String> name, Executor executor) {
+                      return Futures.transform(name, String::length, executor);
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.CompletableFuture;
+              import java.util.concurrent.Executor;
+
+              class Lengths {
+                  CompletableFuture<Integer> length(CompletableFuture<String> name, Executor executor) {
+                      return name.thenApplyAsync(String::length, executor);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void transformAsyncWithDirectExecutor() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.Futures;
+              import com.google.common.util.concurrent.ListenableFuture;
+              import com.google.common.util.concurrent.MoreExecutors;
+
+              class Users {
+                  ListenableFuture<String> name(ListenableFuture<Integer> id) {
+                      return Futures.transformAsync(id, i -> lookup(i), MoreExecutors.directExecutor());
+                  }
+
+                  ListenableFuture<String> lookup(int id) {
+                      return Futures.immediateFuture("user" + id);
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.CompletableFuture;
+
+              class Users {
+                  CompletableFuture<String> name(CompletableFuture<Integer> id) {
+                      return id.thenCompose(i -> lookup(i));
+                  }
+
+                  CompletableFuture<String> lookup(int id) {
+                      return CompletableFuture.completedFuture("user" + id);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void settableFuture() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.SettableFuture;
+
+              class Reply {
+                  private final SettableFuture<String> reply = SettableFuture.create();
+
+                  void received(String message) {
+                      reply.set(message);
+                  }
+
+                  void failed(Exception e) {
+                      reply.setException(e);
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.CompletableFuture;
+
+              class Reply {
+                  private final CompletableFuture<String> reply = new CompletableFuture<>();
+
+                  void received(String message) {
+                      reply.complete(message);
+                  }
+
+                  void failed(Exception e) {
+                      reply.completeExceptionally(e);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void allAsList() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.Futures;
+              import com.google.common.util.concurrent.ListenableFuture;
+
+              import java.util.List;
+
+              class Both {
+                  ListenableFuture<List<String>> both(ListenableFuture<String> first, ListenableFuture<String> second) {
+                      return Futures.allAsList(first, second);
+                  }
+              }
+              """,
+            """
+              import java.util.List;
+              import java.util.concurrent.CompletableFuture;
+              import java.util.stream.Collectors;
+              import java.util.stream.Stream;
+
+              class Both {
+                  CompletableFuture<List<String>> both(CompletableFuture<String> first, CompletableFuture<String> second) {
+                      return CompletableFuture.allOf(first, second).thenApply(done -> Stream.of(first, second).map(CompletableFuture::join).collect(Collectors.toList()));
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void listeningDecoratorAndSubmit() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.ListenableFuture;
+              import com.google.common.util.concurrent.ListeningExecutorService;
+              import com.google.common.util.concurrent.MoreExecutors;
+
+              import java.util.concurrent.Executors;
+
+              class Workers {
+                  private final ListeningExecutorService pool = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(4));
+
+                  ListenableFuture<String> work(String input) {
+                      return pool.submit(() -> input.toUpperCase());
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.CompletableFuture;
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class Workers {
+                  private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+                  CompletableFuture<String> work(String input) {
+                      return CompletableFuture.supplyAsync(() -> input.toUpperCase(), pool);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void addCallback() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.FutureCallback;
+              import com.google.common.util.concurrent.Futures;
+              import com.google.common.util.concurrent.ListenableFuture;
+              import com.google.common.util.concurrent.MoreExecutors;
+
+              class Logging {
+                  void log(ListenableFuture<String> future) {
+                      Futures.addCallback(future, new FutureCallback<String>() {
+                          @Override
+                          public void onSuccess(String result) {
+                              System.out.println(result);
+                          }
+
+                          @Override
+                          public void onFailure(Throwable t) {
+                              t.printStackTrace();
+                          }
+                      }, MoreExecutors.directExecutor());
+                  }
+              }
+              """,
+            """
+              import java.util.concurrent.CompletableFuture;
+
+              class Logging {
+                  void log(CompletableFuture<String> future) {
+                      future.whenComplete((result, t) -> {
+                          if (t == null) {
+                              System.out.println(result);
+                          } else {
+                              t.printStackTrace();
+                          }
+                      });
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void unsupportedListener() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.ListenableFuture;
+
+              import java.util.concurrent.Executor;
+
+              class Listening {
+                  void listen(ListenableFuture<String> future, Executor executor) {
+                      future.addListener(() -> System.out.println("done"), executor);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void asyncFunctionThrowingCheckedException() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.Futures;
+              import com.google.common.util.concurrent.ListenableFuture;
+
+              import java.util.concurrent.Executor;
+
+              class Users {
+                  ListenableFuture<String> name(ListenableFuture<Integer> id, Executor executor) {
+                      return Futures.transformAsync(id, i -> lookup(i), executor);
+                  }
+
+                  ListenableFuture<String> lookup(int id) throws Exception {
+                      return Futures.immediateFuture("user" + id);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void futureReturnedToOtherSourceFile() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.Futures;
+              import com.google.common.util.concurrent.ListenableFuture;
+
+              class Users {
+                  ListenableFuture<String> lookup(int id) {
+                      return Futures.immediateFuture("user" + id);
+                  }
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              import com.google.common.util.concurrent.ListenableFuture;
+
+              class Greeter {
+                  ListenableFuture<String> user(Users users) {
+                      return users.lookup(1);
+                  }
+              }
+              """
+          )
+        );
+    }
+}
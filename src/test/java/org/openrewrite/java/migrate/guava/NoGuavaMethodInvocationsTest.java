@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class NoGuavaMethodInvocationsTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .recipe(new NoGuavaMethodInvocations())
+          .parser(JavaParser.fromJavaVersion().classpath("guava"));
+    }
+
+    @DocumentExample
+    @Test
+    void nestedInvocationsInOnePass() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import com.google.common.collect.Lists;
+              import com.google.common.collect.Sets;
+              import com.google.common.util.concurrent.MoreExecutors;
+
+              import java.util.List;
+              import java.util.concurrent.Executor;
+
+              class Test {
+                  Executor executor = MoreExecutors.directExecutor();
+
+                  List<Integer> distinct(List<Integer> values) {
+                      return Lists.newArrayList(Sets.newHashSet(values));
+                  }
+              }
+              """,
+            """
+              import java.util.ArrayList;
+              import java.util.HashSet;
+              import java.util.List;
+              import java.util.concurrent.Executor;
+
+              class Test {
+                  Executor executor = Runnable::run;
+
+                  List<Integer> distinct(List<Integer> values) {
+                      return new ArrayList<>(new HashSet<>(values));
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void iterableIsNotRewritten() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import com.google.common.collect.Lists;
+
+              import java.util.List;
+
+              class Test {
+                  List<Integer> copy(Iterable<Integer> values) {
+                      return Lists.newArrayList(values);
+                  }
+              }
+              """
+          )
+        );
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.guava;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.maven.Assertions.pomXml;
+
+class UpgradeCaffeineForGuavaCachesTest implements RewriteTest {
+
+    //language=xml
+    private static final String POM = """
+      <project>
+          <modelVersion>4.0.0</modelVersion>
+          <groupId>com.example</groupId>
+          <artifactId>users</artifactId>
+          <version>1.0.0</version>
+          <dependencies>
+              <dependency>
+                  <groupId>com.github.ben-manes.caffeine</groupId>
+                  <artifactId>caffeine</artifactId>
+                  <version>%s</version>
+              </dependency>
+          </dependencies>
+      </project>
+      """;
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new UpgradeCaffeineForGuavaCaches())
+          .parser(JavaParser.fromJavaVersion().classpath("guava"));
+    }
+
+    @DocumentExample
+    @Test
+    void upgradeWhenGuavaCacheIsMigrated() {
+        rewriteRun(
+          pomXml(
+            POM.formatted("2.9.3"),
+            spec -> spec.after(pom -> {
+                Matcher version = Pattern.compile("3\\.\\d+\\.\\d+").matcher(pom);
+                assertThat(version.find()).isTrue();
+                return POM.formatted(version.group(0));
+            })
+          ),
+          //language=java
+          java(
+            """
+              import com.google.common.cache.Cache;
+              import com.google.common.cache.CacheBuilder;
+
+              class Users {
+                  private final Cache<String, String> names = CacheBuilder.newBuilder().maximumSize(1000).build();
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepCaffeineWithoutGuavaCaches() {
+        rewriteRun(
+          pomXml(POM.formatted("2.9.3")),
+          //language=java
+          java(
+            """
+              import java.util.HashMap;
+              import java.util.Map;
+
+              class Users {
+                  private final Map<String, String> names = new HashMap<>();
+              }
+              """
+          )
+        );
+    }
+}
@@ -17,6 +17,7 @@ package org.openrewrite.java.migrate.javax;
 
 import org.junit.jupiter.api.Test;
 import org.openrewrite.config.Environment;
+import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -27,6 +28,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.gradle.Assertions.buildGradle;
 import static org.openrewrite.gradle.toolingapi.Assertions.withToolingApi;
 import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.java.Assertions.mavenProject;
+import static org.openrewrite.java.Assertions.srcMainJava;
 import static org.openrewrite.maven.Assertions.pomXml;
 
 @SuppressWarnings("LanguageMismatch")
@@ -532,4 +535,87 @@ class AddJaxbDependenciesTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void onlyAddRuntimeToModulesUsingJaxb() {
+        rewriteRun(
+          spec -> spec.recipe(new AddJaxbRuntime("glassfish"))
+            .parser(JavaParser.fromJavaVersion().dependsOn(XML_ELEMENT_STUB)),
+          mavenProject("uses-jaxb",
+            srcMainJava(
+              java(CLASS_USING_XML_BIND)
+            ),
+            pomXml(
+              //language=xml
+              """
+                <project>
+                    <groupId>com.example.jaxb</groupId>
+                    <artifactId>uses-jaxb</artifactId>
+                    <version>1.0.0</version>
+                    <dependencies>
+                        <dependency>
+                            <groupId>jakarta.xml.bind</groupId>
+                            <artifactId>jakarta.xml.bind-api</artifactId>
+                            <version>2.3.2</version>
+                        </dependency>
+                    </dependencies>
+                </project>
+                """,
+              spec -> spec.after(pom -> {
+                  Matcher version = Pattern.compile("<artifactId>jaxb-runtime</artifactId>\\s*<version>(2\\.3\\.\\d+)</version>").matcher(pom);
+                  assertThat(version.find()).isTrue();
+                  //language=xml
+                  return """
+                    <project>
+                        <groupId>com.example.jaxb</groupId>
+                        <artifactId>uses-jaxb</artifactId>
+                        <version>1.0.0</version>
+                        <dependencies>
+                            <dependency>
+                                <groupId>jakarta.xml.bind</groupId>
+                                <artifactId>jakarta.xml.bind-api</artifactId>
+                                <version>2.3.2</version>
+                            </dependency>
+                            <dependency>
+                                <groupId>org.glassfish.jaxb</groupId>
+                                <artifactId>jaxb-runtime</artifactId>
+                                <version>%s</version>
+                                <scope>runtime</scope>
+                            </dependency>
+                        </dependencies>
+                    </project>
+                    """.formatted(version.group(1));
+              })
+            )
+          ),
+          mavenProject("no-jaxb",
+            srcMainJava(
+              //language=java
+              java(
+                """
+                  public class NoJaxb {
+                  }
+                  """
+              )
+            ),
+            pomXml(
+              //language=xml
+              """
+                <project>
+                    <groupId>com.example.jaxb</groupId>
+                    <artifactId>no-jaxb</artifactId>
+                    <version>1.0.0</version>
+                    <dependencies>
+                        <dependency>
+                            <groupId>jakarta.xml.bind</groupId>
+                            <artifactId>jakarta.xml.bind-api</artifactId>
+                            <version>2.3.2</version>
+                        </dependency>
+                    </dependencies>
+                </project>
+                """
+            )
+          )
+        );
+    }
 }
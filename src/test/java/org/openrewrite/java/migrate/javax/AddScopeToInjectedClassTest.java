@@ -87,6 +87,80 @@ class AddScopeToInjectedClassTest implements RewriteTest {
     }
 
 
+    @Test
+    void injectedTypesCollectedAcrossFiles() {
+        rewriteRun(
+          java(
+            """
+              package com.sample.service;
+
+              public class Bar {}
+              """,
+            """
+              package com.sample.service;
+
+              import javax.enterprise.context.Dependent;
+
+              @Dependent
+              public class Bar {}
+              """
+          ),
+          java(
+            """
+              package com.sample.service;
+
+              public class Baz {}
+              """,
+            """
+              package com.sample.service;
+
+              import javax.enterprise.context.Dependent;
+
+              @Dependent
+              public class Baz {}
+              """
+          ),
+          java(
+            """
+              package com.sample.service;
+
+              public class NotInjected {}
+              """
+          ),
+          java(
+            """
+              package com.sample;
+
+              import javax.inject.Inject;
+              import com.sample.service.Bar;
+
+              public class Foo {
+
+                  @Inject
+                  Bar service;
+              }
+              """
+          ),
+          java(
+            """
+              package com.sample;
+
+              import javax.inject.Inject;
+              import com.sample.service.Baz;
+              import com.sample.service.NotInjected;
+
+              public class Qux {
+
+                  @Inject
+                  Baz service;
+
+                  NotInjected plain;
+              }
+              """
+          )
+        );
+    }
+
     @Test
     void noMemberVariableAnnotation() {
         rewriteRun(
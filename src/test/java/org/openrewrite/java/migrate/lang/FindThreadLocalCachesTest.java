@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.lang;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.migrate.table.ThreadLocalCaches;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class FindThreadLocalCachesTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new FindThreadLocalCaches());
+    }
+
+    @DocumentExample
+    @Test
+    void withInitial() {
+        rewriteRun(
+          spec -> spec.dataTable(ThreadLocalCaches.Row.class, rows -> assertThat(rows)
+            .singleElement()
+            .satisfies(row -> {
+                assertThat(row.getDeclaration()).isEqualTo("DIGEST");
+                assertThat(row.getCachedType()).isEqualTo("java.security.MessageDigest");
+                assertThat(row.getAlternative()).isEqualTo("A MessageDigest created per use");
+            })),
+          //language=java
+          java(
+            """
+              import java.security.MessageDigest;
+
+              class Hashes {
+                  private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+                      try {
+                          return MessageDigest.getInstance("SHA-256");
+                      } catch (Exception e) {
+                          throw new IllegalStateException(e);
+                      }
+                  });
+              }
+              """,
+            """
+              import java.security.MessageDigest;
+
+              class Hashes {
+                  private static final ThreadLocal<MessageDigest> DIGEST = /*~~(Caches java.security.MessageDigest per thread)~~>*/ThreadLocal.withInitial(() -> {
+                      try {
+                          return MessageDigest.getInstance("SHA-256");
+                      } catch (Exception e) {
+                          throw new IllegalStateException(e);
+                      }
+                  });
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void anonymousSubclass() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Buffers {
+                  private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+                      @Override
+                      protected StringBuilder initialValue() {
+                          return new StringBuilder(1024);
+                      }
+                  };
+              }
+              """,
+            """
+              class Buffers {
+                  private static final ThreadLocal<StringBuilder> BUFFER = /*~~(Caches java.lang.StringBuilder per thread)~~>*/new ThreadLocal<StringBuilder>() {
+                      @Override
+                      protected StringBuilder initialValue() {
+                          return new StringBuilder(1024);
+                      }
+                  };
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void namedSubclass() {
+        rewriteRun(
+          spec -> spec.dataTable(ThreadLocalCaches.Row.class, rows -> assertThat(rows)
+            .singleElement()
+            .satisfies(row -> assertThat(row.getDeclaration()).isEqualTo("RandomPerThread"))),
+          //language=java
+          java(
+            """
+              import java.util.Random;
+
+              class RandomPerThread extends ThreadLocal<Random> {
+                  @Override
+                  protected Random initialValue() {
+                      return new Random();
+                  }
+              }
+              """,
+            """
+              import java.util.Random;
+
+              class RandomPerThread extends /*~~(Caches java.util.Random per thread)~~>*/ThreadLocal<Random> {
+                  @Override
+                  protected Random initialValue() {
+                      return new Random();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void threadLocalWithoutInitialValue() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              class Context {
+                  private static final ThreadLocal<String> USER = new ThreadLocal<>();
+              }
+              """
+          )
+        );
+    }
+}
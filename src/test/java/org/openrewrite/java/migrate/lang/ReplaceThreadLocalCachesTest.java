@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.lang;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class ReplaceThreadLocalCachesTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new ReplaceThreadLocalCaches())
+          .parser(JavaParser.fromJavaVersion().classpath("jackson-databind", "jackson-core"));
+    }
+
+    @DocumentExample
+    @Test
+    void simpleDateFormat() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.text.SimpleDateFormat;
+              import java.util.Date;
+
+              class Dates {
+                  private static final ThreadLocal<SimpleDateFormat> FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd HH:mm"));
+
+                  String format(Date date) {
+                      return FORMAT.get().format(date);
+                  }
+              }
+              """,
+            """
+              import java.time.ZoneId;
+              import java.time.format.DateTimeFormatter;
+              import java.util.Date;
+
+              class Dates {
+                  private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+
+                  String format(Date date) {
+                      return FORMAT.format(date.toInstant());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void objectMapper() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.fasterxml.jackson.databind.ObjectMapper;
+
+              class Json {
+                  private static final ThreadLocal<ObjectMapper> MAPPER = ThreadLocal.withInitial(() -> new ObjectMapper());
+
+                  String write(Object value) throws Exception {
+                      return MAPPER.get().writeValueAsString(value);
+                  }
+
+                  <T> T read(String json, Class<T> type) throws Exception {
+                      return MAPPER.get().readValue(json, type);
+                  }
+              }
+              """,
+            """
+              import com.fasterxml.jackson.databind.ObjectMapper;
+
+              class Json {
+                  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+                  String write(Object value) throws Exception {
+                      return MAPPER.writeValueAsString(value);
+                  }
+
+                  <T> T read(String json, Class<T> type) throws Exception {
+                      return MAPPER.readValue(json, type);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void parsingDates() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.text.SimpleDateFormat;
+              import java.util.Date;
+
+              class Dates {
+                  private static final ThreadLocal<SimpleDateFormat> FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd"));
+
+                  Date parse(String date) throws Exception {
+                      return FORMAT.get().parse(date);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void patternWithDifferentMeaning() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.text.SimpleDateFormat;
+              import java.util.Date;
+
+              class Dates {
+                  private static final ThreadLocal<SimpleDateFormat> FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("YYYY-ww"));
+
+                  String format(Date date) {
+                      return FORMAT.get().format(date);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void patternWithReservedCharacters() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.text.SimpleDateFormat;
+              import java.util.Date;
+
+              class Dates {
+                  private static final ThreadLocal<SimpleDateFormat> FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("[yyyy-MM-dd]"));
+
+                  String format(Date date) {
+                      return FORMAT.get().format(date);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void formattingSqlDates() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import java.text.SimpleDateFormat;
+
+              class Dates {
+                  private static final ThreadLocal<SimpleDateFormat> FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd"));
+
+                  String format(java.sql.Date date) {
+                      return FORMAT.get().format(date);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void configuredObjectMapper() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import com.fasterxml.jackson.databind.ObjectMapper;
+              import com.fasterxml.jackson.databind.SerializationFeature;
+
+              class Json {
+                  private static final ThreadLocal<ObjectMapper> MAPPER = ThreadLocal.withInitial(() -> new ObjectMapper());
+
+                  String write(Object value, boolean indent) throws Exception {
+                      MAPPER.get().configure(SerializationFeature.INDENT_OUTPUT, indent);
+                      return MAPPER.get().writeValueAsString(value);
+                  }
+              }
+              """
+          )
+        );
+    }
+}
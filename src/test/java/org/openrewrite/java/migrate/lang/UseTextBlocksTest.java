@@ -25,6 +25,7 @@ import org.openrewrite.style.NamedStyles;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
@@ -833,4 +834,59 @@ class UseTextBlocksTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void veryLongConcatenation() throws InterruptedException {
+        int operands = 10_000;
+        String indent = "                   ";
+        StringBuilder before = new StringBuilder("class Test {\n    String lines = ");
+        StringBuilder after = new StringBuilder("class Test {\n    String lines = \"\"\"\n");
+        for (int i = 0; i < operands; i++) {
+            before.append(i == 0 ? "" : indent).append("\"line ").append(i).append("\\n\"")
+              .append(i < operands - 1 ? " +\n" : ";\n");
+            after.append(indent).append("line ").append(i).append("\n");
+        }
+        before.append("}\n");
+        after.append(indent).append("\"\"\";\n}\n");
+
+        withDeepStack(() -> rewriteRun(
+          java(before.toString(), after.toString())
+        ));
+    }
+
+    @Test
+    void veryLongConcatenationWithVariable() throws InterruptedException {
+        int operands = 10_000;
+        StringBuilder source = new StringBuilder("class Test {\n    String s;\n    String lines = ");
+        for (int i = 0; i < operands; i++) {
+            source.append(i == 0 ? "" : "            ").append("\"line ").append(i).append("\\n\" +\n");
+        }
+        source.append("            s;\n}\n");
+
+        withDeepStack(() -> rewriteRun(
+          java(source.toString())
+        ));
+    }
+
+    /**
+     * The compiler and the printer recurse into the left-nested binary tree of a long concatenation, so the stress
+     * tests run on a thread with a larger stack than the default; the recipe itself does not recurse.
+     */
+    private static void withDeepStack(Runnable test) throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                test.run();
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        }, "deep-concatenation", 512L * 1024 * 1024);
+        thread.start();
+        thread.join();
+        if (failure.get() instanceof Error) {
+            throw (Error) failure.get();
+        } else if (failure.get() instanceof RuntimeException) {
+            throw (RuntimeException) failure.get();
+        }
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.migrate.lang.var;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.*;
+
+class UseVarForLocalVariablesTest extends VarBaseTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new UseVarForLocalVariables())
+          .allSources(s -> s.markers(javaVersion(10)));
+    }
+
+    @Nested
+    class Applicable {
+        @DocumentExample
+        @Test
+        void everyKindOfDeclarationInOnePass() {
+            //language=java
+            rewriteRun(
+              java(
+                """
+                  package com.example.app;
+
+                  import java.util.ArrayList;
+                  import java.util.List;
+
+                  class A {
+                    void m() {
+                        Object o = new Object();
+                        long l = 1;
+                        List<String> strings = new ArrayList<>();
+                    }
+                  }
+                  """, """
+                  package com.example.app;
+
+                  import java.util.ArrayList;
+
+                  class A {
+                    void m() {
+                        var o = new Object();
+                        var l = 1L;
+                        var strings = new ArrayList<String>();
+                    }
+                  }
+                  """)
+            );
+        }
+
+        @Test
+        void rawDeclarationOfGenericInitializer() {
+            //language=java
+            rewriteRun(
+              java(
+                """
+                  package com.example.app;
+
+                  import java.util.ArrayList;
+                  import java.util.List;
+
+                  class A {
+                    void m() {
+                        List os = new ArrayList<String>();
+                    }
+                  }
+                  """, """
+                  package com.example.app;
+
+                  import java.util.ArrayList;
+
+                  class A {
+                    void m() {
+                        var os = new ArrayList<String>();
+                    }
+                  }
+                  """
+              )
+            );
+        }
+
+        @Test
+        void initializerBlocks() {
+            //language=java
+            rewriteRun(
+              java(
+                """
+                  package com.example.app;
+
+                  class A {
+                    static {
+                        Object o = new Object();
+                    }
+
+                    {
+                        {
+                            int i = 1;
+                        }
+                        if (true) {
+                            double d = 2;
+                        }
+                    }
+                  }
+                  """, """
+                  package com.example.app;
+
+                  class A {
+                    static {
+                        var o = new Object();
+                    }
+
+                    {
+                        {
+                            var i = 1;
+                        }
+                        if (true) {
+                            var d = 2D;
+                        }
+                    }
+                  }
+                  """)
+            );
+        }
+
+        @Test
+        void methodOfInnerClass() {
+            //language=java
+            rewriteRun(
+              java(
+                """
+                  package com.example.app;
+
+                  class A {
+                    Object field = new Object();
+
+                    class B {
+                      void m() {
+                          String s = "Hello";
+                      }
+                    }
+                  }
+                  """, """
+                  package com.example.app;
+
+                  class A {
+                    Object field = new Object();
+
+                    class B {
+                      void m() {
+                          var s = "Hello";
+                      }
+                    }
+                  }
+                  """)
+            );
+        }
+    }
+
+    @Nested
+    class NotApplicable {
+        @Test
+        void methodParameters() {
+            //language=java
+            rewriteRun(
+              java(
+                """
+                  package com.example.app;
+
+                  class A {
+                    void m(Object o, int i) {
+                    }
+                  }
+                  """)
+            );
+        }
+    }
+}
@@ -179,49 +179,5 @@ abstract class VarBaseTest implements RewriteTest {
             );
         }
 
-        @Nested
-        class Generics {
-            @Test
-            void inDefinition() {
-                //language=java
-                rewriteRun(
-                  java(
-                    """
-                      package com.example.app;
-
-                      import java.util.List;
-                      import java.util.ArrayList;
-
-                      class A {
-                        void m() {
-                            List<Object> os = new ArrayList<>();
-                        }
-                      }
-                      """
-                  )
-                );
-            }
-
-            @Test
-            void inInitializer() {
-                //language=java
-                rewriteRun(
-                  java(
-                    """
-                      package com.example.app;
-
-                      import java.util.ArrayList;
-                      import java.util.List;
-
-                      class A {
-                        void m() {
-                            List os = new ArrayList<String>();
-                        }
-                      }
-                      """
-                  )
-                );
-            }
-        }
     }
 }
@@ -137,6 +137,124 @@ class LombokValueToRecordTest implements RewriteTest {
         );
     }
 
+    @Test
+    void getterWhoseNameContainsGet() {
+        //language=java
+        rewriteRun(
+          s -> s.typeValidationOptions(TypeValidation.none()),
+          java(
+            """
+              package example;
+
+              import lombok.Value;
+
+              @Value
+              public class A {
+                 String target;
+              }
+              """,
+            """
+              package example;
+
+              public record A(
+                 String target) {
+              }
+              """
+          ),
+          java(
+            """
+              package example;
+
+              public class UserOfA {
+                  String target(A a) {
+                      return a.getTarget();
+                  }
+              }
+              """,
+            """
+              package example;
+
+              public class UserOfA {
+                  String target(A a) {
+                      return a.target();
+                  }
+              }
+              """
+          ),
+          java(
+            """
+              package example;
+
+              public class Unrelated {
+                  String target(Unrelated u) {
+                      return u.getTarget();
+                  }
+
+                  String getTarget() {
+                      return "";
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void getterOnReturnedRecord() {
+        //language=java
+        rewriteRun(
+          s -> s.typeValidationOptions(TypeValidation.none()),
+          java(
+            """
+              package example;
+
+              import lombok.Value;
+
+              @Value
+              public class A {
+                 String target;
+              }
+              """,
+            """
+              package example;
+
+              public record A(
+                 String target) {
+              }
+              """
+          ),
+          java(
+            """
+              package example;
+
+              public interface Repository {
+                  A find();
+              }
+              """
+          ),
+          java(
+            """
+              package example;
+
+              public class UserOfRepository {
+                  String target(Repository repo) {
+                      return repo.find().getTarget();
+                  }
+              }
+              """,
+            """
+              package example;
+
+              public class UserOfRepository {
+                  String target(Repository repo) {
+                      return repo.find().target();
+                  }
+              }
+              """
+          )
+        );
+    }
+
     @Test
     void onlyRemoveAnnotationFromRecords() {
         //language=java
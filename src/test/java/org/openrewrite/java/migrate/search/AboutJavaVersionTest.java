@@ -18,6 +18,8 @@ package org.openrewrite.java.migrate.search;
 import org.junit.jupiter.api.Test;
 import org.openrewrite.DocumentExample;
 import org.openrewrite.java.marker.JavaVersion;
+import org.openrewrite.java.migrate.table.JavaVersionCounts;
+import org.openrewrite.java.migrate.table.JavaVersionPerFile;
 import org.openrewrite.java.migrate.table.JavaVersionRow;
 import org.openrewrite.test.RewriteTest;
 
@@ -64,4 +66,64 @@ class AboutJavaVersionTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void perFileAndCounts() {
+        JavaVersion jv11 = new JavaVersion(randomId(), "me", "me", "11.0.15+10", "11.0.15+10");
+        JavaVersion jv17 = new JavaVersion(randomId(), "me", "me", "17.0.5+8", "17.0.5+8");
+        rewriteRun(
+          spec -> spec.recipe(new AboutJavaVersion(null, true))
+            .dataTable(JavaVersionPerFile.Row.class, rows ->
+              assertThat(rows).containsExactlyInAnyOrder(
+                new JavaVersionPerFile.Row("", "", jv11.getCreatedBy(), jv11.getVmVendor(), jv11.getSourceCompatibility(),
+                  Integer.toString(jv11.getMajorReleaseVersion()), jv11.getTargetCompatibility(), "Test.java"),
+                new JavaVersionPerFile.Row("", "", jv11.getCreatedBy(), jv11.getVmVendor(), jv11.getSourceCompatibility(),
+                  Integer.toString(jv11.getMajorReleaseVersion()), jv11.getTargetCompatibility(), "Test2.java"),
+                new JavaVersionPerFile.Row("", "", jv17.getCreatedBy(), jv17.getVmVendor(), jv17.getSourceCompatibility(),
+                  Integer.toString(jv17.getMajorReleaseVersion()), jv17.getTargetCompatibility(), "Test3.java")))
+            .dataTable(JavaVersionCounts.Row.class, rows ->
+              assertThat(rows).containsExactlyInAnyOrder(
+                new JavaVersionCounts.Row("11", "11", 2),
+                new JavaVersionCounts.Row("17", "17", 1))),
+          java(
+            //language=java
+            """
+              class Test {
+              }
+              """,
+            //language=java
+            """
+              /*~~(Java version: 11)~~>*/class Test {
+              }
+              """,
+            spec -> spec.markers(jv11)
+          ),
+          java(
+            //language=java
+            """
+              class Test2 {
+              }
+              """,
+            //language=java
+            """
+              /*~~(Java version: 11)~~>*/class Test2 {
+              }
+              """,
+            spec -> spec.markers(jv11.withId(randomId()))
+          ),
+          java(
+            //language=java
+            """
+              class Test3 {
+              }
+              """,
+            //language=java
+            """
+              /*~~(Java version: 17)~~>*/class Test3 {
+              }
+              """,
+            spec -> spec.markers(jv17)
+          )
+        );
+    }
 }
@@ -15,8 +15,10 @@
  */
 package org.openrewrite.java.migrate.search;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.openrewrite.java.migrate.table.DtoDataUseCounts;
 import org.openrewrite.java.migrate.table.DtoDataUses;
 import org.openrewrite.test.RewriteTest;
 
@@ -65,4 +67,41 @@ class FindDataUsedOnDtoTest implements RewriteTest {
           )
         );
     }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    @Test
+    void countUses() {
+        rewriteRun(
+          spec -> spec.recipe(new FindDataUsedOnDto("java.time.LocalDate", true))
+            .dataTable(DtoDataUseCounts.Row.class, rows -> assertThat(rows).containsExactlyInAnyOrder(
+              new DtoDataUseCounts.Row("Test.java", "test", "dayOfMonth", 2),
+              new DtoDataUseCounts.Row("Test.java", "test", "dayOfYear", 1)
+            )),
+          //language=java
+          java(
+            """
+              import java.time.LocalDate;
+
+              class Test {
+                  void test(LocalDate date) {
+                        date.getDayOfMonth();
+                        date.getDayOfMonth();
+                        date.getDayOfYear();
+                  }
+              }
+              """,
+            """
+              import java.time.LocalDate;
+
+              class Test {
+                  void test(LocalDate date) {
+                        /*~~>*/date.getDayOfMonth();
+                        /*~~>*/date.getDayOfMonth();
+                        /*~~>*/date.getDayOfYear();
+                  }
+              }
+              """
+          )
+        );
+    }
 }
@@ -18,6 +18,7 @@ package org.openrewrite.java.migrate.search;
 import org.junit.jupiter.api.Test;
 import org.openrewrite.DocumentExample;
 import org.openrewrite.java.marker.JavaVersion;
+import org.openrewrite.java.migrate.table.JavaVersionHistogram;
 import org.openrewrite.java.migrate.table.JavaVersionTable;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
@@ -25,6 +26,7 @@ import org.openrewrite.test.RewriteTest;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.Tree.randomId;
 import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.java.Assertions.mavenProject;
 
 class FindJavaVersionTest implements RewriteTest {
 
@@ -59,4 +61,42 @@ class FindJavaVersionTest implements RewriteTest {
             spec -> spec.markers(jv))
         );
     }
+
+    @Test
+    void countFilesPerVersionAndModule() {
+        JavaVersion jv = new JavaVersion(randomId(), "Sam", "Shelter", "17", "8");
+        rewriteRun(
+          spec -> spec.recipe(new FindJavaVersion(true))
+            .dataTable(JavaVersionHistogram.Row.class, rows ->
+              assertThat(rows).containsExactlyInAnyOrder(
+                new JavaVersionHistogram.Row("17", "8", "a", 2),
+                new JavaVersionHistogram.Row("17", "8", "b", 1)
+              )),
+          mavenProject("a",
+            //language=java
+            java(
+              """
+                class A {
+                }
+                """,
+              spec -> spec.markers(jv)),
+            //language=java
+            java(
+              """
+                class B {
+                }
+                """,
+              spec -> spec.markers(jv.withCreatedBy("Someone else")))
+          ),
+          mavenProject("b",
+            //language=java
+            java(
+              """
+                class C {
+                }
+                """,
+              spec -> spec.markers(jv))
+          )
+        );
+    }
 }